@@ -0,0 +1,134 @@
+package net.reldo.taskstracker.benchmark;
+
+import com.google.gson.Gson;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import lombok.Getter;
+import net.reldo.taskstracker.data.jsondatastore.TaskDefinitionParser;
+import net.reldo.taskstracker.data.jsondatastore.types.TaskDefinitionTable;
+import net.reldo.taskstracker.data.jsondatastore.types.TaskTypeDefinition;
+import net.reldo.taskstracker.data.task.TaskFromStruct;
+import net.reldo.taskstracker.data.task.TaskType;
+import net.reldo.taskstracker.data.task.TaskTypeSnapshot;
+import net.reldo.taskstracker.data.task.TaskTypeState;
+import net.reldo.taskstracker.testing.FakeGameData;
+import net.reldo.taskstracker.testing.SyntheticDataStore;
+import net.reldo.taskstracker.testing.SyntheticDataStoreSpec;
+
+/**
+ * A task type from a {@link SyntheticDataStore} with fully loaded tasks, for benchmarks that run without a game client.
+ * <p>
+ * Tasks get their params from the store's structs as snapshot columns rather than struct loads. Completions
+ * match the store's varps, and roughly a tenth of tasks are tracked and one in twenty ignored.
+ */
+public class SyntheticTaskType
+{
+	public static final String TASK_JSON_NAME = "SYNTHETIC";
+	private static final Gson GSON = new Gson();
+
+	/**
+	 * The data store the task type was generated in
+	 */
+	@Getter
+	private final SyntheticDataStore store;
+	@Getter
+	private final TaskType taskType;
+	@Getter
+	private final List<TaskFromStruct> tasks;
+	@Getter
+	private final TaskTypeState state;
+	/**
+	 * Value of each task varp, in the order of the task type's varps
+	 */
+	@Getter
+	private final int[] varpValues;
+
+	private SyntheticTaskType(SyntheticDataStore store, TaskType taskType, List<TaskFromStruct> tasks, int[] varpValues)
+	{
+		this.store = store;
+		this.taskType = taskType;
+		this.tasks = tasks;
+		this.state = new TaskTypeState(taskType, tasks, new HashMap<>());
+		this.varpValues = varpValues;
+	}
+
+	public static SyntheticTaskType create(int taskCount, long seed)
+	{
+		SyntheticDataStore store = SyntheticDataStore.generate(new SyntheticDataStoreSpec()
+			.setSeed(seed)
+			.addTaskType(TASK_JSON_NAME, taskCount));
+		FakeGameData gameData = store.getGameData();
+		TaskTypeDefinition definition = GSON.fromJson(store.getResolvedDefinitionJson(TASK_JSON_NAME), TaskTypeDefinition.class);
+		TaskType taskType = new TaskType(null, null, null, definition);
+		gameData.getEnum(definition.getIntEnumMap().get("tierPoints"))
+			.forEach((tier, points) -> taskType.getTierPoints().put(tier, (Integer) points));
+
+		TaskDefinitionTable table;
+		try
+		{
+			table = TaskDefinitionParser.parse(new StringReader(store.getTaskJson(TASK_JSON_NAME)), taskType.getStringPool());
+		}
+		catch (IOException ex)
+		{
+			throw new UncheckedIOException(ex);
+		}
+
+		Map<String, int[]> intParams = new HashMap<>();
+		taskType.getIntParamMap().forEach((paramName, paramId) -> {
+			int[] column = new int[table.getSize()];
+			for (int row = 0; row < column.length; row++)
+			{
+				column[row] = gameData.getStructIntParam(table.getStructId(row), paramId);
+			}
+			intParams.put(paramName, column);
+		});
+		Map<String, String[]> stringParams = new HashMap<>();
+		taskType.getStringParamMap().forEach((paramName, paramId) -> {
+			String[] column = new String[table.getSize()];
+			for (int row = 0; row < column.length; row++)
+			{
+				column[row] = gameData.getStructStringParam(table.getStructId(row), paramId);
+			}
+			stringParams.put(paramName, column);
+		});
+		TaskTypeSnapshot snapshot = new TaskTypeSnapshot(table, intParams, stringParams);
+
+		int[] varpValues = store.getVarpValues(taskType.getTaskVarps());
+		Random random = new Random(seed);
+		List<TaskFromStruct> tasks = new ArrayList<>(table.getSize());
+		for (int row = 0; row < table.getSize(); row++)
+		{
+			TaskFromStruct task = new TaskFromStruct(taskType, table.getRows().get(row), row);
+			task.loadSnapshotParams(snapshot, row);
+			int id = task.getIntParam("id");
+			if ((varpValues[id / 32] & (1 << (id % 32))) != 0)
+			{
+				task.setCompletedOn(1_600_000_000_000L + row);
+			}
+			if (random.nextInt(10) == 0)
+			{
+				task.setTrackedOn(1_600_000_000_000L + row);
+			}
+			if (random.nextInt(20) == 0)
+			{
+				task.setIgnoredOn(1_600_000_000_000L + row);
+			}
+			tasks.add(task);
+		}
+		return new SyntheticTaskType(store, taskType, tasks, varpValues);
+	}
+
+	/**
+	 * The task json of the task type, as served by the store
+	 */
+	public String getTaskJson()
+	{
+		return store.getTaskJson(TASK_JSON_NAME);
+	}
+}
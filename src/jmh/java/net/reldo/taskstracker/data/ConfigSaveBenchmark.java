@@ -0,0 +1,88 @@
+package net.reldo.taskstracker.data;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import net.reldo.taskstracker.benchmark.SyntheticTaskType;
+import net.reldo.taskstracker.data.task.ConfigTaskSave;
+import net.reldo.taskstracker.data.task.TaskFromStruct;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Serialising the saved task state: every task, as a journal compaction does, or the journal after one task changed,
+ * as a steady state save does, in the format saves are written in. Also parsing every task's save, encoded or in the
+ * json saves were first written in.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class ConfigSaveBenchmark
+{
+	@Param({"500", "5000", "50000"})
+	public int taskCount;
+
+	private TrackerConfigStore trackerConfigStore;
+	private List<TaskFromStruct> tasks;
+	private SaveJournal saveJournal;
+	private int nextTask;
+	private String encodedSave;
+	private String jsonSave;
+
+	@Setup
+	public void setUp()
+	{
+		trackerConfigStore = new TrackerConfigStore(new Gson());
+		tasks = SyntheticTaskType.create(taskCount, 1).getTasks();
+		saveJournal = new SaveJournal(trackerConfigStore.getSaveData(tasks), new HashMap<>());
+		encodedSave = CompactSaveCodec.encode(trackerConfigStore.getSaveData(tasks));
+		jsonSave = new GsonBuilder().excludeFieldsWithoutExposeAnnotation().create().toJson(trackerConfigStore.getSaveData(tasks));
+	}
+
+	@Benchmark
+	public String serializeSaveData()
+	{
+		return trackerConfigStore.serializeSaveData(tasks);
+	}
+
+	@Benchmark
+	public Map<Integer, ConfigTaskSave> deserializeSaveData()
+	{
+		return trackerConfigStore.deserializeSaveData(encodedSave);
+	}
+
+	@Benchmark
+	public Map<Integer, ConfigTaskSave> deserializeJsonSaveData()
+	{
+		return trackerConfigStore.deserializeSaveData(jsonSave);
+	}
+
+	@Benchmark
+	public String journalOneTaskChange()
+	{
+		TaskFromStruct task = tasks.get(nextTask++ % tasks.size());
+		task.setTracked(!task.isTracked());
+		saveJournal.append(saveJournal.getChanges(tasks));
+		if (saveJournal.needsCompaction())
+		{
+			saveJournal = new SaveJournal(trackerConfigStore.getSaveData(tasks), new HashMap<>());
+			return trackerConfigStore.serializeSaveData(saveJournal.getSaveData());
+		}
+		return trackerConfigStore.serializeSaveData(saveJournal.getJournal());
+	}
+}
@@ -0,0 +1,191 @@
+package net.reldo.taskstracker.data;
+
+import com.google.gson.Gson;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import net.reldo.taskstracker.TasksTrackerPlugin;
+import net.reldo.taskstracker.benchmark.SyntheticTaskType;
+import net.reldo.taskstracker.testing.FakeConfigManager;
+import net.reldo.taskstracker.testing.FakeGameData;
+import net.reldo.taskstracker.testing.HeadlessHarness;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The load path from plugin startup to a synced task list, on a headless harness: startup, setTaskType,
+ * applying the saved task state and a full varp sync. Sampled, so results include latency percentiles.
+ * <p>
+ * The client thread runs frames every {@link HeadlessHarness#DEFAULT_FRAME_MILLIS}, so client thread
+ * round trips cost what they do in game. Cold loads fetch and parse the task json and load structs;
+ * warm loads read the task snapshot written by an earlier load.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class EndToEndLoadBenchmark
+{
+	private static final long TIMEOUT_SECONDS = 60;
+
+	@State(Scope.Benchmark)
+	public static class Dataset
+	{
+		@Param({"500", "5000", "50000"})
+		public int taskCount;
+
+		@Param({"cold", "warm"})
+		public String snapshots;
+
+		private Map<String, String> dataStoreFiles;
+		private FakeGameData gameData;
+		private String saveJson;
+		private Path warmSnapshotDir;
+
+		@Setup(Level.Trial)
+		public void setUp() throws Exception
+		{
+			SyntheticTaskType synthetic = SyntheticTaskType.create(taskCount, 1);
+			dataStoreFiles = synthetic.getStore().getFiles();
+			gameData = synthetic.getStore().getGameData();
+			saveJson = new TrackerConfigStore(new Gson()).serializeSaveData(synthetic.getTasks());
+
+			if (isWarm())
+			{
+				warmSnapshotDir = Files.createTempDirectory("tasks-tracker-snapshots");
+				try (HeadlessHarness harness = createHarness(warmSnapshotDir))
+				{
+					harness.start();
+					harness.getTaskService().setTaskType(SyntheticTaskType.TASK_JSON_NAME).get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+					awaitSnapshot(warmSnapshotDir.resolve(SyntheticTaskType.TASK_JSON_NAME + ".bin"));
+				}
+			}
+		}
+
+		@TearDown(Level.Trial)
+		public void tearDown() throws IOException
+		{
+			if (warmSnapshotDir != null)
+			{
+				deleteDirectory(warmSnapshotDir);
+			}
+		}
+
+		boolean isWarm()
+		{
+			return "warm".equals(snapshots);
+		}
+
+		HeadlessHarness createHarness(Path snapshotDir)
+		{
+			HeadlessHarness harness = new HeadlessHarness(gameData, dataStoreFiles, snapshotDir, HeadlessHarness.DEFAULT_FRAME_MILLIS);
+			harness.getConfigValues().put(TasksTrackerPlugin.CONFIG_GROUP_NAME + ".taskTypeJsonName", SyntheticTaskType.TASK_JSON_NAME);
+			harness.getConfigValues().put(FakeConfigManager.getProfileValueKey(TrackerConfigStore.CONFIG_GROUP_NAME,
+				TrackerConfigStore.CONFIG_TASKS_PREFIX + TrackerConfigStore.CONFIG_GROUP_PREFIX_SEPARATOR + SyntheticTaskType.TASK_JSON_NAME), saveJson);
+			return harness;
+		}
+	}
+
+	@State(Scope.Thread)
+	public static class Session
+	{
+		private HeadlessHarness harness;
+		private Path snapshotDir;
+
+		@Setup(Level.Invocation)
+		public void setUp(Dataset dataset) throws IOException
+		{
+			snapshotDir = dataset.isWarm() ? null : Files.createTempDirectory("tasks-tracker-snapshots");
+			harness = dataset.createHarness(dataset.isWarm() ? dataset.warmSnapshotDir : snapshotDir);
+		}
+
+		@TearDown(Level.Invocation)
+		public void tearDown() throws Exception
+		{
+			harness.close();
+			if (snapshotDir != null)
+			{
+				deleteDirectory(snapshotDir);
+			}
+		}
+	}
+
+	@State(Scope.Benchmark)
+	public static class LoadedSession
+	{
+		@Param({"500", "5000", "50000"})
+		public int taskCount;
+
+		private HeadlessHarness harness;
+		private Path snapshotDir;
+
+		@Setup(Level.Trial)
+		public void setUp() throws Exception
+		{
+			SyntheticTaskType synthetic = SyntheticTaskType.create(taskCount, 1);
+			snapshotDir = Files.createTempDirectory("tasks-tracker-snapshots");
+			harness = new HeadlessHarness(synthetic.getStore().getGameData(), synthetic.getStore().getFiles(), snapshotDir, HeadlessHarness.DEFAULT_FRAME_MILLIS);
+			harness.start();
+			harness.getTaskService().setTaskType(SyntheticTaskType.TASK_JSON_NAME).get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+		}
+
+		@TearDown(Level.Trial)
+		public void tearDown() throws Exception
+		{
+			harness.close();
+			deleteDirectory(snapshotDir);
+		}
+	}
+
+	@Benchmark
+	public boolean startupToSynced(Session session) throws Exception
+	{
+		HeadlessHarness harness = session.harness;
+		harness.start();
+		harness.getTaskService().setTaskType(SyntheticTaskType.TASK_JSON_NAME).get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+		harness.getTrackerConfigStore().loadCurrentTaskTypeFromConfig();
+		return harness.syncAllTaskVarps().get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+	}
+
+	@Benchmark
+	public boolean fullVarpSync(LoadedSession session) throws Exception
+	{
+		return session.harness.syncAllTaskVarps().get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+	}
+
+	private static void awaitSnapshot(Path snapshotPath) throws InterruptedException
+	{
+		long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(TIMEOUT_SECONDS);
+		while (!Files.isRegularFile(snapshotPath) && System.currentTimeMillis() < deadline)
+		{
+			Thread.sleep(10);
+		}
+	}
+
+	private static void deleteDirectory(Path dir) throws IOException
+	{
+		try (Stream<Path> paths = Files.walk(dir))
+		{
+			for (Path path : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator)
+			{
+				Files.deleteIfExists(path);
+			}
+		}
+	}
+}
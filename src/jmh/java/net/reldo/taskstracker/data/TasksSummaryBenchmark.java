@@ -0,0 +1,68 @@
+package net.reldo.taskstracker.data;
+
+import java.util.concurrent.TimeUnit;
+import net.reldo.taskstracker.TasksTrackerConfig;
+import net.reldo.taskstracker.benchmark.SyntheticTaskType;
+import net.reldo.taskstracker.data.task.TaskFromStruct;
+import net.reldo.taskstracker.data.task.filters.FilterMatcher;
+import net.runelite.client.config.ConfigManager;
+import static org.mockito.Mockito.mock;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Building the totals summary, both from the running totals and when the filtered totals need a scan
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class TasksSummaryBenchmark
+{
+	@Param({"500", "5000", "50000"})
+	public int taskCount;
+
+	// Every task has reported whether it matches the filters, as after a task list refresh
+	private SyntheticTaskType filtered;
+	// No task has reported yet, so the filtered totals are scanned
+	private SyntheticTaskType unfiltered;
+	private FilterMatcher filterMatcher;
+
+	@Setup
+	public void setUp()
+	{
+		filtered = SyntheticTaskType.create(taskCount, 1);
+		unfiltered = SyntheticTaskType.create(taskCount, 1);
+		// No sub-filters, so the config manager is never read
+		filterMatcher = new FilterMatcher(mock(ConfigManager.class), new TasksTrackerConfig()
+		{
+		}, null);
+		for (TaskFromStruct task : filtered.getTasks())
+		{
+			task.setMatchesFilters(filterMatcher.meetsFilterCriteria(task, null));
+		}
+	}
+
+	@Benchmark
+	public TasksSummary fromTotals()
+	{
+		return new TasksSummary(filtered.getState().getTotals(), filtered.getTasks(), filterMatcher, null);
+	}
+
+	@Benchmark
+	public TasksSummary withFilterScan()
+	{
+		return new TasksSummary(unfiltered.getState().getTotals(), unfiltered.getTasks(), filterMatcher, null);
+	}
+}
@@ -0,0 +1,47 @@
+package net.reldo.taskstracker.data.jsondatastore;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.concurrent.TimeUnit;
+import net.reldo.taskstracker.benchmark.SyntheticTaskType;
+import net.reldo.taskstracker.data.jsondatastore.types.TaskDefinitionTable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Parsing a task json, as {@link TaskDataClient} does once it has downloaded it
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class TaskJsonParseBenchmark
+{
+	@Param({"500", "5000", "50000"})
+	public int taskCount;
+
+	private String taskJson;
+
+	@Setup
+	public void setUp()
+	{
+		taskJson = SyntheticTaskType.create(taskCount, 1).getTaskJson();
+	}
+
+	@Benchmark
+	public TaskDefinitionTable parseTaskJson() throws IOException
+	{
+		return TaskDefinitionParser.parse(new StringReader(taskJson), new StringPool());
+	}
+}
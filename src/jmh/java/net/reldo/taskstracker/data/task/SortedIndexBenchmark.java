@@ -0,0 +1,56 @@
+package net.reldo.taskstracker.data.task;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import net.reldo.taskstracker.benchmark.SyntheticTaskType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Building the sort indexes of a task type, which happens on every task type load
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class SortedIndexBenchmark
+{
+	@Param({"500", "5000", "50000"})
+	public int taskCount;
+
+	private TaskType taskType;
+	private List<TaskFromStruct> tasks;
+
+	@Setup
+	public void setUp()
+	{
+		SyntheticTaskType synthetic = SyntheticTaskType.create(taskCount, 1);
+		taskType = synthetic.getTaskType();
+		tasks = synthetic.getTasks();
+	}
+
+	@Benchmark
+	public Map<String, int[]> buildSortedIndexes()
+	{
+		Map<String, int[]> sortedIndexes = new HashMap<>();
+		for (Map.Entry<String, Comparator<TaskFromStruct>> entry : TaskService.getSortComparators(taskType, tasks).entrySet())
+		{
+			sortedIndexes.put(entry.getKey(), TaskService.buildSortedIndex(tasks, entry.getValue()));
+		}
+		return sortedIndexes;
+	}
+}
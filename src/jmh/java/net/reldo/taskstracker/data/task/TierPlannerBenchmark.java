@@ -0,0 +1,53 @@
+package net.reldo.taskstracker.data.task;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import net.reldo.taskstracker.benchmark.SyntheticTaskType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Planning the tasks to the next point tier, which should take milliseconds for a few thousand tasks.
+ * <p>
+ * Scores the incomplete tasks and solves for the points needed, as {@link TierPlanner#planNextPointTier} does
+ * once the tier thresholds are resolved. Small needs are solved with the exact knapsack and large ones greedily.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class TierPlannerBenchmark
+{
+	@Param({"500", "5000"})
+	public int taskCount;
+
+	@Param({"100", "1000"})
+	public int pointsNeeded;
+
+	private TaskTypeState state;
+	private TierPlanner tierPlanner;
+
+	@Setup
+	public void setUp()
+	{
+		state = SyntheticTaskType.create(taskCount, 1).getState();
+		tierPlanner = new TierPlanner();
+	}
+
+	@Benchmark
+	public List<TierPlanner.Candidate> planPointTier()
+	{
+		return TierPlanner.solve(tierPlanner.getCandidates(state, null, true), pointsNeeded);
+	}
+}
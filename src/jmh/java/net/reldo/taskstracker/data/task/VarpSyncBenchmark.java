@@ -0,0 +1,63 @@
+package net.reldo.taskstracker.data.task;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import net.reldo.taskstracker.benchmark.SyntheticTaskType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Applying every task varp to task completion, as a full varp sync does after login, without the client thread hops
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class VarpSyncBenchmark
+{
+	@Param({"500", "5000", "50000"})
+	public int taskCount;
+
+	private TaskService taskService;
+	private List<Integer> taskVarps;
+	private int[] varpValues;
+
+	@Setup
+	public void setUp()
+	{
+		SyntheticTaskType synthetic = SyntheticTaskType.create(taskCount, 1);
+		taskService = new TaskService();
+		taskService.applyTaskTypeState(synthetic.getState());
+		taskVarps = synthetic.getTaskType().getTaskVarps();
+		varpValues = synthetic.getVarpValues();
+	}
+
+	@Benchmark
+	public int syncAllVarps()
+	{
+		int completed = 0;
+		for (int varpIndex = 0; varpIndex < taskVarps.size(); varpIndex++)
+		{
+			for (TaskFromStruct task : taskService.getTasksFromVarpId(taskVarps.get(varpIndex)))
+			{
+				int taskVarpIndex = task.getIntParam("id") / 32;
+				if (task.applyVarpValue(varpValues[taskVarpIndex], false))
+				{
+					completed++;
+				}
+			}
+		}
+		return completed;
+	}
+}
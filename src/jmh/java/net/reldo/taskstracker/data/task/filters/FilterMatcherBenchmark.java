@@ -0,0 +1,82 @@
+package net.reldo.taskstracker.data.task.filters;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import net.reldo.taskstracker.TasksTrackerConfig;
+import net.reldo.taskstracker.TasksTrackerPlugin;
+import net.reldo.taskstracker.benchmark.SyntheticTaskType;
+import net.reldo.taskstracker.data.task.TaskFromStruct;
+import net.runelite.client.config.ConfigManager;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Filtering every task of a task type, as a full task list refresh does
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class FilterMatcherBenchmark
+{
+	@Param({"500", "5000", "50000"})
+	public int taskCount;
+
+	@Param({"", "task 1"})
+	public String textFilter;
+
+	private List<TaskFromStruct> tasks;
+	private FilterMatcher filterMatcher;
+
+	@Setup
+	public void setUp()
+	{
+		SyntheticTaskType synthetic = SyntheticTaskType.create(taskCount, 1);
+		tasks = synthetic.getTasks();
+
+		String prefix = synthetic.getTaskType().getFilterConfigPrefix();
+		Map<String, String> configuration = new HashMap<>();
+		configuration.put(prefix + "tier", "f-1-f,f-2-f,f-3-f,f-5-f");
+		configuration.put(prefix + "category", "3");
+		configuration.put(prefix + "region", "Region 4");
+		ConfigManager configManager = mock(ConfigManager.class);
+		when(configManager.getConfiguration(eq(TasksTrackerPlugin.CONFIG_GROUP_NAME), anyString()))
+			.thenAnswer(invocation -> configuration.get(invocation.<String>getArgument(1)));
+
+		TasksTrackerConfig config = new TasksTrackerConfig()
+		{
+		};
+		filterMatcher = new FilterMatcher(configManager, config, synthetic.getTaskType());
+	}
+
+	@Benchmark
+	public int meetsFilterCriteria()
+	{
+		int matches = 0;
+		for (TaskFromStruct task : tasks)
+		{
+			if (filterMatcher.meetsFilterCriteria(task, textFilter))
+			{
+				matches++;
+			}
+		}
+		return matches;
+	}
+}
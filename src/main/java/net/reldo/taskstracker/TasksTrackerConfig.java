@@ -82,6 +82,21 @@ public interface TasksTrackerConfig extends Config
 		return 50;
 	}
 
+	@Range(
+		min = 0
+	)
+	@ConfigItem(
+		position = 14,
+		keyName = "taskTypeCacheSize",
+		name = "Task Type Cache Size (MB)",
+		description = "Configures how much memory may be used to keep recently used task types loaded, so switching back to them is instant. 0 disables the cache.",
+		section = internalConfig
+	)
+	default int taskTypeCacheSize()
+	{
+		return 32;
+	}
+
 	@ConfigItem(
 		position = 100,
 		keyName = "completedFilter",
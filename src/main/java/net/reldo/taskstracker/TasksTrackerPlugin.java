@@ -7,7 +7,13 @@ import java.awt.Color;
 import java.awt.Toolkit;
 import java.awt.datatransfer.StringSelection;
 import java.awt.image.BufferedImage;
-import java.math.BigInteger;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.EnumMap;
@@ -18,6 +24,7 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
 import javax.annotation.Nullable;
 import javax.inject.Inject;
 import javax.inject.Named;
@@ -26,8 +33,10 @@ import javax.swing.JOptionPane;
 import javax.swing.SwingUtilities;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
+import net.reldo.taskstracker.data.DataLoadExecutor;
 import net.reldo.taskstracker.data.Export;
 import net.reldo.taskstracker.data.LongSerializer;
+import net.reldo.taskstracker.data.SaveWriter;
 import net.reldo.taskstracker.data.TasksSummary;
 import net.reldo.taskstracker.data.TrackerConfigStore;
 import net.reldo.taskstracker.data.jsondatastore.reader.DataStoreReader;
@@ -36,8 +45,20 @@ import net.reldo.taskstracker.data.reldo.ReldoImport;
 import net.reldo.taskstracker.data.task.TaskFromStruct;
 import net.reldo.taskstracker.data.task.TaskService;
 import net.reldo.taskstracker.data.task.TaskType;
+import net.reldo.taskstracker.data.task.TaskTypePrefetcher;
+import net.reldo.taskstracker.data.task.TaskTypeState;
+import net.reldo.taskstracker.data.task.TaskVarpSync;
+import net.reldo.taskstracker.data.task.TierPlan;
+import net.reldo.taskstracker.data.task.TierPlanner;
+import net.reldo.taskstracker.data.task.TierService;
 import net.reldo.taskstracker.data.task.filters.FilterMatcher;
 import net.reldo.taskstracker.data.task.filters.FilterService;
+import net.reldo.taskstracker.metrics.HeapAccountant;
+import net.reldo.taskstracker.metrics.Metrics;
+import net.reldo.taskstracker.metrics.Stage;
+import net.reldo.taskstracker.metrics.StallWatchdog;
+import net.reldo.taskstracker.panel.IconCache;
+import net.reldo.taskstracker.panel.TaskRefreshScheduler;
 import net.reldo.taskstracker.panel.TasksTrackerPluginPanel;
 import net.runelite.api.ChatMessageType;
 import net.runelite.api.Client;
@@ -49,7 +70,7 @@ import net.runelite.api.events.GameStateChanged;
 import net.runelite.api.events.GameTick;
 import net.runelite.api.events.StatChanged;
 import net.runelite.api.events.VarbitChanged;
-import net.runelite.client.callback.ClientThread;
+import net.runelite.client.RuneLite;
 import net.runelite.client.chat.ChatMessageBuilder;
 import net.runelite.client.chat.ChatMessageManager;
 import net.runelite.client.chat.QueuedMessage;
@@ -81,6 +102,8 @@ public class TasksTrackerPlugin extends Plugin
 
 	public TasksTrackerPluginPanel pluginPanel;
 
+	private TaskRefreshScheduler refreshScheduler;
+
 	private static final long VARP_UPDATE_THROTTLE_DELAY_MS = 7 * 1000;
 
 	private boolean forceUpdateVarpsFlag = false;
@@ -104,8 +127,6 @@ public class TasksTrackerPlugin extends Plugin
 	@Inject
 	private ClientToolbar clientToolbar;
 	@Inject
-	private ClientThread clientThread;
-	@Inject
 	private ChatMessageManager chatMessageManager;
 	@Getter
 	@Inject
@@ -120,6 +141,28 @@ public class TasksTrackerPlugin extends Plugin
 	private TaskService taskService;
 	@Inject
 	private FilterService filterService;
+	@Inject
+	private TaskTypePrefetcher taskTypePrefetcher;
+	@Inject
+	private TierService tierService;
+	@Inject
+	private TierPlanner tierPlanner;
+	@Inject
+	private TaskVarpSync taskVarpSync;
+	@Inject
+	private DataLoadExecutor dataLoadExecutor;
+	@Inject
+	private SaveWriter saveWriter;
+	@Getter
+	@Inject
+	private IconCache iconCache;
+	@Inject
+	private Metrics metrics;
+	@Getter
+	@Inject
+	private StallWatchdog stallWatchdog;
+	@Inject
+	private HeapAccountant heapAccountant;
 
 	@Getter
 	private FilterMatcher filterMatcher;
@@ -140,6 +183,10 @@ public class TasksTrackerPlugin extends Plugin
 	@Override
 	protected void startUp()
 	{
+		dataLoadExecutor.start();
+		saveWriter.start();
+		stallWatchdog.start();
+
 		try
 		{
 			String taskTypeJsonName = config.taskTypeJsonName();
@@ -153,12 +200,14 @@ public class TasksTrackerPlugin extends Plugin
 		forceUpdateVarpsFlag = false;
 
 		pluginPanel = new TasksTrackerPluginPanel(this, config, spriteManager, taskService);
+		refreshScheduler = new TaskRefreshScheduler(pluginPanel, taskService, metrics, stallWatchdog);
 
 		boolean isLoggedIn = isLoggedInState(client.getGameState());
 		pluginPanel.setLoggedIn(isLoggedIn);
 		if (isLoggedIn)
 		{
 			forceUpdateVarpsFlag = true;
+			taskTypePrefetcher.prefetch();
 		}
 
 		final BufferedImage icon = ImageUtil.loadImageResource(getClass(), "panel_icon.png");
@@ -179,8 +228,13 @@ public class TasksTrackerPlugin extends Plugin
 		pluginPanel.saveCurrentTabFilters();
 		pluginPanel.hideLoggedInPanel();
 		pluginPanel = null;
+		taskService.cancelTaskTypeLoad();
 		taskService.clearTaskTypes();
 		clientToolbar.removeNavigation(navButton);
+		// Write any saves still pending before the plugin stops
+		saveWriter.shutDown();
+		dataLoadExecutor.shutDown();
+		stallWatchdog.shutDown();
 		log.info("Tasks Tracker stopped!");
 	}
 
@@ -211,11 +265,32 @@ public class TasksTrackerPlugin extends Plugin
 				log.debug("Invalid varpId, provide a valid integer");
 			}
 		}
+		else if (commandExecuted.getCommand().equalsIgnoreCase("tt-plan"))
+		{
+			sendTierPlanToChat();
+		}
+		else if (commandExecuted.getCommand().equalsIgnoreCase("tt-stats"))
+		{
+			String[] args = commandExecuted.getArguments();
+			if (args.length > 0 && args[0].equalsIgnoreCase("reset"))
+			{
+				metrics.reset();
+				stallWatchdog.reset();
+				sendConsoleMessage("Task Tracker: Stats reset");
+				return;
+			}
+			sendStatsToChat(args.length > 0 && args[0].equalsIgnoreCase("file"));
+		}
+		else if (commandExecuted.getCommand().equalsIgnoreCase("tt-mem"))
+		{
+			sendHeapFootprintToChat();
+		}
 	}
 
 	@Subscribe
 	public void onVarbitChanged(VarbitChanged varbitChanged)
 	{
+		tierService.onVarbitChanged(varbitChanged);
 		if (forceUpdateVarpsFlag || taskService.isTaskTypeChanged())
 		{
 			// Force update is coming on next game tick, so ignore varbit change events
@@ -240,7 +315,7 @@ public class TasksTrackerPlugin extends Plugin
 		log.debug("onConfigChanged {} {}", configChanged.getKey(), configChanged.getNewValue());
 		if (configChanged.getKey().equals("untrackUponCompletion"))
 		{
-			SwingUtilities.invokeLater(pluginPanel::refreshAllTasks);
+			refreshAllTasks();
 
 			if (config.untrackUponCompletion())
 			{
@@ -250,7 +325,7 @@ public class TasksTrackerPlugin extends Plugin
 
 		if (configChanged.getKey().equals("filterPanelCollapsible"))
 		{
-			SwingUtilities.invokeLater(pluginPanel::redraw);
+			stallWatchdog.invokeLater("TasksTrackerPlugin.onConfigChanged redraw", pluginPanel::redraw);
 		}
 
 		if (configChanged.getKey().startsWith("tab")) // task list tab config items all start 'tab#'
@@ -272,13 +347,18 @@ public class TasksTrackerPlugin extends Plugin
 		GameState newGameState = gameStateChanged.getGameState();
 		RuneScapeProfileType newProfileType = RuneScapeProfileType.getCurrent(client);
 
-		SwingUtilities.invokeLater(() -> pluginPanel.setLoggedIn(isLoggedInState(newGameState)));
+		stallWatchdog.invokeLater("TasksTrackerPlugin.onGameStateChanged", () -> pluginPanel.setLoggedIn(isLoggedInState(newGameState)));
 
 		// Logged in
 		if (newGameState == GameState.LOGGING_IN)
 		{
 			forceUpdateVarpsFlag = true;
 		}
+		// Warm caches for every task type once the game data is available
+		if (newGameState == GameState.LOGGED_IN)
+		{
+			taskTypePrefetcher.prefetch();
+		}
 		// Changed game mode
 		if (isLoggedInState(newGameState) && currentProfileType != null && currentProfileType != newProfileType)
 		{
@@ -302,7 +382,7 @@ public class TasksTrackerPlugin extends Plugin
 			trackerConfigStore.loadCurrentTaskTypeFromConfig();
 			forceVarpUpdate();
 			updateFilterMatcher();
-			SwingUtilities.invokeLater(() -> pluginPanel.drawNewTaskType());
+			stallWatchdog.invokeLater("TasksTrackerPlugin.onGameTick drawNewTaskType", this::drawNewTaskType);
 			forceUpdateVarpsFlag = false;
 			taskService.setTaskTypeChanged(false);
 		}
@@ -350,7 +430,7 @@ public class TasksTrackerPlugin extends Plugin
 		}
 
 		// If we get here, 'skill' was leveled up!
-		SwingUtilities.invokeLater(() -> pluginPanel.taskListPanel.refreshTaskPanelsWithSkill(skill));
+		stallWatchdog.invokeLater("TasksTrackerPlugin.onStatChanged", () -> pluginPanel.taskListPanel.refreshTaskPanelsWithSkill(skill));
 	}
 
 	@Subscribe
@@ -363,9 +443,13 @@ public class TasksTrackerPlugin extends Plugin
 		}
 	}
 
+	/**
+	 * Requests a refresh of every task panel. Requests are coalesced, so calling this several times
+	 * within one event cycle results in a single refresh pass.
+	 */
 	public void refreshAllTasks()
 	{
-		SwingUtilities.invokeLater(() -> pluginPanel.refreshAllTasks());
+		refreshScheduler.requestFullRefresh();
 	}
 
 	public void reloadTaskType()
@@ -381,11 +465,11 @@ public class TasksTrackerPlugin extends Plugin
 					return;
 				}
 				updateFilterMatcher();
-				SwingUtilities.invokeLater(() ->
+				stallWatchdog.invokeLater("TasksTrackerPlugin.reloadTaskType", () ->
 				{
-					pluginPanel.drawNewTaskType();
+					drawNewTaskType();
 					pluginPanel.refreshFilterButtonsFromConfig(config.taskListTab());
-					pluginPanel.refreshAllTasks();
+					refreshAllTasks();
 				});
 			});
 		}
@@ -483,32 +567,126 @@ public class TasksTrackerPlugin extends Plugin
 			updateFilterMatcher();
 		}
 
+		TaskTypeState state = taskService.getState();
 		TasksSummary summary = new TasksSummary(
-			taskService.getTasks(),
+			state.getTotals(),
+			state.getTasks(),
 			filterMatcher,
 			taskTextFilter
 		);
 
-		String taskTypeName = taskService.getCurrentTaskType() != null
-			? taskService.getCurrentTaskType().getTaskJsonName()
+		String taskTypeName = state.getTaskType() != null
+			? state.getTaskType().getTaskJsonName()
 			: null;
 
-		String message = summary.formatChatMessage(taskTypeName, config.untrackUponCompletion());
+		sendConsoleMessage(summary.formatChatMessage(taskTypeName, config.untrackUponCompletion()));
+	}
 
-		final String formattedMessage = new ChatMessageBuilder()
-			.append(Color.BLACK, message)
-			.build();
+	/**
+	 * Sends the fewest, most common tasks that reach the next tier to chat
+	 */
+	public void sendTierPlanToChat()
+	{
+		TaskTypeState state = taskService.getState();
+		TierPlan plan = tierPlanner.planNextPointTier(state, playerSkills);
+		if (plan == null)
+		{
+			plan = tierPlanner.planNextCompletionCountTier(state, playerSkills);
+		}
 
+		String message;
+		if (plan == null)
+		{
+			message = "Task Tracker: No next tier to plan for";
+		}
+		else if (plan.getTasks().isEmpty())
+		{
+			message = String.format("Task Tracker: No available tasks reach %s", plan.getTierLabel());
+		}
+		else
+		{
+			String taskNames = plan.getTasks().stream()
+				.map(TaskFromStruct::getName)
+				.collect(Collectors.joining(", "));
+			message = String.format("Task Tracker: %s%d tasks to %s (%d needed): %s",
+				plan.isReachable() ? "" : "not enough, ",
+				plan.getTasks().size(),
+				plan.getTierLabel(),
+				plan.getRemaining(),
+				taskNames);
+		}
+
+		sendConsoleMessage(message);
+	}
+
+	/**
+	 * Sends the stage timings, counters and slowest EDT and client thread call sites to chat, and optionally
+	 * to a file in the RuneLite directory
+	 */
+	private void sendStatsToChat(boolean writeFile)
+	{
+		List<String> report = new ArrayList<>(metrics.getReport());
+		report.addAll(stallWatchdog.getReport());
+		if (report.isEmpty())
+		{
+			sendConsoleMessage("Task Tracker: No stats recorded yet");
+			return;
+		}
+		report.forEach(line -> sendConsoleMessage("Task Tracker: " + line));
+
+		if (writeFile)
+		{
+			dataLoadExecutor.execute(() -> {
+				String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"));
+				Path path = new File(new File(RuneLite.RUNELITE_DIR, CONFIG_GROUP_NAME), "stats-" + timestamp + ".txt").toPath();
+				try
+				{
+					Files.createDirectories(path.getParent());
+					Files.write(path, report, StandardCharsets.UTF_8);
+					sendConsoleMessage("Task Tracker: Stats written to " + path);
+				}
+				catch (IOException ex)
+				{
+					log.warn("Unable to write stats to {}", path, ex);
+					sendConsoleMessage("Task Tracker: Unable to write stats file");
+				}
+			});
+		}
+	}
+
+	/**
+	 * Sends the estimated heap of each task type and component to chat
+	 */
+	private void sendHeapFootprintToChat()
+	{
+		heapAccountant.measureAsync(pluginPanel != null ? pluginPanel.taskListPanel : null)
+			.thenAccept(footprint -> footprint.getReport().forEach(line -> sendConsoleMessage("Task Tracker: " + line)))
+			.exceptionally(ex -> {
+				log.error("Unable to measure heap", ex);
+				sendConsoleMessage("Task Tracker: Unable to measure heap");
+				return null;
+			});
+	}
+
+	private void sendConsoleMessage(String message)
+	{
 		chatMessageManager.queue(
 			QueuedMessage.builder()
 				.type(ChatMessageType.CONSOLE)
-				.runeLiteFormattedMessage(formattedMessage)
+				.runeLiteFormattedMessage(new ChatMessageBuilder().append(Color.BLACK, message).build())
 				.build());
 	}
 
+	private void drawNewTaskType()
+	{
+		long start = metrics.startTimer();
+		pluginPanel.drawNewTaskType();
+		metrics.stopTimer(Stage.PANEL_BUILD, start);
+	}
+
 	public void copyJsonToClipboard()
 	{
-		clientThread.invokeLater(() -> {
+		stallWatchdog.invokeLaterOnClientThread("TasksTrackerPlugin.copyJsonToClipboard", () -> {
 			// Not worried with this complexity on the client thread because it's from an infrequent button press
 			String json = getCurrentTaskTypeExportJson();
 			final StringSelection stringSelection = new StringSelection(json);
@@ -543,74 +721,32 @@ public class TasksTrackerPlugin extends Plugin
 		}));
 	}
 
-	private CompletableFuture<Boolean> processTaskStatus(TaskFromStruct task)
-	{
-		CompletableFuture<Boolean> future = new CompletableFuture<>();
-		clientThread.invoke(() -> {
-			int taskId = task.getIntParam("id");
-			int varbitIndex = taskId / 32;
-			int bitIndex = taskId % 32;
-			try
-			{
-				int varpId = task.getTaskType().getTaskVarps().get(varbitIndex);
-				BigInteger varpValue = BigInteger.valueOf(client.getVarpValue(varpId));
-				boolean isTaskCompleted = varpValue.testBit(bitIndex);
-				task.setCompleted(isTaskCompleted);
-				if (isTaskCompleted && config.untrackUponCompletion())
-				{
-					task.setTracked(false);
-				}
-				log.debug("process taskFromStruct {} ({}) {}", task.getStringParam("name"), task.getIntParam("id"), isTaskCompleted);
-				future.complete(isTaskCompleted);
-			}
-			catch (Exception ex)
-			{
-				log.error("Error processing task status {}", taskId, ex);
-				future.completeExceptionally(ex);
-			}
-		});
-		return future;
-	}
-
 	/**
-	 * Update task completion status. If no varpId is specified, it updates all tasks in the current task type
+	 * Update task completion status, then refresh the updated tasks. If no varpId is specified, it updates all
+	 * tasks in the current task type
 	 *
 	 * @param varpId varp id to update (optional)
 	 * @return An observable that emits true if all tasks were processed
 	 */
 	private CompletableFuture<Boolean> processVarpAndUpdateTasks(@Nullable Integer varpId)
 	{
-		log.info("processVarpAndUpdateTasks: " + (varpId != null ? varpId : "all"));
-
-		List<TaskFromStruct> tasks = varpId != null ?
-			taskService.getTasksFromVarpId(varpId) :
-			taskService.getTasks();
-
-		List<CompletableFuture<Boolean>> taskFutures = new ArrayList<>();
-		for (TaskFromStruct task : tasks)
-		{
-			CompletableFuture<Boolean> taskFuture = processTaskStatus(task);
-			taskFutures.add(taskFuture);
-		}
-
-		CompletableFuture<Void> allTasksFuture = CompletableFuture.allOf(taskFutures.toArray(new CompletableFuture[0]));
-		return allTasksFuture
-			.thenRun(() -> {
-				if (varpId != null)
-				{
-					SwingUtilities.invokeLater(() -> pluginPanel.taskListPanel.refreshMultipleTasks(tasks));
-				}
-				else
-				{
-					SwingUtilities.invokeLater(() -> pluginPanel.refreshAllTasks());
-				}
-			})
-			.thenApply(v -> true);
+		return taskVarpSync.syncVarp(varpId).thenApply(tasks -> {
+			if (varpId != null)
+			{
+				refreshScheduler.requestRefresh(tasks);
+			}
+			else
+			{
+				refreshScheduler.requestFullRefresh();
+			}
+			return true;
+		});
 	}
 
 	private String getCurrentTaskTypeExportJson()
 	{
-		TaskType taskType = taskService.getCurrentTaskType();
+		TaskTypeState state = taskService.getState();
+		TaskType taskType = state.getTaskType();
 		Gson gson = this.gson.newBuilder()
 			.excludeFieldsWithoutExposeAnnotation()
 			.registerTypeAdapter(float.class, new LongSerializer())
@@ -624,13 +760,14 @@ public class TasksTrackerPlugin extends Plugin
 		}
 		else
 		{
-			Export export = new Export(taskType, taskService.getTasks(), runeliteVersion, client);
+			Export export = new Export(taskType, state.getTasks(), runeliteVersion, client);
 			return gson.toJson(export);
 		}
 	}
 
 	private void showMessageBox(final String title, final String message, int messageType, boolean showOpenLeagueTools)
 	{
+		// Not watched, the modal dialog runs a nested event loop until it is closed
 		SwingUtilities.invokeLater(() -> {
 			JOptionPane optionPane;
 			JDialog dialog;
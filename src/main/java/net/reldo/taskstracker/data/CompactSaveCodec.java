@@ -0,0 +1,249 @@
+package net.reldo.taskstracker.data;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import net.reldo.taskstracker.data.task.ConfigTaskSave;
+
+/**
+ * Compact binary encoding of task saves by struct id, Base64 wrapped to be stored as a config value.
+ * <p>
+ * Version 1 layout, with unsigned LEB128 varints:
+ * <pre>
+ * version byte
+ * note count, then each note as its UTF-8 length and bytes
+ * task count, then for each task in struct id order:
+ *   struct id as the difference from the previous task's
+ *   flags byte: completed, tracked, ignored and note present
+ *   each present date as the zigzag difference from the previous date written
+ *   note index, if present
+ * </pre>
+ * Dates set together, such as completions found by one varp sync, differ by a few milliseconds,
+ * so most take one to three bytes instead of thirteen characters. Repeated notes are written once.
+ */
+public class CompactSaveCodec
+{
+	public static final byte VERSION = 1;
+
+	private static final int COMPLETED = 1;
+	private static final int TRACKED = 1 << 1;
+	private static final int IGNORED = 1 << 2;
+	private static final int NOTE = 1 << 3;
+
+	/**
+	 * Whether a config value is in this encoding, rather than the json saves were first written in
+	 */
+	public static boolean isEncoded(String value)
+	{
+		return !value.isEmpty() && value.charAt(0) != '{';
+	}
+
+	public static String encode(Map<Integer, ConfigTaskSave> saveData)
+	{
+		int[] structIds = saveData.keySet().stream().mapToInt(Integer::intValue).toArray();
+		Arrays.sort(structIds);
+
+		Map<String, Integer> noteIndexes = new LinkedHashMap<>();
+		for (int structId : structIds)
+		{
+			String note = saveData.get(structId).note;
+			if (note != null)
+			{
+				noteIndexes.putIfAbsent(note, noteIndexes.size());
+			}
+		}
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream(16 + structIds.length * 4);
+		out.write(VERSION);
+		writeVarint(out, noteIndexes.size());
+		for (String note : noteIndexes.keySet())
+		{
+			byte[] bytes = note.getBytes(StandardCharsets.UTF_8);
+			writeVarint(out, bytes.length);
+			out.write(bytes, 0, bytes.length);
+		}
+
+		writeVarint(out, structIds.length);
+		long previousStructId = 0;
+		long previousDate = 0;
+		for (int structId : structIds)
+		{
+			ConfigTaskSave save = saveData.get(structId);
+			writeVarint(out, structId - previousStructId);
+			previousStructId = structId;
+
+			int flags = (save.completed != 0 ? COMPLETED : 0)
+				| (save.tracked != 0 ? TRACKED : 0)
+				| (save.ignored != 0 ? IGNORED : 0)
+				| (save.note != null ? NOTE : 0);
+			out.write(flags);
+			previousDate = writeDate(out, save.completed, previousDate);
+			previousDate = writeDate(out, save.tracked, previousDate);
+			previousDate = writeDate(out, save.ignored, previousDate);
+			if (save.note != null)
+			{
+				writeVarint(out, noteIndexes.get(save.note));
+			}
+		}
+		return Base64.getEncoder().withoutPadding().encodeToString(out.toByteArray());
+	}
+
+	/**
+	 * @throws IllegalArgumentException if the value is not valid Base64 or not a complete save of a known version
+	 */
+	public static HashMap<Integer, ConfigTaskSave> decode(String value)
+	{
+		Reader in = new Reader(Base64.getDecoder().decode(value));
+		int version = in.readByte();
+		if (version != VERSION)
+		{
+			throw new IllegalArgumentException("Unknown save version " + version);
+		}
+
+		int noteCount = in.readCount();
+		List<String> notes = new ArrayList<>(noteCount);
+		for (int i = 0; i < noteCount; i++)
+		{
+			notes.add(in.readString());
+		}
+
+		int taskCount = in.readCount();
+		HashMap<Integer, ConfigTaskSave> saveData = new HashMap<>(Math.max(16, (int) (taskCount / 0.75f) + 1));
+		long structId = 0;
+		long previousDate = 0;
+		// Completed, tracked and ignored, in flag order
+		long[] dates = new long[3];
+		for (int i = 0; i < taskCount; i++)
+		{
+			structId += in.readVarint();
+			int flags = in.readByte();
+			Arrays.fill(dates, 0);
+			for (int field = 0; field < dates.length; field++)
+			{
+				if ((flags & (1 << field)) != 0)
+				{
+					dates[field] = previousDate + unzigzag(in.readVarint());
+					previousDate = dates[field];
+				}
+			}
+			String note = null;
+			if ((flags & NOTE) != 0)
+			{
+				long noteIndex = in.readVarint();
+				if (noteIndex >= notes.size())
+				{
+					throw new IllegalArgumentException("Note index " + noteIndex + " out of range");
+				}
+				note = notes.get((int) noteIndex);
+			}
+			saveData.put((int) structId, new ConfigTaskSave((int) structId, dates[0], dates[1], dates[2], note));
+		}
+		if (in.hasRemaining())
+		{
+			throw new IllegalArgumentException("Unexpected data after save");
+		}
+		return saveData;
+	}
+
+	/**
+	 * Write a date if it is set
+	 *
+	 * @return the date to write the next one relative to
+	 */
+	private static long writeDate(ByteArrayOutputStream out, long date, long previousDate)
+	{
+		if (date == 0)
+		{
+			return previousDate;
+		}
+		writeVarint(out, zigzag(date - previousDate));
+		return date;
+	}
+
+	private static void writeVarint(ByteArrayOutputStream out, long value)
+	{
+		while ((value & ~0x7FL) != 0)
+		{
+			out.write((int) ((value & 0x7F) | 0x80));
+			value >>>= 7;
+		}
+		out.write((int) value);
+	}
+
+	private static long zigzag(long value)
+	{
+		return (value << 1) ^ (value >> 63);
+	}
+
+	private static long unzigzag(long value)
+	{
+		return (value >>> 1) ^ -(value & 1);
+	}
+
+	private static class Reader
+	{
+		private final byte[] bytes;
+		private int position;
+
+		private Reader(byte[] bytes)
+		{
+			this.bytes = bytes;
+		}
+
+		private boolean hasRemaining()
+		{
+			return position < bytes.length;
+		}
+
+		private int readByte()
+		{
+			if (position >= bytes.length)
+			{
+				throw new IllegalArgumentException("Save is truncated");
+			}
+			return bytes[position++] & 0xFF;
+		}
+
+		private long readVarint()
+		{
+			long value = 0;
+			for (int shift = 0; shift < Long.SIZE; shift += 7)
+			{
+				int b = readByte();
+				value |= (long) (b & 0x7F) << shift;
+				if ((b & 0x80) == 0)
+				{
+					return value;
+				}
+			}
+			throw new IllegalArgumentException("Varint is too long");
+		}
+
+		/**
+		 * A count of items that each take at least one byte, so it can't be more than the bytes left
+		 */
+		private int readCount()
+		{
+			long count = readVarint();
+			if (count > bytes.length - position)
+			{
+				throw new IllegalArgumentException("Count " + count + " is larger than the save");
+			}
+			return (int) count;
+		}
+
+		private String readString()
+		{
+			int length = readCount();
+			String value = new String(bytes, position, length, StandardCharsets.UTF_8);
+			position += length;
+			return value;
+		}
+	}
+}
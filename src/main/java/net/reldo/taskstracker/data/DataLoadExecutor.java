@@ -0,0 +1,94 @@
+package net.reldo.taskstracker.data;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.inject.Singleton;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Background executor for downloads, parsing and index builds, tied to the plugin lifecycle.
+ * <p>
+ * Threads are named daemon threads and the work queue is bounded. The pool is created on
+ * {@link #start()} and torn down on {@link #shutDown()}, so no threads outlive the plugin.
+ * Work submitted while the plugin is stopped is rejected.
+ */
+@Singleton
+@Slf4j
+public class DataLoadExecutor implements Executor
+{
+	private static final String THREAD_NAME_PREFIX = "tasks-tracker-data-";
+	private static final int QUEUE_CAPACITY = 512;
+	private static final long KEEP_ALIVE_SECONDS = 30;
+	private static final long SHUTDOWN_TIMEOUT_MILLIS = 500;
+
+	private final AtomicInteger threadCount = new AtomicInteger();
+	private ThreadPoolExecutor executor;
+
+	public synchronized void start()
+	{
+		if (executor != null && !executor.isShutdown())
+		{
+			return;
+		}
+
+		int poolSize = Math.max(2, Math.min(4, Runtime.getRuntime().availableProcessors()));
+		ThreadFactory threadFactory = runnable -> {
+			Thread thread = new Thread(runnable, THREAD_NAME_PREFIX + threadCount.incrementAndGet());
+			thread.setDaemon(true);
+			thread.setUncaughtExceptionHandler((t, ex) -> log.error("Uncaught exception in {}", t.getName(), ex));
+			return thread;
+		};
+		executor = new ThreadPoolExecutor(poolSize, poolSize, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+			new ArrayBlockingQueue<>(QUEUE_CAPACITY), threadFactory);
+		executor.allowCoreThreadTimeOut(true);
+		log.debug("Started data load executor with {} threads", poolSize);
+	}
+
+	public void shutDown()
+	{
+		ThreadPoolExecutor stoppingExecutor;
+		synchronized (this)
+		{
+			stoppingExecutor = executor;
+			executor = null;
+		}
+		if (stoppingExecutor == null)
+		{
+			return;
+		}
+
+		stoppingExecutor.shutdownNow();
+		try
+		{
+			if (!stoppingExecutor.awaitTermination(SHUTDOWN_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS))
+			{
+				log.warn("Data load executor did not terminate within {}ms", SHUTDOWN_TIMEOUT_MILLIS);
+			}
+		}
+		catch (InterruptedException ex)
+		{
+			Thread.currentThread().interrupt();
+		}
+		log.debug("Stopped data load executor");
+	}
+
+	@Override
+	public void execute(Runnable command)
+	{
+		ThreadPoolExecutor currentExecutor;
+		synchronized (this)
+		{
+			currentExecutor = executor;
+		}
+		if (currentExecutor == null)
+		{
+			throw new RejectedExecutionException("Data load executor is not running");
+		}
+		currentExecutor.execute(command);
+	}
+}
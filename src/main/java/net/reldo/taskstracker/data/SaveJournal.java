@@ -0,0 +1,209 @@
+package net.reldo.taskstracker.data;
+
+import com.google.common.hash.Hashing;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import net.reldo.taskstracker.data.task.ConfigTaskSave;
+import net.reldo.taskstracker.data.task.TaskFromStruct;
+import net.reldo.taskstracker.metrics.HeapSizer;
+
+/**
+ * What the config holds for one task type and profile: a base save of every task with save data, and a journal
+ * of the tasks changed since the base was written.
+ * <p>
+ * Once journals are enabled by {@link TrackerConfigStore#WRITE_SAVE_JOURNALS}, saves only write the journal, so they
+ * grow with the number of tasks changed rather than the number saved.
+ * A task reset to its defaults is journaled as a save with no dates or note. Once the journal is large
+ * enough it is compacted, by writing a new base and clearing it.
+ * <p>
+ * A journal's config value starts with a digest of the base it was written over. A build from before journals
+ * rewrites the base without reading the journal, so a journal whose base has since changed is ignored rather than
+ * applied over newer saves.
+ * <p>
+ * Journals are kept for every profile and task type loaded, along with the config values they were read from or
+ * last written as, so loading a task type again only parses its save if the config has changed. The config manager
+ * holds the same strings, so keeping them costs little, and an unchanged value compares by reference.
+ */
+class SaveJournal
+{
+	// The journal is compacted once it holds this many tasks, or a quarter of the saved tasks if that is more
+	private static final int MIN_COMPACTION_SIZE = 64;
+	private static final int COMPACTION_DIVISOR = 4;
+	// Separates the digest of the base a journal was written over from the journal's saves
+	private static final char JOURNAL_BASE_SEPARATOR = '|';
+
+	// The base with the journal applied, which is what the tasks were loaded from or last saved as
+	private final HashMap<Integer, ConfigTaskSave> saveData;
+	private final HashMap<Integer, ConfigTaskSave> journal;
+	// The config values, set on load and by the save writer once it has written them
+	private volatile String baseValue;
+	private volatile String journalValue;
+	// Digest of the base the config holds, which journals are written over
+	private volatile String baseDigest = digestBase(null);
+
+	SaveJournal(HashMap<Integer, ConfigTaskSave> baseSaveData, HashMap<Integer, ConfigTaskSave> journal)
+	{
+		this.saveData = baseSaveData;
+		this.saveData.putAll(journal);
+		this.journal = journal;
+	}
+
+	/**
+	 * The base with the journal applied
+	 */
+	HashMap<Integer, ConfigTaskSave> getSaveData()
+	{
+		return saveData;
+	}
+
+	HashMap<Integer, ConfigTaskSave> getJournal()
+	{
+		return journal;
+	}
+
+	/**
+	 * Get the saves of the tasks that differ from what the config holds, by struct id
+	 */
+	Map<Integer, ConfigTaskSave> getChanges(List<TaskFromStruct> tasks)
+	{
+		Map<Integer, ConfigTaskSave> changes = new HashMap<>();
+		for (TaskFromStruct task : tasks)
+		{
+			if (!isSaved(saveData.get(task.getStructId()), task))
+			{
+				changes.put(task.getStructId(), task.getSaveData());
+			}
+		}
+		return changes;
+	}
+
+	void append(Map<Integer, ConfigTaskSave> changes)
+	{
+		saveData.putAll(changes);
+		journal.putAll(changes);
+	}
+
+	boolean needsCompaction()
+	{
+		return journal.size() >= Math.max(MIN_COMPACTION_SIZE, saveData.size() / COMPACTION_DIVISOR);
+	}
+
+	/**
+	 * Clear the journal, taking the merged save data as the new base
+	 *
+	 * @return a copy of the new base, to be written
+	 */
+	HashMap<Integer, ConfigTaskSave> compact()
+	{
+		// Tasks reset to their defaults only needed journaling to override the old base
+		saveData.values().removeIf(save -> save.completed == 0 && save.tracked == 0 && save.ignored == 0 && save.note == null);
+		journal.clear();
+		return new HashMap<>(saveData);
+	}
+
+	/**
+	 * Record the config values this journal was read from or written as. A journal read with no base keeps the
+	 * digest of there being none.
+	 *
+	 * @param baseValue    the base save written, or null if the base is unchanged
+	 * @param journalValue the journal written, or null if it was unset
+	 */
+	void setConfigValues(String baseValue, String journalValue)
+	{
+		if (baseValue != null)
+		{
+			this.baseValue = baseValue;
+			baseDigest = digestBase(baseValue);
+		}
+		this.journalValue = journalValue;
+	}
+
+	/**
+	 * Digest of the base save the config holds, as recorded by {@link #setConfigValues}
+	 */
+	String getBaseDigest()
+	{
+		return baseDigest;
+	}
+
+	/**
+	 * Whether the config still holds what this journal was read from or last written as
+	 */
+	boolean matchesConfigValues(String baseValue, String journalValue)
+	{
+		return Objects.equals(this.baseValue, baseValue) && Objects.equals(this.journalValue, journalValue);
+	}
+
+	/**
+	 * Estimated heap of the saves held in memory, not including the config strings
+	 */
+	long measureHeap(HeapSizer sizer)
+	{
+		// Journal values are also in the merged save data
+		long bytes = HeapSizer.map(saveData.size()) + HeapSizer.map(journal.size());
+		for (ConfigTaskSave save : saveData.values())
+		{
+			// Three longs and two references
+			bytes += HeapSizer.object(3L * Long.BYTES + 2L * HeapSizer.REFERENCE_BYTES) + sizer.boxed(save.structId) + sizer.string(save.note);
+		}
+		return bytes;
+	}
+
+	/**
+	 * Whether a task has anything to save
+	 */
+	static boolean hasSaveData(TaskFromStruct task)
+	{
+		return task.getCompletedOn() != 0 || task.getIgnoredOn() != 0 || task.getTrackedOn() != 0 || task.getNote() != null;
+	}
+
+	/**
+	 * Digest of a base save's config value, or of there being no base
+	 */
+	static String digestBase(String baseValue)
+	{
+		return Hashing.sha256().hashString(baseValue != null ? baseValue : "", StandardCharsets.UTF_8).toString();
+	}
+
+	/**
+	 * The config value of a serialised journal, written over the base with the given digest
+	 */
+	static String toJournalValue(String baseDigest, String journalSaves)
+	{
+		return baseDigest + JOURNAL_BASE_SEPARATOR + journalSaves;
+	}
+
+	/**
+	 * The serialised saves of a journal's config value, if it was written over the given base
+	 *
+	 * @return the saves, or null if there is no journal or it was written over another base
+	 */
+	static String getJournalSaves(String journalValue, String baseValue)
+	{
+		if (journalValue == null)
+		{
+			return null;
+		}
+		int separator = journalValue.indexOf(JOURNAL_BASE_SEPARATOR);
+		if (separator < 0 || !journalValue.substring(0, separator).equals(digestBase(baseValue)))
+		{
+			return null;
+		}
+		return journalValue.substring(separator + 1);
+	}
+
+	private static boolean isSaved(ConfigTaskSave save, TaskFromStruct task)
+	{
+		if (save == null)
+		{
+			return !hasSaveData(task);
+		}
+		return save.completed == task.getCompletedOn()
+			&& save.tracked == task.getTrackedOn()
+			&& save.ignored == task.getIgnoredOn()
+			&& Objects.equals(save.note, task.getNote());
+	}
+}
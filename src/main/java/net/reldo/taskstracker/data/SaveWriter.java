@@ -0,0 +1,237 @@
+package net.reldo.taskstracker.data;
+
+import com.google.gson.Gson;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import lombok.extern.slf4j.Slf4j;
+import net.reldo.taskstracker.data.task.ConfigTaskSave;
+import net.reldo.taskstracker.metrics.Metrics;
+import net.reldo.taskstracker.metrics.Stage;
+import net.runelite.client.config.ConfigManager;
+
+/**
+ * Serialises and writes task saves on a background thread, so the thread that changed a task never waits on it.
+ * <p>
+ * Callers submit immutable save snapshots, which are numbered in submission order. Writes of a config key are made
+ * one at a time, taking its newest pending snapshot, so a burst of saves costs one encode and the last snapshot
+ * submitted wins. Writes of different config keys don't wait on each other. Writes are made to the profile the
+ * snapshot was taken for, even if the player has since switched profile. Once written, the values are recorded on the {@link SaveJournal} they were taken from.
+ * <p>
+ * Pending writes are flushed on {@link #shutDown()}. While stopped, snapshots are written on the calling thread.
+ */
+@Singleton
+@Slf4j
+public class SaveWriter
+{
+	private static final String THREAD_NAME = "tasks-tracker-save";
+	private static final long SHUTDOWN_TIMEOUT_MILLIS = 500;
+
+	@Inject
+	private ConfigManager configManager;
+	@Inject
+	private Metrics metrics;
+
+	private final Gson saveGson;
+	private final AtomicLong sequence = new AtomicLong();
+	// Guarded by this
+	private final Map<String, PendingWrite> pendingWrites = new HashMap<>();
+	// Held while taking, encoding and writing a snapshot of a key, so its writes are made in the order they were
+	// taken. Other keys aren't held up, so a flush only waits on the key it flushes.
+	private final Map<String, Object> writeLocks = new ConcurrentHashMap<>();
+	// Each key guarded by its write lock
+	private final Map<String, Long> writtenSequences = new ConcurrentHashMap<>();
+	private ExecutorService executor;
+
+	@Inject
+	public SaveWriter(Gson gson)
+	{
+		this.saveGson = TrackerConfigStore.createSaveGson(gson);
+	}
+
+	public synchronized void start()
+	{
+		if (executor != null)
+		{
+			return;
+		}
+		executor = Executors.newSingleThreadExecutor(runnable -> {
+			Thread thread = new Thread(runnable, THREAD_NAME);
+			thread.setDaemon(true);
+			thread.setUncaughtExceptionHandler((t, ex) -> log.error("Uncaught exception in {}", t.getName(), ex));
+			return thread;
+		});
+	}
+
+	/**
+	 * Stop the writer thread, then write anything still pending on the calling thread
+	 */
+	public void shutDown()
+	{
+		ExecutorService stoppingExecutor;
+		synchronized (this)
+		{
+			stoppingExecutor = executor;
+			executor = null;
+		}
+		if (stoppingExecutor != null)
+		{
+			stoppingExecutor.shutdown();
+			try
+			{
+				if (!stoppingExecutor.awaitTermination(SHUTDOWN_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS))
+				{
+					log.warn("Save writer did not finish within {}ms", SHUTDOWN_TIMEOUT_MILLIS);
+				}
+			}
+			catch (InterruptedException ex)
+			{
+				Thread.currentThread().interrupt();
+			}
+		}
+		flush();
+	}
+
+	/**
+	 * Queue a save snapshot of a task type
+	 *
+	 * @param profileKey  the RuneScape profile the snapshot was taken for
+	 * @param configKey   the task type's config key
+	 * @param saveJournal the journal the snapshot was taken from
+	 * @param baseSave    a new base save, or null to only write the journal
+	 * @param journal     the task type's whole journal, which replaces any written before
+	 */
+	void submit(String profileKey, String configKey, SaveJournal saveJournal, Map<Integer, ConfigTaskSave> baseSave, Map<Integer, ConfigTaskSave> journal)
+	{
+		if (profileKey == null)
+		{
+			log.debug("No profile to save {} to, skipping", configKey);
+			return;
+		}
+		String writeKey = profileKey + "." + configKey;
+		ExecutorService currentExecutor;
+		synchronized (this)
+		{
+			PendingWrite previous = pendingWrites.get(writeKey);
+			// A base that hasn't been written is still needed, since journals after it don't include its tasks
+			if (baseSave == null && previous != null)
+			{
+				baseSave = previous.baseSave;
+			}
+			pendingWrites.put(writeKey, new PendingWrite(sequence.incrementAndGet(), profileKey, configKey, saveJournal, baseSave, journal));
+			currentExecutor = executor;
+		}
+
+		if (currentExecutor != null)
+		{
+			try
+			{
+				currentExecutor.execute(() -> write(writeKey));
+				return;
+			}
+			catch (RejectedExecutionException ex)
+			{
+				log.debug("Save writer stopped, writing {} on the calling thread", configKey);
+			}
+		}
+		write(writeKey);
+	}
+
+	/**
+	 * Write a task type's pending snapshot now, so its config can be read back
+	 */
+	public void flush(String profileKey, String configKey)
+	{
+		write(profileKey + "." + configKey);
+	}
+
+	/**
+	 * Write every pending snapshot now
+	 */
+	public void flush()
+	{
+		List<String> writeKeys;
+		synchronized (this)
+		{
+			writeKeys = new ArrayList<>(pendingWrites.keySet());
+		}
+		writeKeys.forEach(this::write);
+	}
+
+	private void write(String writeKey)
+	{
+		synchronized (writeLocks.computeIfAbsent(writeKey, k -> new Object()))
+		{
+			PendingWrite write;
+			synchronized (this)
+			{
+				write = pendingWrites.remove(writeKey);
+			}
+			if (write == null)
+			{
+				// Already written along with a newer snapshot
+				return;
+			}
+			Long writtenSequence = writtenSequences.get(writeKey);
+			if (writtenSequence != null && writtenSequence > write.sequence)
+			{
+				log.warn("Skipping save {} of {}, superseded by {}", write.sequence, write.configKey, writtenSequence);
+				return;
+			}
+
+			long start = metrics.startTimer();
+			String baseValue = write.baseSave != null ? TrackerConfigStore.serializeSaveData(saveGson, write.baseSave) : null;
+			String journalValue = null;
+			if (!write.journal.isEmpty())
+			{
+				String baseDigest = baseValue != null ? SaveJournal.digestBase(baseValue) : write.saveJournal.getBaseDigest();
+				journalValue = SaveJournal.toJournalValue(baseDigest, TrackerConfigStore.serializeSaveData(saveGson, write.journal));
+			}
+			writtenSequences.put(writeKey, write.sequence);
+			if (baseValue != null)
+			{
+				configManager.setConfiguration(TrackerConfigStore.CONFIG_GROUP_NAME, write.profileKey, write.configKey, baseValue);
+			}
+			String journalKey = write.configKey + TrackerConfigStore.CONFIG_JOURNAL_SUFFIX;
+			if (journalValue != null)
+			{
+				configManager.setConfiguration(TrackerConfigStore.CONFIG_GROUP_NAME, write.profileKey, journalKey, journalValue);
+			}
+			else
+			{
+				configManager.unsetConfiguration(TrackerConfigStore.CONFIG_GROUP_NAME, write.profileKey, journalKey);
+			}
+			write.saveJournal.setConfigValues(baseValue, journalValue);
+			metrics.stopTimer(Stage.SAVE_WRITE, start);
+		}
+	}
+
+	private static class PendingWrite
+	{
+		private final long sequence;
+		private final String profileKey;
+		private final String configKey;
+		private final SaveJournal saveJournal;
+		private final Map<Integer, ConfigTaskSave> baseSave;
+		private final Map<Integer, ConfigTaskSave> journal;
+
+		private PendingWrite(long sequence, String profileKey, String configKey, SaveJournal saveJournal, Map<Integer, ConfigTaskSave> baseSave, Map<Integer, ConfigTaskSave> journal)
+		{
+			this.sequence = sequence;
+			this.profileKey = profileKey;
+			this.configKey = configKey;
+			this.saveJournal = saveJournal;
+			this.baseSave = baseSave;
+			this.journal = journal;
+		}
+	}
+}
@@ -1,11 +1,10 @@
 package net.reldo.taskstracker.data;
 
 import java.util.Collection;
-import lombok.extern.slf4j.Slf4j;
 import net.reldo.taskstracker.data.task.TaskFromStruct;
+import net.reldo.taskstracker.data.task.TaskTotals;
 import net.reldo.taskstracker.data.task.filters.FilterMatcher;
 
-@Slf4j
 public class TasksSummary
 {
 	// Tracked totals
@@ -26,61 +25,27 @@ public class TasksSummary
 	public int totalCompletedCount = 0;
 	public int totalCompletedPoints = 0;
 
-	public TasksSummary(Collection<TaskFromStruct> tasks)
-	{
-		tasks.forEach(task -> {
-			if (task.isTracked())
-			{
-				trackedTasksCount++;
-				int points = task.getPoints();
-				log.debug("TasksSummary {} {}", task.getName(), points);
-				trackedTasksPoints += points;
-			}
-		});
-	}
-
 	/**
-	 * New constructor - calculates filtered totals, tracked progress, and total completed.
+	 * Reads the totals kept up to date by the task type state, only scanning the tasks
+	 * for the filtered totals if the task list hasn't applied the current filters to every task yet.
 	 *
-	 * @param tasks          All tasks to process
+	 * @param totals         The running totals of the task type
+	 * @param tasks          All tasks of the task type
 	 * @param filterMatcher  The filter matcher to determine which tasks pass current filters
 	 * @param taskTextFilter The current text search filter (can be null)
 	 */
-	public TasksSummary(Collection<TaskFromStruct> tasks, FilterMatcher filterMatcher, String taskTextFilter)
+	public TasksSummary(TaskTotals totals, Collection<TaskFromStruct> tasks, FilterMatcher filterMatcher, String taskTextFilter)
 	{
-		tasks.forEach(task -> {
-			int points = task.getPoints();
+		if (totals.copyTo(this))
+		{
+			return;
+		}
 
-			// Calculate filtered totals
+		tasks.forEach(task -> {
 			if (filterMatcher.meetsFilterCriteria(task, taskTextFilter))
 			{
 				filteredTasksCount++;
-				filteredTasksPoints += points;
-			}
-
-			// Calculate total completed
-			if (task.isCompleted())
-			{
-				totalCompletedCount++;
-				totalCompletedPoints += points;
-			}
-
-			// Calculate tracked totals with completion breakdown
-			if (task.isTracked())
-			{
-				trackedTasksCount++;
-				trackedTasksPoints += points;
-
-				if (task.isCompleted())
-				{
-					trackedCompletedCount++;
-					trackedCompletedPoints += points;
-				}
-				else
-				{
-					trackedIncompleteCount++;
-					trackedIncompletePoints += points;
-				}
+				filteredTasksPoints += task.getPoints();
 			}
 		});
 	}
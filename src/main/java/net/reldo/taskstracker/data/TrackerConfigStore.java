@@ -5,6 +5,7 @@ import com.google.gson.JsonParseException;
 import com.google.gson.reflect.TypeToken;
 import java.lang.reflect.Type;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
 import javax.inject.Inject;
@@ -15,6 +16,11 @@ import net.reldo.taskstracker.data.task.TaskFromStruct;
 import net.reldo.taskstracker.data.task.ConfigTaskSave;
 import net.reldo.taskstracker.data.task.TaskService;
 import net.reldo.taskstracker.data.task.TaskType;
+import net.reldo.taskstracker.data.task.TaskTypeState;
+import net.reldo.taskstracker.metrics.Counter;
+import net.reldo.taskstracker.metrics.HeapSizer;
+import net.reldo.taskstracker.metrics.Metrics;
+import net.reldo.taskstracker.metrics.Stage;
 import net.runelite.client.config.ConfigManager;
 
 @Singleton
@@ -24,71 +30,284 @@ public class TrackerConfigStore
 	public static final String CONFIG_TASKS_PREFIX = "tasks";
 	public static final String CONFIG_GROUP_PREFIX_SEPARATOR = "-";
 	public static final String CONFIG_GROUP_NAME = TasksTrackerPlugin.CONFIG_GROUP_NAME;
+	/**
+	 * Suffix of the config key holding the tasks changed since a task type's base save was written
+	 */
+	public static final String CONFIG_JOURNAL_SUFFIX = "-journal";
+	/**
+	 * Whether saves are written in the {@link CompactSaveCodec} encoding rather than json. Builds before the
+	 * encoding only parse json and wipe a save they can't parse, so this stays off until a release that reads
+	 * both has been out long enough that a save synced between a player's clients won't reach an older one.
+	 */
+	static final boolean WRITE_COMPACT_SAVES = false;
+	/**
+	 * Whether saves only write the tasks changed to a journal, rather than the whole base save. Builds before journals
+	 * only read the base, so they miss journaled changes and rewrite the base under the journal. A journal written
+	 * over another base is ignored on load, but its changes are lost, so this stays off until the same release as
+	 * {@link #WRITE_COMPACT_SAVES}.
+	 */
+	static final boolean WRITE_SAVE_JOURNALS = false;
+	private static final Type SAVE_DATA_TYPE = TypeToken.getParameterized(HashMap.class, Integer.class, ConfigTaskSave.class).getType();
 
 	private final Gson customGson;
 	@Inject
 	private TaskService taskService;
 	@Inject
 	private ConfigManager configManager;
+	@Inject
+	private Metrics metrics;
+	@Inject
+	private SaveWriter saveWriter;
+	// What the config holds for each loaded task type, by profile and config key. Kept across task type and
+	// profile switches, so returning to one applies its save without parsing it again.
+	private final Map<String, SaveJournal> saveJournals = new HashMap<>();
+	// Saves submitted, so a load can tell a save was made while it parsed
+	private long saveCount;
 
 	@Inject
 	public TrackerConfigStore(Gson gson)
 	{
-		this.customGson = gson.newBuilder()
-			.excludeFieldsWithoutExposeAnnotation()
-			.registerTypeAdapter(float.class, new LongSerializer())
-			.create();
+		this.customGson = createSaveGson(gson);
 	}
 
+	/**
+	 * Apply the current task type's save from the config.
+	 * <p>
+	 * A pending write of the save is flushed and the config is parsed without holding the store, so saves, such as
+	 * from the task panel, don't wait on them. If a save is made meanwhile, the config is read again.
+	 */
 	public void loadCurrentTaskTypeFromConfig()
 	{
-		TaskType currentTaskType = taskService.getCurrentTaskType();
+		TaskType currentTaskType = taskService.getState().getTaskType();
 		if (currentTaskType == null)
 		{
 			log.debug("loadTaskTypeFromConfig type is null, skipping");
 			return;
 		}
 		log.debug("loadTaskTypeFromConfig {}", currentTaskType.getName());
-		String configKey = getCurrentTaskTypeConfigKey();
+		String profileKey = configManager.getRSProfileKey();
+		String configKey = getTaskTypeConfigKey(currentTaskType);
+		String journalKey = configKey + CONFIG_JOURNAL_SUFFIX;
+		String saveJournalKey = profileKey + "." + configKey;
+		long loadSaveCount;
+		synchronized (this)
+		{
+			loadSaveCount = saveCount;
+		}
+		// A save still being written would otherwise be read back as it was before
+		saveWriter.flush(profileKey, configKey);
 		String configJson = configManager.getRSProfileConfiguration(CONFIG_GROUP_NAME, configKey);
-		if (configJson == null)
+		String journalJson = configManager.getRSProfileConfiguration(CONFIG_GROUP_NAME, journalKey);
+		long start = metrics.startTimer();
+		synchronized (this)
 		{
-			log.debug("No save information for task type {}, not applying save", currentTaskType.getName());
-			return;
+			if (configJson == null && journalJson == null)
+			{
+				log.debug("No save information for task type {}, not applying save", currentTaskType.getName());
+				saveJournals.put(saveJournalKey, new SaveJournal(new HashMap<>(), new HashMap<>()));
+				return;
+			}
+
+			SaveJournal cachedSaveJournal = saveJournals.get(saveJournalKey);
+			if (cachedSaveJournal != null && cachedSaveJournal.matchesConfigValues(configJson, journalJson))
+			{
+				log.debug("Applying cached save of task type {}", currentTaskType.getName());
+				metrics.increment(Counter.SAVE_CACHE_HIT);
+				taskService.applySave(currentTaskType, cachedSaveJournal.getSaveData());
+				metrics.stopTimer(Stage.SAVE_APPLY, start);
+				return;
+			}
 		}
 
-		Type deserializeType = TypeToken.getParameterized(HashMap.class, Integer.class, ConfigTaskSave.class).getType();
+		metrics.increment(Counter.SAVE_CACHE_MISS);
+		SaveJournal saveJournal;
 		try
 		{
-			HashMap<Integer, ConfigTaskSave> saveData = customGson.fromJson(configJson, deserializeType);
-			taskService.applySave(currentTaskType, saveData);
+			String journalSaves = SaveJournal.getJournalSaves(journalJson, configJson);
+			if (journalJson != null && journalSaves == null)
+			{
+				log.warn("{} {} was not written over the current base save, ignoring it", CONFIG_GROUP_NAME, journalKey);
+			}
+			saveJournal = new SaveJournal(deserializeSaveData(configJson), deserializeSaveData(journalSaves));
+			saveJournal.setConfigValues(configJson, journalJson);
 		}
-		catch (JsonParseException ex)
+		catch (JsonParseException | IllegalArgumentException ex)
 		{
-			log.error("{} {} json invalid. wiping saved data", CONFIG_GROUP_NAME, configKey, ex);
-			configManager.unsetRSProfileConfiguration(CONFIG_GROUP_NAME, configKey);
+			log.error("{} {} save invalid. wiping saved data", CONFIG_GROUP_NAME, configKey, ex);
+			synchronized (this)
+			{
+				configManager.unsetRSProfileConfiguration(CONFIG_GROUP_NAME, configKey);
+				configManager.unsetRSProfileConfiguration(CONFIG_GROUP_NAME, journalKey);
+				saveJournals.remove(saveJournalKey);
+			}
+			return;
 		}
+
+		synchronized (this)
+		{
+			if (saveCount == loadSaveCount)
+			{
+				taskService.applySave(currentTaskType, saveJournal.getSaveData());
+				saveJournals.put(saveJournalKey, saveJournal);
+				metrics.stopTimer(Stage.SAVE_APPLY, start);
+				return;
+			}
+		}
+		// Applying what was parsed would undo the tasks saved since, so read the config again
+		log.debug("Task type {} saved while loading, loading again", currentTaskType.getName());
+		loadCurrentTaskTypeFromConfig();
 	}
 
-	public void saveCurrentTaskTypeData()
+	/**
+	 * Save the tasks changed since the last load or save to the task type's journal, compacting the journal
+	 * into a new base save once it is large enough. Until {@link #WRITE_SAVE_JOURNALS} is on, every save writes
+	 * the base.
+	 * <p>
+	 * Only the changes are found on the calling thread; the snapshot is encoded and written by the {@link SaveWriter}.
+	 */
+	public synchronized void saveCurrentTaskTypeData()
 	{
 		log.debug("saveTaskTypeToConfig");
-		Map<Integer, ConfigTaskSave> saveDataByStructId = taskService.getTasks().stream()
-			.filter(task -> task.getCompletedOn() != 0 || task.getIgnoredOn() != 0 || task.getTrackedOn() != 0)
+		// Save tasks and key from the same snapshot, so a task type switch can't save tasks under the wrong key
+		TaskTypeState state = taskService.getState();
+		if (state.getTaskType() == null)
+		{
+			log.debug("saveTaskTypeToConfig type is null, skipping");
+			return;
+		}
+		long start = metrics.startTimer();
+		// Capture the profile with the tasks, so a profile switch can't save them to the wrong one
+		String profileKey = configManager.getRSProfileKey();
+		String configKey = getTaskTypeConfigKey(state.getTaskType());
+		String saveJournalKey = profileKey + "." + configKey;
+		SaveJournal saveJournal = saveJournals.get(saveJournalKey);
+		if (saveJournal == null)
+		{
+			// Not loaded for this profile, so what the config holds is unknown and everything is written
+			HashMap<Integer, ConfigTaskSave> saveData = getSaveData(state.getTasks());
+			saveJournal = new SaveJournal(saveData, new HashMap<>());
+			saveJournals.put(saveJournalKey, saveJournal);
+			saveCount++;
+			saveWriter.submit(profileKey, configKey, saveJournal, new HashMap<>(saveData), new HashMap<>());
+			metrics.stopTimer(Stage.SAVE_CAPTURE, start);
+			return;
+		}
+
+		Map<Integer, ConfigTaskSave> changes = saveJournal.getChanges(state.getTasks());
+		if (changes.isEmpty())
+		{
+			log.debug("saveTaskTypeToConfig no changes, skipping");
+			return;
+		}
+		saveJournal.append(changes);
+		saveCount++;
+		if (!WRITE_SAVE_JOURNALS || saveJournal.needsCompaction())
+		{
+			log.debug("Writing {} journaled tasks into the base save", saveJournal.getJournal().size());
+			saveWriter.submit(profileKey, configKey, saveJournal, saveJournal.compact(), new HashMap<>());
+		}
+		else
+		{
+			saveWriter.submit(profileKey, configKey, saveJournal, null, new HashMap<>(saveJournal.getJournal()));
+		}
+		metrics.stopTimer(Stage.SAVE_CAPTURE, start);
+	}
+
+	/**
+	 * Serialise the saved state of every task with any, keyed by struct id
+	 */
+	String serializeSaveData(List<TaskFromStruct> tasks)
+	{
+		return serializeSaveData(getSaveData(tasks));
+	}
+
+	/**
+	 * Serialise a base save or journal
+	 */
+	String serializeSaveData(Map<Integer, ConfigTaskSave> saveData)
+	{
+		return serializeSaveData(customGson, saveData);
+	}
+
+	/**
+	 * Serialise a base save or journal with the gson from {@link #createSaveGson}
+	 */
+	static String serializeSaveData(Gson saveGson, Map<Integer, ConfigTaskSave> saveData)
+	{
+		return WRITE_COMPACT_SAVES ? CompactSaveCodec.encode(saveData) : saveGson.toJson(saveData);
+	}
+
+	/**
+	 * The gson saves are read and written as json with
+	 */
+	static Gson createSaveGson(Gson gson)
+	{
+		return gson.newBuilder()
+			.excludeFieldsWithoutExposeAnnotation()
+			.registerTypeAdapter(float.class, new LongSerializer())
+			.create();
+	}
+
+	/**
+	 * Get the saved state of every task with any, keyed by struct id
+	 */
+	HashMap<Integer, ConfigTaskSave> getSaveData(List<TaskFromStruct> tasks)
+	{
+		return tasks.stream()
+			.filter(SaveJournal::hasSaveData)
 			.collect(Collectors.toMap(
 				TaskFromStruct::getStructId,
 				TaskFromStruct::getSaveData,
 				(existing, replacement) -> existing,
 				HashMap::new
 			));
+	}
+
+	/**
+	 * Parse a base save or journal, which may be absent or in the json saves were first written in
+	 *
+	 * @throws JsonParseException       if a json save is invalid
+	 * @throws IllegalArgumentException if an encoded save is invalid
+	 */
+	HashMap<Integer, ConfigTaskSave> deserializeSaveData(String configValue)
+	{
+		if (configValue == null)
+		{
+			return new HashMap<>();
+		}
+		if (CompactSaveCodec.isEncoded(configValue))
+		{
+			return CompactSaveCodec.decode(configValue);
+		}
+		HashMap<Integer, ConfigTaskSave> saveData = customGson.fromJson(configValue, SAVE_DATA_TYPE);
+		return saveData != null ? saveData : new HashMap<>();
+	}
 
-		String configValue = this.customGson.toJson(saveDataByStructId);
-		String configKey = CONFIG_TASKS_PREFIX + CONFIG_GROUP_PREFIX_SEPARATOR + taskService.getCurrentTaskType().getTaskJsonName();
-		configManager.setRSProfileConfiguration(CONFIG_GROUP_NAME, configKey, configValue);
+	/**
+	 * Estimated heap of the saves of a task type for the current profile: the config strings and the
+	 * saves held to find changes
+	 */
+	public synchronized long measureSaveHeap(String taskJsonName, HeapSizer sizer)
+	{
+		String configKey = getTaskTypeConfigKey(taskJsonName);
+		long bytes = sizer.string(configManager.getRSProfileConfiguration(CONFIG_GROUP_NAME, configKey))
+			+ sizer.string(configManager.getRSProfileConfiguration(CONFIG_GROUP_NAME, configKey + CONFIG_JOURNAL_SUFFIX));
+		SaveJournal saveJournal = saveJournals.get(getSaveJournalKey(configKey));
+		return saveJournal != null ? bytes + saveJournal.measureHeap(sizer) : bytes;
+	}
+
+	private String getSaveJournalKey(String configKey)
+	{
+		return configManager.getRSProfileKey() + "." + configKey;
+	}
+
+	private String getTaskTypeConfigKey(TaskType taskType)
+	{
+		return getTaskTypeConfigKey(taskType.getTaskJsonName());
 	}
 
-	private String getCurrentTaskTypeConfigKey()
+	private static String getTaskTypeConfigKey(String taskJsonName)
 	{
-		return CONFIG_TASKS_PREFIX + CONFIG_GROUP_PREFIX_SEPARATOR + taskService.getCurrentTaskType().getTaskJsonName();
+		return CONFIG_TASKS_PREFIX + CONFIG_GROUP_PREFIX_SEPARATOR + taskJsonName;
 	}
 }
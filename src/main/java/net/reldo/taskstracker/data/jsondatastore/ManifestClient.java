@@ -10,6 +10,8 @@ import javax.inject.Singleton;
 import lombok.extern.slf4j.Slf4j;
 import net.reldo.taskstracker.data.jsondatastore.reader.DataStoreReader;
 import net.reldo.taskstracker.data.jsondatastore.types.Manifest;
+import net.reldo.taskstracker.metrics.Metrics;
+import net.reldo.taskstracker.metrics.Stage;
 import okhttp3.OkHttpClient;
 
 @Singleton
@@ -22,20 +24,23 @@ public class ManifestClient
 	private Gson gson;
 	@Inject
 	private DataStoreReader dataStoreReader;
+	@Inject
+	private Metrics metrics;
 
-	private static Manifest _manifest = null;
+	private Manifest _manifest = null;
 
 	public ManifestClient()
 	{
 		log.debug("init manifestclient");
 	}
 
-	public Manifest getManifest() throws Exception
+	public synchronized Manifest getManifest() throws Exception
 	{
 		if (_manifest != null)
 		{
 			return _manifest;
 		}
+		long start = metrics.startTimer();
 		try (InputStream stream = this.dataStoreReader.readManifestData();
 			 InputStreamReader responseReader = new InputStreamReader(stream, StandardCharsets.UTF_8))
 		{
@@ -44,5 +49,9 @@ public class ManifestClient
 			log.debug("_manifest = " + _manifest);
 			return _manifest;
 		}
+		finally
+		{
+			metrics.stopTimer(Stage.MANIFEST_FETCH, start);
+		}
 	}
 }
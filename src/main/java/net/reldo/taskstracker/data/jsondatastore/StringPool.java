@@ -0,0 +1,31 @@
+package net.reldo.taskstracker.data.jsondatastore;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Shares equal strings, so values repeated across thousands of tasks, such as skill names and
+ * metadata categories, are held once. Each task type has its own pool, released with the task type.
+ */
+public class StringPool
+{
+	private final Map<String, String> strings = new ConcurrentHashMap<>();
+
+	/**
+	 * Get the pooled instance of a string, adding it to the pool if it is new
+	 */
+	public String share(String value)
+	{
+		if (value == null)
+		{
+			return null;
+		}
+		String shared = strings.putIfAbsent(value, value);
+		return shared != null ? shared : value;
+	}
+
+	public int size()
+	{
+		return strings.size();
+	}
+}
@@ -13,12 +13,15 @@ import javax.inject.Inject;
 import javax.inject.Singleton;
 import lombok.extern.slf4j.Slf4j;
 import net.reldo.taskstracker.data.jsondatastore.reader.DataStoreReader;
-import net.reldo.taskstracker.data.jsondatastore.types.TaskDefinition;
+import net.reldo.taskstracker.data.jsondatastore.types.TaskDefinitionTable;
 import net.reldo.taskstracker.data.jsondatastore.types.TaskTypeDefinition;
 import net.reldo.taskstracker.data.task.TaskType;
+import net.reldo.taskstracker.data.task.TaskTypeLoadToken;
+import net.reldo.taskstracker.metrics.Metrics;
+import net.reldo.taskstracker.metrics.Stage;
+import net.reldo.taskstracker.metrics.StallWatchdog;
+import net.reldo.taskstracker.panel.IconCache;
 import net.runelite.api.Client;
-import net.runelite.client.callback.ClientThread;
-import net.runelite.client.game.SpriteManager;
 import okhttp3.OkHttpClient;
 
 @Singleton
@@ -36,9 +39,11 @@ public class TaskDataClient
 	@Inject
 	private Client client;
 	@Inject
-	private ClientThread clientThread;
+	private StallWatchdog stallWatchdog;
 	@Inject
-	private SpriteManager spriteManager;
+	private IconCache iconCache;
+	@Inject
+	private Metrics metrics;
 
 	public TaskDataClient()
 	{
@@ -57,19 +62,24 @@ public class TaskDataClient
 			HashMap<String, TaskType> taskTypes = new HashMap<>();
 			for (TaskTypeDefinition taskTypeDefinition : taskTypeDefinitions)
 			{
-				taskTypes.put(taskTypeDefinition.getTaskJsonName(), new TaskType(client, clientThread, spriteManager, taskTypeDefinition));
+				taskTypes.put(taskTypeDefinition.getTaskJsonName(), new TaskType(client, stallWatchdog, iconCache, taskTypeDefinition));
 			}
 			return taskTypes;
 		}
 	}
 
-	public List<TaskDefinition> getTaskDefinitions(String jsonFilename) throws Exception
+	public TaskDefinitionTable getTaskDefinitionTable(TaskType taskType, TaskTypeLoadToken loadToken) throws Exception
 	{
-		try (InputStream stream = this.dataStoreReader.readTasks(jsonFilename);
+		// The parser reads straight from the response, so the fetch and parse are timed together
+		long start = metrics.startTimer();
+		try (InputStream stream = this.dataStoreReader.readTasks(taskType.getTaskJsonName(), loadToken);
 			 InputStreamReader responseReader = new InputStreamReader(stream, StandardCharsets.UTF_8))
 		{
-			Type listType = TypeToken.getParameterized(ArrayList.class, TaskDefinition.class).getType();
-			return this.gson.fromJson(responseReader, listType);
+			return TaskDefinitionParser.parse(responseReader, taskType.getStringPool());
+		}
+		finally
+		{
+			metrics.stopTimer(Stage.TASK_JSON_LOAD, start);
 		}
 	}
 }
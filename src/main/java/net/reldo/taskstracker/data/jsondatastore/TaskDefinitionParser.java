@@ -0,0 +1,349 @@
+package net.reldo.taskstracker.data.jsondatastore;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import lombok.extern.slf4j.Slf4j;
+import net.reldo.taskstracker.data.jsondatastore.types.TaskDefinitionTable;
+import net.reldo.taskstracker.data.jsondatastore.types.TaskMetadataColumn;
+
+/**
+ * Streams a task json array straight into the columns of a {@link TaskDefinitionTable}.
+ * <p>
+ * Unlike reflective deserialization, no intermediate object is created per task, skill or metadata entry.
+ * Strings are shared through the task type's {@link StringPool}, and metadata string values are
+ * dictionary encoded per key.
+ */
+@Slf4j
+public class TaskDefinitionParser
+{
+	private static final int INITIAL_CAPACITY = 256;
+
+	private final StringPool stringPool;
+	private final Map<String, MetadataColumnBuilder> metadataColumns = new LinkedHashMap<>();
+	private int size = 0;
+	private int capacity = INITIAL_CAPACITY;
+	private int[] structIds = new int[INITIAL_CAPACITY];
+	private int[] sortIds = new int[INITIAL_CAPACITY];
+	private float[] completionPercents = new float[INITIAL_CAPACITY];
+	private String[] wikiNotes = new String[INITIAL_CAPACITY];
+	private int[] skillOffsets = new int[INITIAL_CAPACITY + 1];
+	private int skillCount = 0;
+	private String[] skillNames = new String[INITIAL_CAPACITY];
+	private int[] skillLevels = new int[INITIAL_CAPACITY];
+
+	private TaskDefinitionParser(StringPool stringPool)
+	{
+		this.stringPool = stringPool;
+	}
+
+	public static TaskDefinitionTable parse(Reader reader) throws IOException
+	{
+		return parse(reader, new StringPool());
+	}
+
+	public static TaskDefinitionTable parse(Reader reader, StringPool stringPool) throws IOException
+	{
+		try (JsonReader jsonReader = new JsonReader(reader))
+		{
+			return new TaskDefinitionParser(stringPool).readTable(jsonReader);
+		}
+	}
+
+	private TaskDefinitionTable readTable(JsonReader reader) throws IOException
+	{
+		reader.beginArray();
+		while (reader.hasNext())
+		{
+			readTask(reader);
+		}
+		reader.endArray();
+
+		Map<String, TaskMetadataColumn> columns = new LinkedHashMap<>();
+		metadataColumns.forEach((key, builder) -> columns.put(key, builder.build(size)));
+		return new TaskDefinitionTable(size,
+			Arrays.copyOf(structIds, size),
+			Arrays.copyOf(sortIds, size),
+			Arrays.copyOf(completionPercents, size),
+			Arrays.copyOf(wikiNotes, size),
+			Arrays.copyOf(skillOffsets, size + 1),
+			Arrays.copyOf(skillNames, skillCount),
+			Arrays.copyOf(skillLevels, skillCount),
+			columns);
+	}
+
+	private void readTask(JsonReader reader) throws IOException
+	{
+		ensureCapacity(size + 1);
+		int row = size;
+		structIds[row] = TaskDefinitionTable.NO_VALUE;
+		sortIds[row] = TaskDefinitionTable.NO_VALUE;
+		completionPercents[row] = Float.NaN;
+		wikiNotes[row] = null;
+
+		reader.beginObject();
+		while (reader.hasNext())
+		{
+			String name = reader.nextName();
+			if (reader.peek() == JsonToken.NULL)
+			{
+				reader.nextNull();
+				continue;
+			}
+			switch (name)
+			{
+				case "structId":
+					structIds[row] = reader.nextInt();
+					break;
+				case "sortId":
+					sortIds[row] = reader.nextInt();
+					break;
+				case "completionPercent":
+					completionPercents[row] = (float) reader.nextDouble();
+					break;
+				case "wikiNotes":
+					wikiNotes[row] = stringPool.share(reader.nextString());
+					break;
+				case "skills":
+					readSkills(reader);
+					break;
+				case "metadata":
+					readMetadata(reader, row);
+					break;
+				default:
+					reader.skipValue();
+			}
+		}
+		reader.endObject();
+
+		size++;
+		skillOffsets[size] = skillCount;
+	}
+
+	private void readSkills(JsonReader reader) throws IOException
+	{
+		reader.beginArray();
+		while (reader.hasNext())
+		{
+			String skill = null;
+			int level = TaskDefinitionTable.NO_VALUE;
+			reader.beginObject();
+			while (reader.hasNext())
+			{
+				String name = reader.nextName();
+				if (reader.peek() == JsonToken.NULL)
+				{
+					reader.nextNull();
+				}
+				else if (name.equals("skill"))
+				{
+					skill = share(reader.nextString());
+				}
+				else if (name.equals("level"))
+				{
+					level = reader.nextInt();
+				}
+				else
+				{
+					reader.skipValue();
+				}
+			}
+			reader.endObject();
+
+			if (skillCount == skillNames.length)
+			{
+				skillNames = Arrays.copyOf(skillNames, skillCount * 2);
+				skillLevels = Arrays.copyOf(skillLevels, skillCount * 2);
+			}
+			skillNames[skillCount] = skill;
+			skillLevels[skillCount] = level;
+			skillCount++;
+		}
+		reader.endArray();
+	}
+
+	private void readMetadata(JsonReader reader, int row) throws IOException
+	{
+		reader.beginObject();
+		while (reader.hasNext())
+		{
+			String key = reader.nextName();
+			JsonToken token = reader.peek();
+			if (token != JsonToken.NUMBER && token != JsonToken.STRING && token != JsonToken.BOOLEAN && token != JsonToken.BEGIN_ARRAY)
+			{
+				// Nested objects aren't used by any filter or panel
+				log.debug("Skipping {} metadata value {}", token, key);
+				reader.skipValue();
+				continue;
+			}
+
+			MetadataColumnBuilder column = metadataColumns.computeIfAbsent(share(key), k -> new MetadataColumnBuilder(k, capacity));
+			switch (token)
+			{
+				case BEGIN_ARRAY:
+					column.setStringSet(row, readStringSet(reader));
+					break;
+				case NUMBER:
+					column.setNumber(row, reader.nextDouble(), TaskMetadataColumn.TYPE_NUMBER);
+					break;
+				case BOOLEAN:
+					column.setNumber(row, reader.nextBoolean() ? 1 : 0, TaskMetadataColumn.TYPE_BOOLEAN);
+					break;
+				default:
+					column.setString(row, share(reader.nextString()));
+			}
+		}
+		reader.endObject();
+	}
+
+	private List<String> readStringSet(JsonReader reader) throws IOException
+	{
+		List<String> values = new ArrayList<>();
+		reader.beginArray();
+		while (reader.hasNext())
+		{
+			JsonToken token = reader.peek();
+			if (token == JsonToken.STRING || token == JsonToken.NUMBER || token == JsonToken.BOOLEAN)
+			{
+				// Numbers and booleans in arrays are kept as their json text, like categories
+				values.add(share(token == JsonToken.BOOLEAN ? String.valueOf(reader.nextBoolean()) : reader.nextString()));
+			}
+			else
+			{
+				reader.skipValue();
+			}
+		}
+		reader.endArray();
+		return values;
+	}
+
+	private void ensureCapacity(int required)
+	{
+		if (required <= capacity)
+		{
+			return;
+		}
+		capacity = Math.max(required, capacity * 2);
+		structIds = Arrays.copyOf(structIds, capacity);
+		sortIds = Arrays.copyOf(sortIds, capacity);
+		completionPercents = Arrays.copyOf(completionPercents, capacity);
+		wikiNotes = Arrays.copyOf(wikiNotes, capacity);
+		skillOffsets = Arrays.copyOf(skillOffsets, capacity + 1);
+		metadataColumns.values().forEach(column -> column.grow(capacity));
+	}
+
+	private String share(String value)
+	{
+		return stringPool.share(value);
+	}
+
+	private static class MetadataColumnBuilder
+	{
+		private final String key;
+		private byte[] types;
+		private double[] numbers;
+		private int[] codes;
+		private int[] setOffsets;
+		private int[] setCodes;
+		private int setCodeCount = 0;
+		// Rows before this have their set offsets filled in
+		private int setOffsetRows = 0;
+		private final Map<String, Integer> dictionary = new LinkedHashMap<>();
+
+		MetadataColumnBuilder(String key, int capacity)
+		{
+			this.key = key;
+			this.types = new byte[capacity];
+		}
+
+		void grow(int capacity)
+		{
+			types = Arrays.copyOf(types, capacity);
+			if (numbers != null)
+			{
+				numbers = Arrays.copyOf(numbers, capacity);
+			}
+			if (codes != null)
+			{
+				codes = Arrays.copyOf(codes, capacity);
+			}
+			if (setOffsets != null)
+			{
+				setOffsets = Arrays.copyOf(setOffsets, capacity + 1);
+			}
+		}
+
+		void setNumber(int row, double value, byte type)
+		{
+			if (numbers == null)
+			{
+				numbers = new double[types.length];
+			}
+			numbers[row] = value;
+			types[row] = type;
+		}
+
+		void setString(int row, String value)
+		{
+			if (codes == null)
+			{
+				codes = new int[types.length];
+			}
+			codes[row] = dictionary.computeIfAbsent(value, v -> dictionary.size());
+			types[row] = TaskMetadataColumn.TYPE_STRING;
+		}
+
+		void setStringSet(int row, List<String> values)
+		{
+			if (setOffsets == null)
+			{
+				setOffsets = new int[types.length + 1];
+				setCodes = new int[Math.max(16, values.size())];
+			}
+			// Rows are parsed in order, so every earlier row's set is complete
+			fillSetOffsets(row);
+			for (String value : values)
+			{
+				if (setCodeCount == setCodes.length)
+				{
+					setCodes = Arrays.copyOf(setCodes, setCodeCount * 2);
+				}
+				setCodes[setCodeCount++] = dictionary.computeIfAbsent(value, v -> dictionary.size());
+			}
+			setOffsets[row + 1] = setCodeCount;
+			setOffsetRows = row + 1;
+			types[row] = TaskMetadataColumn.TYPE_STRING_SET;
+		}
+
+		private void fillSetOffsets(int untilRow)
+		{
+			for (int row = setOffsetRows; row < untilRow; row++)
+			{
+				setOffsets[row + 1] = setCodeCount;
+			}
+			setOffsetRows = untilRow;
+		}
+
+		TaskMetadataColumn build(int size)
+		{
+			if (setOffsets != null)
+			{
+				fillSetOffsets(size);
+			}
+			// Columns only holding some kinds of value don't keep arrays for the others
+			return new TaskMetadataColumn(key,
+				Arrays.copyOf(types, size),
+				numbers != null ? Arrays.copyOf(numbers, size) : null,
+				codes != null ? Arrays.copyOf(codes, size) : null,
+				setOffsets != null ? Arrays.copyOf(setOffsets, size + 1) : null,
+				setCodes != null ? Arrays.copyOf(setCodes, setCodeCount) : null,
+				dictionary.keySet().toArray(new String[0]));
+		}
+	}
+}
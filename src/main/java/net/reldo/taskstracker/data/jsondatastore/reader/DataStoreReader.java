@@ -1,6 +1,7 @@
 package net.reldo.taskstracker.data.jsondatastore.reader;
 
 import java.io.InputStream;
+import net.reldo.taskstracker.data.task.TaskTypeLoadToken;
 
 public interface DataStoreReader
 {
@@ -10,5 +11,14 @@ public interface DataStoreReader
 
 	InputStream readTasks(String jsonFilename) throws Exception;
 
+	/**
+	 * Read tasks, abandoning the read if the load token is cancelled
+	 */
+	default InputStream readTasks(String jsonFilename, TaskTypeLoadToken loadToken) throws Exception
+	{
+		loadToken.throwIfCancelled();
+		return readTasks(jsonFilename);
+	}
+
 	InputStream readFilterConfigs(String filterFilename) throws Exception;
 }
@@ -5,6 +5,8 @@ import javax.inject.Inject;
 import javax.inject.Singleton;
 import lombok.extern.slf4j.Slf4j;
 import net.reldo.taskstracker.data.jsondatastore.JsonDataStore;
+import net.reldo.taskstracker.data.task.TaskTypeLoadToken;
+import okhttp3.Call;
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
 import okhttp3.Response;
@@ -74,13 +76,22 @@ public class HttpDataStoreReader implements DataStoreReader
 
 	@Override
 	public InputStream readTasks(String jsonFilename) throws Exception
+	{
+		return readTasks(jsonFilename, new TaskTypeLoadToken(0));
+	}
+
+	@Override
+	public InputStream readTasks(String jsonFilename, TaskTypeLoadToken loadToken) throws Exception
 	{
 		String taskJsonUrl = String.format("%s/tasks/%s.min.json", JsonDataStore.baseUrl, jsonFilename);
 		log.debug("getTasks json from {} ...", taskJsonUrl);
 		Request request = new Request.Builder()
 			.url(taskJsonUrl)
 			.build();
-		Response response = this.okHttpClient.newCall(request).execute();
+		Call call = this.okHttpClient.newCall(request);
+		// Cancelling the call aborts the request, or the body stream if it is already being read
+		loadToken.onCancel(call::cancel);
+		Response response = call.execute();
 		if (!response.isSuccessful())
 		{
 			String unsuccessful = "getTasks json request unsuccessful with status " + response.code();
@@ -1,29 +1,105 @@
 package net.reldo.taskstracker.data.jsondatastore.types;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import lombok.Data;
+import lombok.Getter;
 
 /**
  * Represents a task with various attributes
+ * <p>
+ * A view of one row of a {@link TaskDefinitionTable}; values are read from the table's columns on demand.
  */
-@Data
 public class TaskDefinition
 {
+	@Getter
+	private final TaskDefinitionTable table;
+	@Getter
+	private final int row;
+
+	public TaskDefinition(TaskDefinitionTable table, int row)
+	{
+		this.table = table;
+		this.row = row;
+	}
+
 	/**
 	 * Struct id for task data
 	 */
-	private Integer structId;
+	public Integer getStructId()
+	{
+		return boxValue(table.getStructId(row));
+	}
 
 	/**
 	 * Sort id based on the sort order in the game's UI
 	 */
-	private Integer sortId;
+	public Integer getSortId()
+	{
+		return boxValue(table.getSortId(row));
+	}
 
 	/**
 	 * Skills required for the task.
+	 * Built on each call from the table, so callers should read the skills by index, or use {@link #requiresSkill(String)}
+	 * to test for one.
+	 */
+	public List<TaskDefinitionSkill> getSkills()
+	{
+		int skillCount = table.getSkillCount(row);
+		if (skillCount == 0)
+		{
+			return null;
+		}
+		List<TaskDefinitionSkill> skills = new ArrayList<>(skillCount);
+		for (int i = 0; i < skillCount; i++)
+		{
+			TaskDefinitionSkill skill = new TaskDefinitionSkill();
+			skill.setSkill(table.getSkillName(row, i));
+			skill.setLevel(boxValue(table.getSkillLevel(row, i)));
+			skills.add(skill);
+		}
+		return skills;
+	}
+
+	public int getSkillCount()
+	{
+		return table.getSkillCount(row);
+	}
+
+	public String getSkillName(int skillIndex)
+	{
+		return table.getSkillName(row, skillIndex);
+	}
+
+	/**
+	 * Level required of a skill requirement, or null if it has none
+	 */
+	public Integer getSkillLevel(int skillIndex)
+	{
+		return boxValue(table.getSkillLevel(row, skillIndex));
+	}
+
+	/**
+	 * Whether any of the task's skill requirements has one of the given names, ignoring case
 	 */
-	private List<TaskDefinitionSkill> skills;
+	public boolean requiresSkill(String... skillNames)
+	{
+		int skillCount = table.getSkillCount(row);
+		for (int i = 0; i < skillCount; i++)
+		{
+			String requiredSkill = table.getSkillName(row, i);
+			for (String skillName : skillNames)
+			{
+				if (requiredSkill != null && requiredSkill.equalsIgnoreCase(skillName))
+				{
+					return true;
+				}
+			}
+		}
+		return false;
+	}
 
 	/**
 	 * Metadata related to the task that isn't represented in the Struct/params
@@ -31,16 +107,47 @@ public class TaskDefinition
 	 * Examples:
 	 * - notes = extra description like "a magic cabbage is a cabbage picked at Draynor Manor"
 	 * - category = an extra category type that isn't a param
+	 * <p>
+	 * Built on each call from the table's metadata columns; prefer {@link #getMetadataValue(String)} for a single key.
 	 */
-	private Map<String, Object> metadata;
+	public Map<String, Object> getMetadata()
+	{
+		Map<String, Object> metadata = new HashMap<>();
+		table.getMetadataColumns().forEach((key, column) -> {
+			Object value = column.getValue(row);
+			if (value != null)
+			{
+				metadata.put(key, value);
+			}
+		});
+		return metadata.isEmpty() ? null : metadata;
+	}
+
+	public Object getMetadataValue(String key)
+	{
+		TaskMetadataColumn column = table.getMetadataColumn(key);
+		return column != null ? column.getValue(row) : null;
+	}
 
 	/**
 	 * Notes from the OSRS wiki
 	 */
-	private String wikiNotes;
+	public String getWikiNotes()
+	{
+		return table.getWikiNotes(row);
+	}
 
 	/**
 	 * Completion percent from the OSRS wiki
 	 */
-	private Float completionPercent;
+	public Float getCompletionPercent()
+	{
+		float completionPercent = table.getCompletionPercent(row);
+		return Float.isNaN(completionPercent) ? null : completionPercent;
+	}
+
+	private static Integer boxValue(int value)
+	{
+		return value != TaskDefinitionTable.NO_VALUE ? value : null;
+	}
 }
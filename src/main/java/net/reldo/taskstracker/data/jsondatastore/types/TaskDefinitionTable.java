@@ -0,0 +1,136 @@
+package net.reldo.taskstracker.data.jsondatastore.types;
+
+import java.util.AbstractList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import lombok.Getter;
+import net.reldo.taskstracker.metrics.HeapSizer;
+
+/**
+ * Column oriented storage of a task type's task definitions, as parsed from its task json.
+ * <p>
+ * Each task is a row, with its fields held in primitive or string arrays rather than one object per field.
+ * {@link TaskDefinition} is a lightweight view of a single row.
+ */
+public class TaskDefinitionTable
+{
+	/**
+	 * Stored in int columns where the json value was absent
+	 */
+	public static final int NO_VALUE = Integer.MIN_VALUE;
+
+	@Getter
+	private final int size;
+	private final int[] structIds;
+	private final int[] sortIds;
+	// NaN where absent
+	private final float[] completionPercents;
+	private final String[] wikiNotes;
+	// The skills of row i are at skillOffsets[i] until skillOffsets[i + 1]
+	private final int[] skillOffsets;
+	private final String[] skillNames;
+	private final int[] skillLevels;
+	@Getter
+	private final Map<String, TaskMetadataColumn> metadataColumns;
+	@Getter
+	private final List<TaskDefinition> rows;
+
+	public TaskDefinitionTable(int size, int[] structIds, int[] sortIds, float[] completionPercents, String[] wikiNotes,
+							   int[] skillOffsets, String[] skillNames, int[] skillLevels, Map<String, TaskMetadataColumn> metadataColumns)
+	{
+		this.size = size;
+		this.structIds = structIds;
+		this.sortIds = sortIds;
+		this.completionPercents = completionPercents;
+		this.wikiNotes = wikiNotes;
+		this.skillOffsets = skillOffsets;
+		this.skillNames = skillNames;
+		this.skillLevels = skillLevels;
+		this.metadataColumns = Collections.unmodifiableMap(metadataColumns);
+
+		TaskDefinition[] rowViews = new TaskDefinition[size];
+		for (int row = 0; row < size; row++)
+		{
+			rowViews[row] = new TaskDefinition(this, row);
+		}
+		this.rows = Collections.unmodifiableList(new AbstractList<TaskDefinition>()
+		{
+			@Override
+			public TaskDefinition get(int index)
+			{
+				return rowViews[index];
+			}
+
+			@Override
+			public int size()
+			{
+				return rowViews.length;
+			}
+		});
+	}
+
+	public int getStructId(int row)
+	{
+		return structIds[row];
+	}
+
+	public int getSortId(int row)
+	{
+		return sortIds[row];
+	}
+
+	public float getCompletionPercent(int row)
+	{
+		return completionPercents[row];
+	}
+
+	public String getWikiNotes(int row)
+	{
+		return wikiNotes[row];
+	}
+
+	public int getSkillCount(int row)
+	{
+		return skillOffsets[row + 1] - skillOffsets[row];
+	}
+
+	public String getSkillName(int row, int skillIndex)
+	{
+		return skillNames[skillOffsets[row] + skillIndex];
+	}
+
+	public int getSkillLevel(int row, int skillIndex)
+	{
+		return skillLevels[skillOffsets[row] + skillIndex];
+	}
+
+	public TaskMetadataColumn getMetadataColumn(String key)
+	{
+		return metadataColumns.get(key);
+	}
+
+	/**
+	 * Estimated heap of the table, its metadata columns and its row views
+	 */
+	public long measureHeap(HeapSizer sizer)
+	{
+		// An int and ten references
+		long bytes = HeapSizer.object(Integer.BYTES + 10L * HeapSizer.REFERENCE_BYTES)
+			+ sizer.array(structIds)
+			+ sizer.array(sortIds)
+			+ sizer.array(completionPercents)
+			+ sizer.strings(wikiNotes)
+			+ sizer.array(skillOffsets)
+			+ sizer.strings(skillNames)
+			+ sizer.array(skillLevels)
+			+ HeapSizer.map(metadataColumns.size());
+		for (TaskMetadataColumn column : metadataColumns.values())
+		{
+			bytes += sizer.string(column.getKey()) + column.measureHeap(sizer);
+		}
+		// Each row view holds the table and its row
+		bytes += HeapSizer.referenceArray(size) + (long) size * HeapSizer.object(HeapSizer.REFERENCE_BYTES + Integer.BYTES);
+		return bytes;
+	}
+}
@@ -0,0 +1,206 @@
+package net.reldo.taskstracker.data.jsondatastore.types;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import lombok.Getter;
+import net.reldo.taskstracker.metrics.HeapSizer;
+
+/**
+ * The values of one metadata key across every task of a task type.
+ * <p>
+ * Metadata values in the task json are numbers, strings, booleans or arrays of strings. Numbers and booleans are
+ * held in a primitive column. Strings are dictionary encoded: each distinct value is stored once and rows hold its
+ * small int code, so categorical values can be compared as ints. String arrays are held as a set of codes per row.
+ * Each row records which kind of value it has, if any.
+ */
+public class TaskMetadataColumn
+{
+	public static final byte TYPE_NONE = 0;
+	public static final byte TYPE_NUMBER = 1;
+	public static final byte TYPE_STRING = 2;
+	public static final byte TYPE_BOOLEAN = 3;
+	public static final byte TYPE_STRING_SET = 4;
+	public static final int NO_CODE = -1;
+
+	@Getter
+	private final String key;
+	private final byte[] types;
+	private final double[] numbers;
+	private final int[] codes;
+	// The string set codes of row i are at setCodes[setOffsets[i]] until setCodes[setOffsets[i + 1]]
+	private final int[] setOffsets;
+	private final int[] setCodes;
+	/**
+	 * The distinct string values, indexed by code
+	 */
+	@Getter
+	private final String[] dictionary;
+	private final Map<String, Integer> codesByValue = new HashMap<>();
+
+	public TaskMetadataColumn(String key, byte[] types, double[] numbers, int[] codes, int[] setOffsets, int[] setCodes, String[] dictionary)
+	{
+		this.key = key;
+		this.types = types;
+		this.numbers = numbers;
+		this.codes = codes;
+		this.setOffsets = setOffsets;
+		this.setCodes = setCodes;
+		this.dictionary = dictionary != null ? dictionary : new String[0];
+		for (int code = 0; code < this.dictionary.length; code++)
+		{
+			codesByValue.put(this.dictionary[code], code);
+		}
+	}
+
+	public byte getType(int row)
+	{
+		return types[row];
+	}
+
+	/**
+	 * Get a number value, or NaN if the row doesn't have one. Booleans read as 1 or 0.
+	 */
+	public double getNumber(int row)
+	{
+		return types[row] == TYPE_NUMBER || types[row] == TYPE_BOOLEAN ? numbers[row] : Double.NaN;
+	}
+
+	/**
+	 * Get the dictionary code of a row's string value, or {@link #NO_CODE} if the row doesn't have one
+	 */
+	public int getCode(int row)
+	{
+		return types[row] == TYPE_STRING ? codes[row] : NO_CODE;
+	}
+
+	/**
+	 * Whether a row's string value, or any value of its string set, has the given dictionary code
+	 */
+	public boolean hasCode(int row, int code)
+	{
+		if (types[row] == TYPE_STRING)
+		{
+			return codes[row] == code;
+		}
+		if (types[row] == TYPE_STRING_SET)
+		{
+			for (int i = setOffsets[row]; i < setOffsets[row + 1]; i++)
+			{
+				if (setCodes[i] == code)
+				{
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Whether a row's string value, or any value of its string set, has one of the given dictionary codes
+	 */
+	public boolean hasAnyCode(int row, BitSet codeSet)
+	{
+		if (types[row] == TYPE_STRING)
+		{
+			return codeSet.get(codes[row]);
+		}
+		if (types[row] == TYPE_STRING_SET)
+		{
+			for (int i = setOffsets[row]; i < setOffsets[row + 1]; i++)
+			{
+				if (codeSet.get(setCodes[i]))
+				{
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Get the dictionary codes of a row's string set, or an empty array if the row doesn't have one
+	 */
+	public int[] getSetCodes(int row)
+	{
+		if (types[row] != TYPE_STRING_SET)
+		{
+			return new int[0];
+		}
+		int[] rowCodes = new int[setOffsets[row + 1] - setOffsets[row]];
+		System.arraycopy(setCodes, setOffsets[row], rowCodes, 0, rowCodes.length);
+		return rowCodes;
+	}
+
+	/**
+	 * Whether any row holds a string or string set value
+	 */
+	public boolean hasStrings()
+	{
+		return dictionary.length > 0;
+	}
+
+	/**
+	 * Get the dictionary code of a string value, or {@link #NO_CODE} if no row has that value
+	 */
+	public int getCode(String value)
+	{
+		return codesByValue.getOrDefault(value, NO_CODE);
+	}
+
+	/**
+	 * Get a string value, or null if the row doesn't have one
+	 */
+	public String getString(int row)
+	{
+		return types[row] == TYPE_STRING ? dictionary[codes[row]] : null;
+	}
+
+	/**
+	 * Estimated heap of the column's values and dictionary
+	 */
+	public long measureHeap(HeapSizer sizer)
+	{
+		// Eight references
+		long bytes = HeapSizer.object(8L * HeapSizer.REFERENCE_BYTES)
+			+ sizer.array(types)
+			+ sizer.array(numbers)
+			+ sizer.array(codes)
+			+ sizer.array(setOffsets)
+			+ sizer.array(setCodes)
+			+ sizer.strings(dictionary)
+			+ HeapSizer.map(codesByValue.size());
+		for (Integer code : codesByValue.values())
+		{
+			bytes += sizer.boxed(code);
+		}
+		return bytes;
+	}
+
+	/**
+	 * Get a value boxed as gson would have read it: Double, String, Boolean, a list of strings or null
+	 */
+	public Object getValue(int row)
+	{
+		switch (types[row])
+		{
+			case TYPE_NUMBER:
+				return numbers[row];
+			case TYPE_STRING:
+				return dictionary[codes[row]];
+			case TYPE_BOOLEAN:
+				return numbers[row] != 0;
+			case TYPE_STRING_SET:
+				List<String> values = new ArrayList<>(setOffsets[row + 1] - setOffsets[row]);
+				for (int i = setOffsets[row]; i < setOffsets[row + 1]; i++)
+				{
+					values.add(dictionary[setCodes[i]]);
+				}
+				return values;
+			default:
+				return null;
+		}
+	}
+}
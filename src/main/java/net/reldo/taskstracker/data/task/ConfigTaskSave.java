@@ -23,4 +23,13 @@ public class ConfigTaskSave
 		structId = task.getStructId();
 		note = task.getNote();
 	}
+
+	public ConfigTaskSave(Integer structId, long completed, long tracked, long ignored, String note)
+	{
+		this.structId = structId;
+		this.completed = completed;
+		this.tracked = tracked;
+		this.ignored = ignored;
+		this.note = note;
+	}
 }
@@ -1,13 +1,12 @@
 package net.reldo.taskstracker.data.task;
 
 import java.time.Instant;
-import java.util.HashMap;
-import java.util.Map;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 import net.reldo.taskstracker.data.jsondatastore.types.TaskDefinition;
 import net.reldo.taskstracker.data.reldo.ReldoTaskSave;
+import net.reldo.taskstracker.metrics.HeapSizer;
 import net.runelite.api.Client;
 import net.runelite.api.StructComposition;
 
@@ -18,6 +17,11 @@ public class TaskFromStruct
 	private final Integer structId;
 	@Getter
 	private final Integer sortId;
+	/**
+	 * Position of this task in the task type's task list
+	 */
+	@Getter
+	private final int ordinal;
 	@Getter
 	private TaskType taskType;
 	@Getter
@@ -25,38 +29,50 @@ public class TaskFromStruct
 	@Getter
 	private boolean structLoaded;
 	@Getter
-	@Setter
 	private long completedOn;
 	@Getter
-	@Setter
 	private long trackedOn;
 	@Getter
-	@Setter
 	private long ignoredOn;
+	// Totals of the state this task was last published in, kept up to date by the status setters
+	private volatile TaskTotals totals;
 
-	private StructComposition _struct;
-	private final Map<String, String> _stringParams = new HashMap<>();
-	private final Map<String, Integer> _intParams = new HashMap<>();
+	// Param values in the order of the task type's param names
+	private final int[] _intParams;
+	private final String[] _stringParams;
 	@Getter
 	@Setter
 	private String note;
 
-	public TaskFromStruct(TaskType taskType, TaskDefinition taskDefinition)
+	public TaskFromStruct(TaskType taskType, TaskDefinition taskDefinition, int ordinal)
 	{
 		this.taskType = taskType;
 		this.taskDefinition = taskDefinition;
 		this.structId = taskDefinition.getStructId();
 		this.sortId = taskDefinition.getSortId();
+		this.ordinal = ordinal;
+		this._intParams = new int[taskType.getIntParamNames().length];
+		this._stringParams = new String[taskType.getStringParamNames().length];
 	}
 
 	public String getStringParam(String paramName)
 	{
-		return this._stringParams.get(paramName);
+		int index = taskType.getStringParamIndex(paramName);
+		if (index < 0 || !structLoaded)
+		{
+			return null;
+		}
+		return this._stringParams[index];
 	}
 
 	public Integer getIntParam(String paramName)
 	{
-		return this._intParams.get(paramName);
+		int index = taskType.getIntParamIndex(paramName);
+		if (index < 0 || !structLoaded)
+		{
+			return null;
+		}
+		return this._intParams[index];
 	}
 
 	// TODO: Remove client from params
@@ -71,17 +87,18 @@ public class TaskFromStruct
 		try
 		{
 			// log.debug("LOADING STRUCT DATA " + structId);
-			_struct = client.getStructComposition(structId);
-			taskType.getIntParamMap().forEach((paramName, paramId) -> {
-				int value = _struct.getIntValue(paramId);
-				// log.debug("{} {}", paramName, value);
-				_intParams.put(paramName, value);
-			});
-			taskType.getStringParamMap().forEach((paramName, paramId) -> {
-				String value = _struct.getStringValue(paramId);
-				// log.debug("{} {}", paramName, value);
-				_stringParams.put(paramName, value);
-			});
+			StructComposition struct = client.getStructComposition(structId);
+			String[] intParamNames = taskType.getIntParamNames();
+			for (int i = 0; i < intParamNames.length; i++)
+			{
+				_intParams[i] = struct.getIntValue(taskType.getIntParamMap().get(intParamNames[i]));
+			}
+			String[] stringParamNames = taskType.getStringParamNames();
+			for (int i = 0; i < stringParamNames.length; i++)
+			{
+				String value = struct.getStringValue(taskType.getStringParamMap().get(stringParamNames[i]));
+				_stringParams[i] = taskType.getStringPool().share(value);
+			}
 		}
 		catch (Exception ex)
 		{
@@ -93,6 +110,84 @@ public class TaskFromStruct
 		return true;
 	}
 
+	/**
+	 * Load params decoded into a snapshot instead of reading the game's struct
+	 */
+	public void loadSnapshotParams(TaskTypeSnapshot snapshot, int row)
+	{
+		snapshot.getIntParamColumns().forEach((paramName, values) -> _intParams[taskType.getIntParamIndex(paramName)] = values[row]);
+		snapshot.getStringParamColumns().forEach((paramName, values) -> _stringParams[taskType.getStringParamIndex(paramName)] = values[row]);
+		structLoaded = true;
+	}
+
+	/**
+	 * Estimated heap of this task's object, boxed ids and note, not including its params or definition
+	 */
+	public long measureHeap(HeapSizer sizer)
+	{
+		// An int, three longs, a boolean and eight references
+		return HeapSizer.object(Integer.BYTES + 3L * Long.BYTES + 1 + 8L * HeapSizer.REFERENCE_BYTES)
+			+ sizer.boxed(structId)
+			+ sizer.boxed(sortId)
+			+ sizer.string(note);
+	}
+
+	/**
+	 * Estimated heap of this task's param values. Pooled strings are counted by the first task to reach them.
+	 */
+	public long measureParamsHeap(HeapSizer sizer)
+	{
+		return sizer.array(_intParams) + sizer.strings(_stringParams);
+	}
+
+	void setTotals(TaskTotals totals)
+	{
+		this.totals = totals;
+	}
+
+	public void setCompletedOn(long completedOn)
+	{
+		setStatusDates(completedOn, trackedOn, ignoredOn);
+	}
+
+	public void setTrackedOn(long trackedOn)
+	{
+		setStatusDates(completedOn, trackedOn, ignoredOn);
+	}
+
+	public void setIgnoredOn(long ignoredOn)
+	{
+		setStatusDates(completedOn, trackedOn, ignoredOn);
+	}
+
+	private void setStatusDates(long completedOn, long trackedOn, long ignoredOn)
+	{
+		boolean wasCompleted = isCompleted();
+		boolean wasTracked = isTracked();
+		boolean wasIgnored = isIgnored();
+		this.completedOn = completedOn;
+		this.trackedOn = trackedOn;
+		this.ignoredOn = ignoredOn;
+
+		TaskTotals totals = this.totals;
+		if (totals != null && (wasCompleted != isCompleted() || wasTracked != isTracked() || wasIgnored != isIgnored()))
+		{
+			totals.onStatusChanged(this, wasCompleted, wasTracked, wasIgnored);
+		}
+	}
+
+	/**
+	 * Record whether the task matches the current filters, for the filtered totals
+	 */
+	public void setMatchesFilters(boolean matches)
+	{
+		TaskTotals totals = this.totals;
+		if (totals != null)
+		{
+			totals.onFilterMatched(this, matches);
+		}
+	}
+
 	public boolean isCompleted()
 	{
 		return completedOn > 0;
@@ -119,7 +214,24 @@ public class TaskFromStruct
 		{
 			return;
 		}
-		completedOn = completed ? now : 0;
+		setCompletedOn(completed ? now : 0);
+	}
+
+	/**
+	 * Update completion from the value of the varp holding this task's completion bit
+	 *
+	 * @param untrackUponCompletion whether to stop tracking the task if it is completed
+	 * @return whether the task is completed
+	 */
+	public boolean applyVarpValue(int varpValue, boolean untrackUponCompletion)
+	{
+		boolean isTaskCompleted = (varpValue & (1 << (getIntParam("id") % 32))) != 0;
+		setCompleted(isTaskCompleted);
+		if (isTaskCompleted && untrackUponCompletion)
+		{
+			setTracked(false);
+		}
+		return isTaskCompleted;
 	}
 
 	public boolean isTracked()
@@ -134,7 +246,7 @@ public class TaskFromStruct
 		{
 			return;
 		}
-		trackedOn = state ? now : 0;
+		setTrackedOn(state ? now : 0);
 	}
 
 	public boolean isIgnored()
@@ -149,7 +261,7 @@ public class TaskFromStruct
 		{
 			return;
 		}
-		ignoredOn = state ? now : 0;
+		setIgnoredOn(state ? now : 0);
 	}
 
 	public void loadConfigSave(ConfigTaskSave loadedData)
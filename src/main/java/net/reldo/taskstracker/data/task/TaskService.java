@@ -4,26 +4,35 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Comparator;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.Future;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
+import net.reldo.taskstracker.TasksTrackerConfig;
 import net.reldo.taskstracker.TasksTrackerPlugin;
+import net.reldo.taskstracker.data.DataLoadExecutor;
 import net.reldo.taskstracker.data.jsondatastore.ManifestClient;
 import net.reldo.taskstracker.data.jsondatastore.TaskDataClient;
 import net.reldo.taskstracker.data.jsondatastore.types.FilterConfig;
 import net.reldo.taskstracker.data.jsondatastore.types.FilterValueType;
 import net.reldo.taskstracker.data.jsondatastore.types.TaskDefinition;
+import net.reldo.taskstracker.data.jsondatastore.types.TaskDefinitionTable;
 import net.reldo.taskstracker.data.task.filters.FilterService;
+import net.reldo.taskstracker.metrics.Counter;
+import net.reldo.taskstracker.metrics.Metrics;
+import net.reldo.taskstracker.metrics.Stage;
+import net.reldo.taskstracker.metrics.StallWatchdog;
 import net.runelite.api.Client;
 import net.runelite.api.EnumComposition;
 import net.runelite.client.callback.ClientThread;
@@ -33,6 +42,8 @@ import net.runelite.client.config.ConfigManager;
 @Slf4j
 public class TaskService
 {
+	private static final int STRUCT_LOAD_BATCH_SIZE = 100;
+
 	@Inject
 	private ManifestClient manifestClient;
 	@Inject
@@ -45,22 +56,44 @@ public class TaskService
 	private FilterService filterService;
 	@Inject
 	private ConfigManager configManager;
+	@Inject
+	private TasksTrackerConfig config;
 
 	@Getter
 	@Setter
-	private boolean taskTypeChanged = false;
-	@Getter
-	private TaskType currentTaskType;
+	private volatile boolean taskTypeChanged = false;
+	/**
+	 * The most recently selected task type. Its tasks are available once {@link #getState()} has caught up.
+	 */
 	@Getter
-	private final List<TaskFromStruct> tasks = new ArrayList<>();
+	private volatile TaskType currentTaskType;
+	/**
+	 * The published snapshot of the loaded task type. Readers should take one snapshot and use it
+	 * throughout, rather than calling the convenience getters repeatedly.
+	 */
 	@Getter
-	private final HashMap<String, int[]> sortedIndexes = new HashMap<>();
-	private HashMap<String, TaskType> _taskTypes = new HashMap<>();
-	private HashSet<Integer> currentTaskTypeVarps = new HashSet<>();
-	private final ExecutorService futureExecutor = Executors.newSingleThreadExecutor();
+	private volatile TaskTypeState state = TaskTypeState.EMPTY;
+	private final AtomicLong stateVersion = new AtomicLong();
+	@Inject
+	private DataLoadExecutor dataLoadExecutor;
+	@Inject
+	private TaskSnapshotStore taskSnapshotStore;
+	@Inject
+	private Metrics metrics;
+	@Inject
+	private StallWatchdog stallWatchdog;
+	private CompletableFuture<HashMap<String, TaskType>> taskTypesFuture;
+	private final AtomicInteger loadGeneration = new AtomicInteger();
+	private TaskTypeLoadToken currentLoadToken;
+	private final TaskTypeStateCache taskTypeStateCache = new TaskTypeStateCache();
+	// String enum values by task type json name then enum name, valid for the cache revision they were read from
+	private final Map<String, Map<String, HashMap<Integer, String>>> stringEnumValuesCache = new ConcurrentHashMap<>();
+	private volatile int stringEnumValuesCacheRevision = -1;
 
 	public CompletableFuture<Boolean> setTaskType(String taskTypeJsonName)
 	{
+		// Fetch the global filter configs alongside the task types, both only need the manifest
+		filterService.loadFilterConfigsAsync();
 		return getTaskTypesByJsonName().thenCompose(taskTypes ->
 		{
 			TaskType newTaskType = taskTypes.get(taskTypeJsonName);
@@ -73,20 +106,32 @@ public class TaskService
 		});
 	}
 
-	private CompletableFuture<Boolean> loadAllTasksStructData(Collection<TaskFromStruct> tasks)
+	private CompletableFuture<Boolean> loadAllTasksStructData(List<TaskFromStruct> tasks, TaskTypeLoadToken loadToken)
 	{
-		Collection<CompletableFuture<Boolean>> taskFutures = new ArrayList<>();
-		for (TaskFromStruct task : tasks)
+		Collection<CompletableFuture<Boolean>> batchFutures = new ArrayList<>();
+		for (int batchStart = 0; batchStart < tasks.size(); batchStart += STRUCT_LOAD_BATCH_SIZE)
 		{
-			CompletableFuture<Boolean> taskFuture = new CompletableFuture<>();
-			clientThread.invoke(() -> {
-				boolean isTaskLoaded = task.loadStructData(client);
-				taskFuture.complete(isTaskLoaded);
+			List<TaskFromStruct> batch = tasks.subList(batchStart, Math.min(batchStart + STRUCT_LOAD_BATCH_SIZE, tasks.size()));
+			CompletableFuture<Boolean> batchFuture = new CompletableFuture<>();
+			stallWatchdog.invoke("TaskService.loadAllTasksStructData", () -> {
+				if (loadToken.isCancelled())
+				{
+					batchFuture.cancel(false);
+					return;
+				}
+				long start = metrics.startTimer();
+				boolean isBatchLoaded = true;
+				for (TaskFromStruct task : batch)
+				{
+					isBatchLoaded &= task.loadStructData(client);
+				}
+				metrics.stopTimer(Stage.STRUCT_LOAD, start);
+				batchFuture.complete(isBatchLoaded);
 			});
-			taskFutures.add(taskFuture);
+			batchFutures.add(batchFuture);
 		}
-		return CompletableFuture.allOf(taskFutures.toArray(new CompletableFuture[0])).thenApply(v -> {
-			for (CompletableFuture<Boolean> future : taskFutures)
+		return CompletableFuture.allOf(batchFutures.toArray(new CompletableFuture[0])).thenApply(v -> {
+			for (CompletableFuture<Boolean> future : batchFutures)
 			{
 				if (!future.join())
 				{
@@ -105,11 +150,113 @@ public class TaskService
 			log.debug("Skipping setTaskType, same task type selected");
 			return CompletableFuture.completedFuture(false);
 		}
+		long start = metrics.startTimer();
+		TaskTypeLoadToken loadToken = startTaskTypeLoad();
 		currentTaskType = newTaskType;
 		configManager.setConfiguration(TasksTrackerPlugin.CONFIG_GROUP_NAME, "taskTypeJsonName", newTaskType.getTaskJsonName());
 
-		// Complete creation of any GLOBAL value type filterConfigs
-		for (FilterConfig filterConfig : currentTaskType.getFilters())
+		CompletableFuture<Void> filtersFuture = filterService.loadFilterConfigsAsync()
+			.thenRun(() -> resolveGlobalFilterConfigs(newTaskType));
+
+		TaskTypeState cachedState = taskTypeStateCache.get(newTaskType);
+		if (cachedState != null)
+		{
+			log.debug("Using cached state for task type {}", newTaskType.getTaskJsonName());
+			metrics.increment(Counter.STATE_CACHE_HIT);
+			return timeTaskTypeSwitch(start, filtersFuture
+				.thenApply(v -> publishTaskTypeState(cachedState, loadToken))
+				.exceptionally(ex -> handleSetTaskTypeException(newTaskType, ex)));
+		}
+
+		// The task snapshot or json fetch and parse, the task type's enums and sprites on the client thread,
+		// and the filter configs are independent, so they load in parallel
+		CompletableFuture<TaskTypeSnapshot> snapshotFuture = CompletableFuture.supplyAsync(
+			() -> loadTaskTypeSnapshot(newTaskType, loadToken), dataLoadExecutor);
+		return timeTaskTypeSwitch(start, newTaskType.loadTaskTypeDataAsync()
+			.thenCombine(snapshotFuture, (isTaskTypeLoaded, snapshot) -> {
+				if (!isTaskTypeLoaded)
+				{
+					log.error("Error loading task type during setTaskType");
+					return null;
+				}
+				loadToken.throwIfCancelled();
+				return snapshot;
+			})
+			.thenCombine(filtersFuture, (snapshot, v) -> snapshot)
+			.thenCompose(snapshot -> {
+				if (snapshot == null)
+				{
+					return CompletableFuture.completedFuture(false);
+				}
+
+				List<TaskDefinition> taskDefinitions = snapshot.getTable().getRows();
+				List<TaskFromStruct> newTasks = new ArrayList<>(taskDefinitions.size());
+				for (TaskDefinition definition : taskDefinitions)
+				{
+					TaskFromStruct task = new TaskFromStruct(newTaskType, definition, newTasks.size());
+					if (snapshot.hasStructParams())
+					{
+						task.loadSnapshotParams(snapshot, definition.getRow());
+					}
+					newTasks.add(task);
+				}
+
+				CompletableFuture<Boolean> structDataFuture = snapshot.hasStructParams()
+					? CompletableFuture.completedFuture(true)
+					: loadAllTasksStructData(newTasks, loadToken).thenApply(areTasksLoaded -> {
+						if (areTasksLoaded)
+						{
+							writeTaskTypeSnapshot(newTaskType, newTasks);
+						}
+						return areTasksLoaded;
+					});
+				return structDataFuture.thenCompose(areTasksLoaded -> {
+					if (!areTasksLoaded)
+					{
+						return CompletableFuture.completedFuture(false);
+					}
+					loadToken.throwIfCancelled();
+
+					return buildSortedIndexesAsync(newTaskType, newTasks, loadToken).thenApply(newSortedIndexes -> {
+						TaskTypeState newState = new TaskTypeState(newTaskType, newTasks, newSortedIndexes);
+						taskTypeStateCache.put(newState, config.taskTypeCacheSize() * 1024L * 1024L);
+						return publishTaskTypeState(newState, loadToken);
+					});
+				});
+			})
+			.exceptionally(ex -> handleSetTaskTypeException(newTaskType, ex)));
+	}
+
+	/**
+	 * Time a task type switch, if it is published
+	 */
+	private CompletableFuture<Boolean> timeTaskTypeSwitch(long start, CompletableFuture<Boolean> switchFuture)
+	{
+		return switchFuture.whenComplete((isPublished, ex) -> {
+			if (Boolean.TRUE.equals(isPublished))
+			{
+				metrics.stopTimer(Stage.TASK_TYPE_SWITCH, start);
+			}
+		});
+	}
+
+	private Boolean handleSetTaskTypeException(TaskType taskType, Throwable ex)
+	{
+		if (isCancellation(ex))
+		{
+			metrics.increment(Counter.SWITCH_SUPERSEDED);
+			log.debug("setTaskType {} superseded by a newer selection", taskType.getTaskJsonName());
+			return false;
+		}
+		throw ex instanceof CompletionException ? (CompletionException) ex : new CompletionException(ex);
+	}
+
+	/**
+	 * Complete creation of any GLOBAL value type filterConfigs
+	 */
+	private void resolveGlobalFilterConfigs(TaskType taskType)
+	{
+		for (FilterConfig filterConfig : taskType.getFilters())
 		{
 			if (filterConfig.getValueType().equals(FilterValueType.GLOBAL))
 			{
@@ -131,105 +278,211 @@ public class TaskService
 			}
 		}
 
-		List<TaskFromStruct> newTasks = new ArrayList<>();
-		return newTaskType.loadTaskTypeDataAsync().thenCompose((isTaskTypeLoaded) -> {
-			if (!isTaskTypeLoaded)
+	}
+
+	/**
+	 * Read the task type's snapshot, falling back to fetching and parsing its task json
+	 */
+	private TaskTypeSnapshot loadTaskTypeSnapshot(TaskType taskType, TaskTypeLoadToken loadToken)
+	{
+		try
+		{
+			loadToken.throwIfCancelled();
+			long start = metrics.startTimer();
+			TaskTypeSnapshot snapshot = taskSnapshotStore.read(taskType);
+			metrics.stopTimer(Stage.SNAPSHOT_READ, start);
+			if (snapshot != null)
 			{
-				log.error("Error loading task type during setTaskType");
-				return CompletableFuture.completedFuture(false);
+				metrics.increment(Counter.SNAPSHOT_HIT);
+				return snapshot;
 			}
+			metrics.increment(Counter.SNAPSHOT_MISS);
+			TaskDefinitionTable table = taskDataClient.getTaskDefinitionTable(taskType, loadToken);
+			loadToken.throwIfCancelled();
+			return new TaskTypeSnapshot(table);
+		}
+		catch (CancellationException ex)
+		{
+			throw ex;
+		}
+		catch (Exception ex)
+		{
+			// A cancelled http call fails with an IOException, report it as the cancellation it is
+			throw loadToken.isCancelled() ? new CancellationException(ex.getMessage()) : new CompletionException(ex);
+		}
+	}
 
-			CompletableFuture<Boolean> future = new CompletableFuture<>();
-			futureExecutor.submit(() -> {
-				try
-				{
-					Collection<TaskDefinition> taskDefinitions = taskDataClient.getTaskDefinitions(currentTaskType.getTaskJsonName());
-					for (TaskDefinition definition : taskDefinitions)
-					{
-						TaskFromStruct task = new TaskFromStruct(currentTaskType, definition);
-						newTasks.add(task);
-					}
-					loadAllTasksStructData(newTasks).thenApply(future::complete);
-				}
-				catch (Exception e3)
-				{
-					future.completeExceptionally(e3);
-				}
+	private void writeTaskTypeSnapshot(TaskType taskType, List<TaskFromStruct> tasks)
+	{
+		CompletableFuture.runAsync(() -> taskSnapshotStore.write(taskType, tasks), dataLoadExecutor)
+			.exceptionally(ex -> {
+				log.warn("Unable to write task snapshot for {}", taskType.getTaskJsonName(), ex);
+				return null;
 			});
-			return future;
-		}).thenCompose(areTasksLoaded -> {
-			if (!areTasksLoaded)
-			{
-				return CompletableFuture.completedFuture(false);
-			}
+	}
 
-			tasks.clear();
-			tasks.addAll(newTasks);
+	/**
+	 * Build the sort index of each param in parallel
+	 */
+	private CompletableFuture<HashMap<String, int[]>> buildSortedIndexesAsync(TaskType taskType, List<TaskFromStruct> tasks, TaskTypeLoadToken loadToken)
+	{
+		Map<String, CompletableFuture<int[]>> indexFutures = new HashMap<>();
+		getSortComparators(taskType, tasks).forEach((paramName, comparator) -> indexFutures.put(paramName, CompletableFuture.supplyAsync(() -> {
+			loadToken.throwIfCancelled();
+			long start = metrics.startTimer();
+			int[] sortedIndex = buildSortedIndex(tasks, comparator);
+			metrics.stopTimer(Stage.SORT_BUILD, start);
+			return sortedIndex;
+		}, dataLoadExecutor)));
 
-			// Index task list for each property
-			sortedIndexes.clear();
-			currentTaskType.getIntParamMap().keySet().forEach(paramName -> {
-				sortedIndexes.put(paramName, null);
-				addSortedIndex(paramName, Comparator.comparingInt((TaskFromStruct task) -> task.getIntParam(paramName)));
-			});
-			currentTaskType.getStringParamMap().keySet().forEach(paramName -> {
-				sortedIndexes.put(paramName, null);
-				addSortedIndex(paramName, Comparator.comparing((TaskFromStruct task) -> task.getStringParam(paramName)));
-			});
-			// todo: make this less of a special case.
-			if (tasks.stream().anyMatch(task -> task.getCompletionPercent() != null))
+		return CompletableFuture.allOf(indexFutures.values().toArray(new CompletableFuture[0])).thenApply(v -> {
+			HashMap<String, int[]> sortedIndexes = new HashMap<>();
+			indexFutures.forEach((paramName, indexFuture) -> sortedIndexes.put(paramName, indexFuture.join()));
+			return sortedIndexes;
+		});
+	}
+
+	/**
+	 * The comparator of each sort criteria, by name
+	 */
+	static Map<String, Comparator<TaskFromStruct>> getSortComparators(TaskType taskType, List<TaskFromStruct> tasks)
+	{
+		Map<String, Comparator<TaskFromStruct>> comparators = new HashMap<>();
+		taskType.getIntParamMap().keySet().forEach(paramName ->
+			comparators.put(paramName, Comparator.comparingInt((TaskFromStruct task) -> task.getIntParam(paramName))));
+		taskType.getStringParamMap().keySet().forEach(paramName ->
+			comparators.put(paramName, Comparator.comparing((TaskFromStruct task) -> task.getStringParam(paramName))));
+		// todo: make this less of a special case.
+		if (tasks.stream().anyMatch(task -> task.getCompletionPercent() != null))
+		{
+			comparators.put("completion %", (TaskFromStruct task1, TaskFromStruct task2) ->
 			{
-				sortedIndexes.put("completion %", null);
-				addSortedIndex("completion %",
-					(TaskFromStruct task1, TaskFromStruct task2) ->
-					{
-						Float comp1 = task1.getTaskDefinition().getCompletionPercent() != null ? task1.getTaskDefinition().getCompletionPercent() : 0;
-						Float comp2 = task2.getTaskDefinition().getCompletionPercent() != null ? task2.getTaskDefinition().getCompletionPercent() : 0;
-						return comp1.compareTo(comp2);
-					});
-			}
+				Float comp1 = task1.getTaskDefinition().getCompletionPercent() != null ? task1.getTaskDefinition().getCompletionPercent() : 0;
+				Float comp2 = task2.getTaskDefinition().getCompletionPercent() != null ? task2.getTaskDefinition().getCompletionPercent() : 0;
+				return comp1.compareTo(comp2);
+			});
+		}
+		return comparators;
+	}
 
-			currentTaskTypeVarps.clear();
-			currentTaskTypeVarps = new HashSet<>(currentTaskType.getTaskVarps());
+	/**
+	 * Start a new task type switch, cancelling any load still in progress for a previous one
+	 */
+	private synchronized TaskTypeLoadToken startTaskTypeLoad()
+	{
+		TaskTypeLoadToken loadToken = new TaskTypeLoadToken(loadGeneration.incrementAndGet());
+		if (currentLoadToken != null)
+		{
+			currentLoadToken.cancel();
+		}
+		currentLoadToken = loadToken;
+		return loadToken;
+	}
 
-			taskTypeChanged = true;
-			return CompletableFuture.completedFuture(true);
-		});
+	/**
+	 * Cancel any task type load in progress, such as when the plugin shuts down
+	 */
+	public synchronized void cancelTaskTypeLoad()
+	{
+		if (currentLoadToken != null)
+		{
+			currentLoadToken.cancel();
+		}
+		// Fall back to the last published task type, so selecting the cancelled one again reloads it
+		currentTaskType = state.getTaskType();
 	}
 
-	private void addSortedIndex(String paramName, Comparator<TaskFromStruct> comparator)
+	/**
+	 * Publish a loaded state, unless its load has been superseded
+	 *
+	 * @return true if the state was published
+	 */
+	private synchronized boolean publishTaskTypeState(TaskTypeState newState, TaskTypeLoadToken loadToken)
 	{
-		List<TaskFromStruct> sortedTasks = tasks.stream()
-			.sorted(comparator)
-			.collect(Collectors.toCollection(ArrayList::new));
-		int[] sortedIndex = new int[tasks.size()];
-		for (int i = 0; i < sortedTasks.size(); i++)
+		if (loadToken != currentLoadToken || loadToken.isCancelled())
+		{
+			metrics.increment(Counter.SWITCH_SUPERSEDED);
+			log.debug("Not publishing {}, load {} superseded", newState.getTaskType().getTaskJsonName(), loadToken.getGeneration());
+			return false;
+		}
+		applyTaskTypeState(newState);
+		return true;
+	}
+
+	private static boolean isCancellation(Throwable ex)
+	{
+		while (ex instanceof CompletionException && ex.getCause() != null)
 		{
-			sortedIndex[i] = tasks.indexOf(sortedTasks.get(i));
+			ex = ex.getCause();
 		}
-		sortedIndexes.put(paramName, sortedIndex);
+		return ex instanceof CancellationException;
+	}
+
+	void applyTaskTypeState(TaskTypeState newState)
+	{
+		state = newState.withVersion(stateVersion.incrementAndGet());
+		taskTypeChanged = true;
+	}
+
+	static int[] buildSortedIndex(List<TaskFromStruct> tasks, Comparator<TaskFromStruct> comparator)
+	{
+		return tasks.stream()
+			.sorted(comparator)
+			.mapToInt(TaskFromStruct::getOrdinal)
+			.toArray();
+	}
+
+	/**
+	 * Get the tasks of the published snapshot. The list cannot be modified.
+	 */
+	public List<TaskFromStruct> getTasks()
+	{
+		return state.getTasks();
+	}
+
+	/**
+	 * Get the sort indexes of the published snapshot. The map cannot be modified.
+	 */
+	public Map<String, int[]> getSortedIndexes()
+	{
+		return state.getSortedIndexes();
 	}
 
 	public int getSortedTaskIndex(String sortCriteria, int position)
 	{
-		if (sortedIndexes.containsKey(sortCriteria))
+		return state.getSortedTaskIndex(sortCriteria, position);
+	}
+
+	/**
+	 * Get the published state, if a task type is loaded, followed by the cached states of other task types
+	 */
+	public List<TaskTypeState> getLoadedStates()
+	{
+		TaskTypeState publishedState = state;
+		List<TaskTypeState> states = new ArrayList<>();
+		if (publishedState.getTaskType() != null)
 		{
-			return sortedIndexes.get(sortCriteria)[position];
+			states.add(publishedState);
 		}
-		else
+		for (TaskTypeState cachedState : taskTypeStateCache.getStates())
 		{
-			return position;
+			if (publishedState.getTaskType() == null || !cachedState.getTaskType().getTaskJsonName().equals(publishedState.getTaskType().getTaskJsonName()))
+			{
+				states.add(cachedState);
+			}
 		}
+		return states;
 	}
 
 	public boolean isVarpInCurrentTaskType(int varpId)
 	{
-		return currentTaskTypeVarps.contains(varpId);
+		return state.getTaskVarps().contains(varpId);
 	}
 
-	public void clearTaskTypes()
+	public synchronized void clearTaskTypes()
 	{
-		this._taskTypes.clear();
+		this.taskTypesFuture = null;
+		this.taskTypeStateCache.clear();
 	}
 
 	/**
@@ -237,58 +490,77 @@ public class TaskService
 	 *
 	 * @return Hashmap of TaskType indexed by task type json name
 	 */
-	public CompletableFuture<HashMap<String, TaskType>> getTaskTypesByJsonName()
+	public synchronized CompletableFuture<HashMap<String, TaskType>> getTaskTypesByJsonName()
 	{
-		if (_taskTypes.size() > 0)
-		{
-			return CompletableFuture.completedFuture(_taskTypes);
-		}
-
-		try
+		// Concurrent callers share the same fetch
+		if (taskTypesFuture == null)
 		{
-			CompletableFuture<HashMap<String, TaskType>> future = new CompletableFuture<>();
-			futureExecutor.submit(() ->
-			{
+			taskTypesFuture = CompletableFuture.supplyAsync(() -> {
 				try
 				{
-					_taskTypes = taskDataClient.getTaskTypes();
-					future.complete(_taskTypes);
+					return taskDataClient.getTaskTypes();
 				}
-				catch (Exception e)
+				catch (Exception ex)
 				{
-					future.completeExceptionally(e);
+					throw new CompletionException(ex);
+				}
+			}, dataLoadExecutor);
+			taskTypesFuture.whenComplete((taskTypes, ex) -> {
+				if (ex != null)
+				{
+					log.error("Unable to populate task types from data client", ex);
+					clearTaskTypesFuture(taskTypesFuture);
 				}
 			});
-
-			return future;
 		}
-		catch (Exception ex)
+		return taskTypesFuture;
+	}
+
+	private synchronized void clearTaskTypesFuture(CompletableFuture<HashMap<String, TaskType>> failedFuture)
+	{
+		// Allow a failed fetch to be retried
+		if (taskTypesFuture == failedFuture)
 		{
-			log.error("Unable to populate task types from data client", ex);
-			return CompletableFuture.completedFuture(new HashMap<>());
+			taskTypesFuture = null;
 		}
 	}
 
+	/**
+	 * Get the values of a string enum for the current task type.
+	 * Values are cached per task type, so the returned future is already complete unless the enum
+	 * has not been read since the game cache revision last changed.
+	 *
+	 * @param enumName name of the enum in the task type's string enum map
+	 * @return future of enum values by key; the map must not be modified
+	 */
 	public CompletableFuture<HashMap<Integer, String>> getStringEnumValuesAsync(String enumName)
 	{
-		Integer enumId = currentTaskType.getStringEnumMap().get(enumName);
+		return getStringEnumValuesAsync(currentTaskType, enumName);
+	}
+
+	public CompletableFuture<HashMap<Integer, String>> getStringEnumValuesAsync(TaskType taskType, String enumName)
+	{
+		Integer enumId = taskType.getStringEnumMap().get(enumName);
 		if (enumId == null)
 		{
 			return CompletableFuture.completedFuture(new HashMap<>());
 		}
 
+		// The revision is a plain field read, so it can be checked off the client thread. On a change, the
+		// load below clears the cache on the client thread.
+		HashMap<Integer, String> cachedValues = client.getRevision() == stringEnumValuesCacheRevision
+			? getCachedStringEnumValues(taskType, enumName)
+			: null;
+		if (cachedValues != null)
+		{
+			return CompletableFuture.completedFuture(cachedValues);
+		}
+
 		CompletableFuture<HashMap<Integer, String>> future = new CompletableFuture<>();
-		clientThread.invoke(() -> {
+		stallWatchdog.invoke("TaskService.getStringEnumValuesAsync", () -> {
 			try
 			{
-				EnumComposition enumComposition = client.getEnum(enumId);
-				int[] keys = enumComposition.getKeys();
-				HashMap<Integer, String> map = new HashMap<>();
-				for (int key : keys)
-				{
-					map.put(key, enumComposition.getStringValue(key));
-				}
-				future.complete(map);
+				future.complete(loadStringEnumValues(taskType, enumName));
 			}
 			catch (Exception ex)
 			{
@@ -299,17 +571,69 @@ public class TaskService
 		return future;
 	}
 
+	/**
+	 * Read the values of a string enum into the cache, or return the cached values.
+	 * Must be called on the client thread.
+	 */
+	public HashMap<Integer, String> loadStringEnumValues(TaskType taskType, String enumName)
+	{
+		validateStringEnumValuesCache();
+		HashMap<Integer, String> cached = getCachedStringEnumValues(taskType, enumName);
+		if (cached != null)
+		{
+			return cached;
+		}
+
+		HashMap<Integer, String> map = new HashMap<>();
+		Integer enumId = taskType.getStringEnumMap().get(enumName);
+		if (enumId == null)
+		{
+			return map;
+		}
+		EnumComposition enumComposition = client.getEnum(enumId);
+		int[] keys = enumComposition.getKeys();
+		for (int key : keys)
+		{
+			map.put(key, enumComposition.getStringValue(key));
+		}
+		stringEnumValuesCache
+			.computeIfAbsent(taskType.getTaskJsonName(), k -> new ConcurrentHashMap<>())
+			.put(enumName, map);
+		return map;
+	}
+
+	private HashMap<Integer, String> getCachedStringEnumValues(TaskType taskType, String enumName)
+	{
+		Map<String, HashMap<Integer, String>> taskTypeValues = stringEnumValuesCache.get(taskType.getTaskJsonName());
+		return taskTypeValues != null ? taskTypeValues.get(enumName) : null;
+	}
+
+	/**
+	 * Drops cached enum values if the game cache revision has changed since they were read.
+	 * Must be called on the client thread.
+	 */
+	private void validateStringEnumValuesCache()
+	{
+		int revision = client.getRevision();
+		if (revision != stringEnumValuesCacheRevision)
+		{
+			log.debug("Game cache revision changed {} -> {}, clearing enum values", stringEnumValuesCacheRevision, revision);
+			stringEnumValuesCache.clear();
+			stringEnumValuesCacheRevision = revision;
+		}
+	}
+
 	public void applySave(TaskType saveTaskType, HashMap<Integer, ConfigTaskSave> saveData)
 	{
-		String currentTaskTypeName = currentTaskType.getTaskJsonName();
-		String saveTaskTypeName = saveTaskType.getTaskJsonName();
-		if (!currentTaskTypeName.equals(saveTaskTypeName))
+		TaskTypeState currentState = state;
+		if (currentState.getTaskType() != saveTaskType)
 		{
-			log.warn("Cannot apply save, task types do not match current={} save={}", currentTaskTypeName, saveTaskTypeName);
+			log.warn("Cannot apply save, task types do not match current={} save={}",
+				currentState.getTaskType() != null ? currentState.getTaskType().getTaskJsonName() : null, saveTaskType.getTaskJsonName());
 			return;
 		}
 
-		for (TaskFromStruct task : getTasks())
+		for (TaskFromStruct task : currentState.getTasks())
 		{
 			ConfigTaskSave configTaskSave = saveData.get(task.getStructId());
 			if (configTaskSave == null)
@@ -322,11 +646,16 @@ public class TaskService
 
 	public List<TaskFromStruct> getTasksFromVarpId(Integer varpId)
 	{
-		int varpIndex = getCurrentTaskType().getTaskVarps().indexOf(varpId);
+		TaskTypeState currentState = state;
+		if (currentState.getTaskType() == null)
+		{
+			return new ArrayList<>();
+		}
+		int varpIndex = currentState.getTaskType().getTaskVarps().indexOf(varpId);
 		int minTaskId = varpIndex * 32;
 		int maxTaskId = minTaskId + 32;
 
-		return getTasks().stream().filter(t -> {
+		return currentState.getTasks().stream().filter(t -> {
 			int taskId = t.getIntParam("id");
 			return taskId >= minTaskId && taskId <= maxTaskId;
 		}).collect(Collectors.toList());
@@ -0,0 +1,462 @@
+package net.reldo.taskstracker.data.task;
+
+import com.google.common.hash.Hashing;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import lombok.extern.slf4j.Slf4j;
+import net.reldo.taskstracker.data.jsondatastore.types.TaskDefinitionTable;
+import net.reldo.taskstracker.data.jsondatastore.types.TaskMetadataColumn;
+import net.runelite.api.Client;
+import net.runelite.client.RuneLite;
+
+/**
+ * Stores loaded task types as binary snapshots on disk, so a warm start skips the task json download,
+ * the json parse and the struct loads on the client thread.
+ * <p>
+ * A snapshot holds the task definition columns and the decoded struct params as length prefixed
+ * primitive arrays, with strings stored once in a string table. It is only used if it was written
+ * by the same format version, for the same game revision and task type definition, and is less than
+ * {@link #MAX_SNAPSHOT_AGE_MILLIS} old, so that task json updates are still picked up.
+ */
+@Singleton
+@Slf4j
+public class TaskSnapshotStore
+{
+	private static final int MAGIC = 0x54545331; // "TTS1"
+	private static final int FORMAT_VERSION = 3;
+	private static final long MAX_SNAPSHOT_AGE_MILLIS = 24 * 60 * 60 * 1000L;
+	private static final int NULL_STRING = -1;
+	private static final File SNAPSHOT_DIR = new File(new File(RuneLite.RUNELITE_DIR, "tasks-tracker"), "snapshots");
+
+	@Inject
+	private Client client;
+
+	private final File snapshotDir;
+
+	public TaskSnapshotStore()
+	{
+		this(SNAPSHOT_DIR);
+	}
+
+	/**
+	 * @param snapshotDir directory to keep snapshots in, such as a temporary directory for a headless harness
+	 */
+	public TaskSnapshotStore(File snapshotDir)
+	{
+		this.snapshotDir = snapshotDir;
+	}
+
+	/**
+	 * Read the snapshot of a task type, if there is a valid one
+	 *
+	 * @return the snapshot with struct params, or null
+	 */
+	public TaskTypeSnapshot read(TaskType taskType)
+	{
+		Path path = getSnapshotPath(taskType);
+		if (!Files.isRegularFile(path))
+		{
+			return null;
+		}
+
+		try
+		{
+			// Read onto the heap rather than mapped, since a mapped file can't be replaced or deleted on Windows
+			// until the mapping is collected
+			TaskTypeSnapshot snapshot = readSnapshot(ByteBuffer.wrap(Files.readAllBytes(path)), taskType);
+			if (snapshot != null)
+			{
+				log.debug("Read {} task snapshot, {} tasks", taskType.getTaskJsonName(), snapshot.getTable().getSize());
+			}
+			return snapshot;
+		}
+		catch (IOException | RuntimeException ex)
+		{
+			log.warn("Unable to read task snapshot {}, discarding it", path, ex);
+			delete(path);
+			return null;
+		}
+	}
+
+	/**
+	 * Write the snapshot of a loaded task type, replacing any previous one
+	 *
+	 * @param tasks tasks with struct data loaded, in task definition table row order
+	 */
+	public void write(TaskType taskType, List<TaskFromStruct> tasks)
+	{
+		if (tasks.isEmpty())
+		{
+			return;
+		}
+
+		Path path = getSnapshotPath(taskType);
+		Path tempPath = null;
+		try
+		{
+			byte[] bytes = writeSnapshot(taskType, tasks);
+			Files.createDirectories(path.getParent());
+			// Write to a temporary file first, so a reader never reads a partly written snapshot
+			tempPath = Files.createTempFile(path.getParent(), taskType.getTaskJsonName(), ".tmp");
+			Files.write(tempPath, bytes);
+			try
+			{
+				Files.move(tempPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			}
+			catch (AtomicMoveNotSupportedException ex)
+			{
+				Files.move(tempPath, path, StandardCopyOption.REPLACE_EXISTING);
+			}
+			log.debug("Wrote {} task snapshot, {} bytes", taskType.getTaskJsonName(), bytes.length);
+		}
+		catch (IOException ex)
+		{
+			log.warn("Unable to write task snapshot {}", path, ex);
+			if (tempPath != null)
+			{
+				delete(tempPath);
+			}
+		}
+	}
+
+	private TaskTypeSnapshot readSnapshot(ByteBuffer buffer, TaskType taskType)
+	{
+		if (buffer.getInt() != MAGIC || buffer.getInt() != FORMAT_VERSION)
+		{
+			log.debug("Task snapshot for {} has an unsupported format", taskType.getTaskJsonName());
+			return null;
+		}
+		int revision = buffer.getInt();
+		long fingerprint = buffer.getLong();
+		long writtenAt = buffer.getLong();
+		if (revision != client.getRevision() || fingerprint != getFingerprint(taskType))
+		{
+			log.debug("Task snapshot for {} is for a different game revision or task type definition", taskType.getTaskJsonName());
+			return null;
+		}
+		if (System.currentTimeMillis() - writtenAt > MAX_SNAPSHOT_AGE_MILLIS)
+		{
+			log.debug("Task snapshot for {} has expired", taskType.getTaskJsonName());
+			return null;
+		}
+
+		String[] strings = new String[buffer.getInt()];
+		for (int i = 0; i < strings.length; i++)
+		{
+			byte[] stringBytes = new byte[buffer.getInt()];
+			buffer.get(stringBytes);
+			strings[i] = taskType.getStringPool().share(new String(stringBytes, StandardCharsets.UTF_8));
+		}
+
+		int size = buffer.getInt();
+		int[] structIds = readInts(buffer);
+		int[] sortIds = readInts(buffer);
+		float[] completionPercents = readFloats(buffer);
+		String[] wikiNotes = readStrings(buffer, strings);
+		int[] skillOffsets = readInts(buffer);
+		String[] skillNames = readStrings(buffer, strings);
+		int[] skillLevels = readInts(buffer);
+
+		Map<String, TaskMetadataColumn> metadataColumns = new LinkedHashMap<>();
+		int metadataColumnCount = buffer.getInt();
+		for (int i = 0; i < metadataColumnCount; i++)
+		{
+			String key = strings[buffer.getInt()];
+			byte[] types = new byte[buffer.getInt()];
+			buffer.get(types);
+			double[] numbers = buffer.get() != 0 ? readDoubles(buffer) : null;
+			int[] codes = null;
+			int[] setOffsets = null;
+			int[] setCodes = null;
+			String[] dictionary = new String[0];
+			if (buffer.get() != 0)
+			{
+				codes = readInts(buffer);
+				dictionary = readStrings(buffer, strings);
+			}
+			if (buffer.get() != 0)
+			{
+				setOffsets = readInts(buffer);
+				setCodes = readInts(buffer);
+			}
+			metadataColumns.put(key, new TaskMetadataColumn(key, types, numbers, codes, setOffsets, setCodes, dictionary));
+		}
+
+		Map<String, int[]> intParamColumns = new HashMap<>();
+		int intParamCount = buffer.getInt();
+		for (int i = 0; i < intParamCount; i++)
+		{
+			intParamColumns.put(strings[buffer.getInt()], readInts(buffer));
+		}
+		Map<String, String[]> stringParamColumns = new HashMap<>();
+		int stringParamCount = buffer.getInt();
+		for (int i = 0; i < stringParamCount; i++)
+		{
+			stringParamColumns.put(strings[buffer.getInt()], readStrings(buffer, strings));
+		}
+		if (!intParamColumns.keySet().equals(taskType.getIntParamMap().keySet())
+			|| !stringParamColumns.keySet().equals(taskType.getStringParamMap().keySet()))
+		{
+			log.debug("Task snapshot for {} has different params", taskType.getTaskJsonName());
+			return null;
+		}
+
+		TaskDefinitionTable table = new TaskDefinitionTable(size, structIds, sortIds, completionPercents, wikiNotes,
+			skillOffsets, skillNames, skillLevels, metadataColumns);
+		return new TaskTypeSnapshot(table, intParamColumns, stringParamColumns);
+	}
+
+	private byte[] writeSnapshot(TaskType taskType, List<TaskFromStruct> tasks) throws IOException
+	{
+		TaskDefinitionTable table = tasks.get(0).getTaskDefinition().getTable();
+		int size = table.getSize();
+		if (tasks.size() != size)
+		{
+			throw new IOException("Task count " + tasks.size() + " does not match table size " + size);
+		}
+
+		StringTable stringTable = new StringTable();
+		int[] structIds = new int[size];
+		int[] sortIds = new int[size];
+		float[] completionPercents = new float[size];
+		int[] wikiNotes = new int[size];
+		int[] skillOffsets = new int[size + 1];
+		List<Integer> skillNames = new ArrayList<>();
+		List<Integer> skillLevels = new ArrayList<>();
+		for (int row = 0; row < size; row++)
+		{
+			structIds[row] = table.getStructId(row);
+			sortIds[row] = table.getSortId(row);
+			completionPercents[row] = table.getCompletionPercent(row);
+			wikiNotes[row] = stringTable.indexOf(table.getWikiNotes(row));
+			for (int skillIndex = 0; skillIndex < table.getSkillCount(row); skillIndex++)
+			{
+				skillNames.add(stringTable.indexOf(table.getSkillName(row, skillIndex)));
+				skillLevels.add(table.getSkillLevel(row, skillIndex));
+			}
+			skillOffsets[row + 1] = skillNames.size();
+		}
+
+		ByteArrayOutputStream body = new ByteArrayOutputStream();
+		DataOutputStream out = new DataOutputStream(body);
+		out.writeInt(size);
+		writeInts(out, structIds);
+		writeInts(out, sortIds);
+		out.writeInt(size);
+		for (float completionPercent : completionPercents)
+		{
+			out.writeFloat(completionPercent);
+		}
+		writeInts(out, wikiNotes);
+		writeInts(out, skillOffsets);
+		writeInts(out, skillNames.stream().mapToInt(Integer::intValue).toArray());
+		writeInts(out, skillLevels.stream().mapToInt(Integer::intValue).toArray());
+
+		out.writeInt(table.getMetadataColumns().size());
+		for (TaskMetadataColumn column : table.getMetadataColumns().values())
+		{
+			out.writeInt(stringTable.indexOf(column.getKey()));
+			byte[] types = new byte[size];
+			double[] numbers = new double[size];
+			int[] codes = new int[size];
+			int[] setOffsets = new int[size + 1];
+			List<Integer> setCodes = new ArrayList<>();
+			boolean hasNumbers = false;
+			boolean hasStringSets = false;
+			for (int row = 0; row < size; row++)
+			{
+				types[row] = column.getType(row);
+				numbers[row] = column.getNumber(row);
+				codes[row] = column.getCode(row);
+				for (int code : column.getSetCodes(row))
+				{
+					setCodes.add(code);
+				}
+				setOffsets[row + 1] = setCodes.size();
+				hasNumbers |= types[row] == TaskMetadataColumn.TYPE_NUMBER || types[row] == TaskMetadataColumn.TYPE_BOOLEAN;
+				hasStringSets |= types[row] == TaskMetadataColumn.TYPE_STRING_SET;
+			}
+			boolean hasStrings = column.hasStrings();
+			out.writeInt(size);
+			out.write(types);
+			out.writeBoolean(hasNumbers);
+			if (hasNumbers)
+			{
+				out.writeInt(size);
+				for (double number : numbers)
+				{
+					out.writeDouble(number);
+				}
+			}
+			out.writeBoolean(hasStrings);
+			if (hasStrings)
+			{
+				writeInts(out, codes);
+				String[] dictionary = column.getDictionary();
+				int[] dictionaryIndexes = new int[dictionary.length];
+				for (int code = 0; code < dictionary.length; code++)
+				{
+					dictionaryIndexes[code] = stringTable.indexOf(dictionary[code]);
+				}
+				writeInts(out, dictionaryIndexes);
+			}
+			out.writeBoolean(hasStringSets);
+			if (hasStringSets)
+			{
+				writeInts(out, setOffsets);
+				writeInts(out, setCodes.stream().mapToInt(Integer::intValue).toArray());
+			}
+		}
+
+		out.writeInt(taskType.getIntParamMap().size());
+		for (String paramName : taskType.getIntParamMap().keySet())
+		{
+			out.writeInt(stringTable.indexOf(paramName));
+			int[] values = new int[size];
+			for (int row = 0; row < size; row++)
+			{
+				Integer value = tasks.get(row).getIntParam(paramName);
+				values[row] = value != null ? value : TaskDefinitionTable.NO_VALUE;
+			}
+			writeInts(out, values);
+		}
+		out.writeInt(taskType.getStringParamMap().size());
+		for (String paramName : taskType.getStringParamMap().keySet())
+		{
+			out.writeInt(stringTable.indexOf(paramName));
+			int[] values = new int[size];
+			for (int row = 0; row < size; row++)
+			{
+				values[row] = stringTable.indexOf(tasks.get(row).getStringParam(paramName));
+			}
+			writeInts(out, values);
+		}
+		out.flush();
+
+		// The header and string table precede the body, which is written first to collect the strings
+		ByteArrayOutputStream snapshot = new ByteArrayOutputStream(body.size() + 1024);
+		DataOutputStream header = new DataOutputStream(snapshot);
+		header.writeInt(MAGIC);
+		header.writeInt(FORMAT_VERSION);
+		header.writeInt(client.getRevision());
+		header.writeLong(getFingerprint(taskType));
+		header.writeLong(System.currentTimeMillis());
+		header.writeInt(stringTable.strings.size());
+		for (String string : stringTable.strings)
+		{
+			byte[] stringBytes = string.getBytes(StandardCharsets.UTF_8);
+			header.writeInt(stringBytes.length);
+			header.write(stringBytes);
+		}
+		header.flush();
+		body.writeTo(snapshot);
+		return snapshot.toByteArray();
+	}
+
+	/**
+	 * A hash of the parts of the task type definition that determine the snapshot's contents
+	 */
+	private static long getFingerprint(TaskType taskType)
+	{
+		String definition = taskType.getTaskJsonName()
+			+ new TreeMap<>(taskType.getIntParamMap())
+			+ new TreeMap<>(taskType.getStringParamMap())
+			+ taskType.getTaskVarps();
+		return Hashing.murmur3_128().hashString(definition, StandardCharsets.UTF_8).asLong();
+	}
+
+	private Path getSnapshotPath(TaskType taskType)
+	{
+		return new File(snapshotDir, taskType.getTaskJsonName() + ".bin").toPath();
+	}
+
+	private static void delete(Path path)
+	{
+		try
+		{
+			Files.deleteIfExists(path);
+		}
+		catch (IOException ex)
+		{
+			log.debug("Unable to delete {}", path, ex);
+		}
+	}
+
+	private static void writeInts(DataOutputStream out, int[] values) throws IOException
+	{
+		out.writeInt(values.length);
+		for (int value : values)
+		{
+			out.writeInt(value);
+		}
+	}
+
+	private static int[] readInts(ByteBuffer buffer)
+	{
+		int[] values = new int[buffer.getInt()];
+		buffer.asIntBuffer().get(values);
+		buffer.position(buffer.position() + values.length * Integer.BYTES);
+		return values;
+	}
+
+	private static float[] readFloats(ByteBuffer buffer)
+	{
+		float[] values = new float[buffer.getInt()];
+		buffer.asFloatBuffer().get(values);
+		buffer.position(buffer.position() + values.length * Float.BYTES);
+		return values;
+	}
+
+	private static double[] readDoubles(ByteBuffer buffer)
+	{
+		double[] values = new double[buffer.getInt()];
+		buffer.asDoubleBuffer().get(values);
+		buffer.position(buffer.position() + values.length * Double.BYTES);
+		return values;
+	}
+
+	private static String[] readStrings(ByteBuffer buffer, String[] strings)
+	{
+		int[] indexes = readInts(buffer);
+		String[] values = new String[indexes.length];
+		for (int i = 0; i < indexes.length; i++)
+		{
+			values[i] = indexes[i] != NULL_STRING ? strings[indexes[i]] : null;
+		}
+		return values;
+	}
+
+	private static class StringTable
+	{
+		private final List<String> strings = new ArrayList<>();
+		private final Map<String, Integer> indexes = new HashMap<>();
+
+		int indexOf(String string)
+		{
+			if (string == null)
+			{
+				return NULL_STRING;
+			}
+			return indexes.computeIfAbsent(string, s -> {
+				strings.add(s);
+				return strings.size() - 1;
+			});
+		}
+	}
+}
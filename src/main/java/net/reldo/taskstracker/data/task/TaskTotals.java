@@ -0,0 +1,173 @@
+package net.reldo.taskstracker.data.task;
+
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+import net.reldo.taskstracker.data.TasksSummary;
+
+/**
+ * Running totals of a task type's tasks by status.
+ * <p>
+ * Totals are counted once when a {@link TaskTypeState} is built, after which each status change on a task
+ * adjusts them in constant time, so summaries can be shown without scanning every task.
+ * Whether each task matches the current filters is reported by the task list as it applies them.
+ */
+public class TaskTotals
+{
+	public static final TaskTotals EMPTY = new TaskTotals(Collections.emptyList());
+
+	// Points and tier of each task by ordinal, fixed once struct data is loaded
+	private final int[] points;
+	private final int[] tiers;
+	private final BitSet matchesFilters = new BitSet();
+	private final BitSet filterReported = new BitSet();
+
+	private int taskCount;
+	private int taskPoints;
+	private int completedCount;
+	private int completedPoints;
+	private int trackedCount;
+	private int trackedPoints;
+	private int trackedCompletedCount;
+	private int trackedCompletedPoints;
+	private int ignoredCount;
+	private int ignoredPoints;
+	private int filteredCount;
+	private int filteredPoints;
+
+	TaskTotals(List<TaskFromStruct> tasks)
+	{
+		points = new int[tasks.size()];
+		tiers = new int[tasks.size()];
+		for (TaskFromStruct task : tasks)
+		{
+			int ordinal = task.getOrdinal();
+			Integer tier = task.getIntParam("tier");
+			tiers[ordinal] = tier != null ? tier : 0;
+			points[ordinal] = tier != null ? task.getPoints() : 0;
+			taskCount++;
+			taskPoints += points[ordinal];
+			apply(ordinal, task.isCompleted(), task.isTracked(), task.isIgnored(), 1);
+			task.setTotals(this);
+		}
+	}
+
+	// Points and tiers never change after construction, so they can be read without the lock
+	int getPoints(int ordinal)
+	{
+		return points[ordinal];
+	}
+
+	int getTier(int ordinal)
+	{
+		return tiers[ordinal];
+	}
+
+	synchronized void onStatusChanged(TaskFromStruct task, boolean wasCompleted, boolean wasTracked, boolean wasIgnored)
+	{
+		int ordinal = task.getOrdinal();
+		apply(ordinal, wasCompleted, wasTracked, wasIgnored, -1);
+		apply(ordinal, task.isCompleted(), task.isTracked(), task.isIgnored(), 1);
+	}
+
+	synchronized void onFilterMatched(TaskFromStruct task, boolean matches)
+	{
+		int ordinal = task.getOrdinal();
+		filterReported.set(ordinal);
+		if (matchesFilters.get(ordinal) == matches)
+		{
+			return;
+		}
+		matchesFilters.set(ordinal, matches);
+		int sign = matches ? 1 : -1;
+		filteredCount += sign;
+		filteredPoints += sign * points[ordinal];
+	}
+
+	private void apply(int ordinal, boolean completed, boolean tracked, boolean ignored, int sign)
+	{
+		int taskPoints = points[ordinal];
+		if (completed)
+		{
+			completedCount += sign;
+			completedPoints += sign * taskPoints;
+		}
+		if (tracked)
+		{
+			trackedCount += sign;
+			trackedPoints += sign * taskPoints;
+			if (completed)
+			{
+				trackedCompletedCount += sign;
+				trackedCompletedPoints += sign * taskPoints;
+			}
+		}
+		if (ignored)
+		{
+			ignoredCount += sign;
+			ignoredPoints += sign * taskPoints;
+		}
+	}
+
+	/**
+	 * Whether every task has reported if it matches the current filters
+	 */
+	public synchronized boolean hasFilteredTotals()
+	{
+		return filterReported.cardinality() == taskCount;
+	}
+
+	public synchronized int getTaskCount()
+	{
+		return taskCount;
+	}
+
+	public synchronized int getTaskPoints()
+	{
+		return taskPoints;
+	}
+
+	public synchronized int getCompletedCount()
+	{
+		return completedCount;
+	}
+
+	public synchronized int getCompletedPoints()
+	{
+		return completedPoints;
+	}
+
+	public synchronized int getIgnoredCount()
+	{
+		return ignoredCount;
+	}
+
+	public synchronized int getIgnoredPoints()
+	{
+		return ignoredPoints;
+	}
+
+	/**
+	 * Copy the totals into a summary, including filtered totals if every task has reported them
+	 *
+	 * @return whether the filtered totals were copied
+	 */
+	public synchronized boolean copyTo(TasksSummary summary)
+	{
+		summary.trackedTasksCount = trackedCount;
+		summary.trackedTasksPoints = trackedPoints;
+		summary.trackedCompletedCount = trackedCompletedCount;
+		summary.trackedCompletedPoints = trackedCompletedPoints;
+		summary.trackedIncompleteCount = trackedCount - trackedCompletedCount;
+		summary.trackedIncompletePoints = trackedPoints - trackedCompletedPoints;
+		summary.totalCompletedCount = completedCount;
+		summary.totalCompletedPoints = completedPoints;
+		if (!hasFilteredTotals())
+		{
+			return false;
+		}
+		summary.filteredTasksCount = filteredCount;
+		summary.filteredTasksPoints = filteredPoints;
+		return true;
+	}
+}
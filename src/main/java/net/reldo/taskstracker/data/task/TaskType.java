@@ -4,17 +4,20 @@ import java.awt.image.BufferedImage;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import javax.swing.ImageIcon;
 import lombok.Getter;
+import net.reldo.taskstracker.data.jsondatastore.StringPool;
 import net.reldo.taskstracker.data.jsondatastore.types.FilterConfig;
 import net.reldo.taskstracker.data.jsondatastore.types.FilterType;
 import net.reldo.taskstracker.data.jsondatastore.types.TaskCompletionCountTierDefinition;
 import net.reldo.taskstracker.data.jsondatastore.types.TaskPointTierDefinition;
 import net.reldo.taskstracker.data.jsondatastore.types.TaskTypeDefinition;
+import net.reldo.taskstracker.metrics.StallWatchdog;
+import net.reldo.taskstracker.panel.IconCache;
 import net.runelite.api.Client;
 import net.runelite.api.EnumComposition;
-import net.runelite.client.callback.ClientThread;
-import net.runelite.client.game.SpriteManager;
 
 public class TaskType
 {
@@ -26,43 +29,76 @@ public class TaskType
 	private final HashMap<Integer, Integer> tierPoints = new HashMap<>();
 
 	private final Client client;
-	private final ClientThread clientThread;
-	private final SpriteManager spriteManager;
+	private final StallWatchdog stallWatchdog;
+	private final IconCache iconCache;
 	private final TaskTypeDefinition _taskTypeDefinition;
+	@Getter
+	private volatile boolean dataLoaded = false;
+	/**
+	 * Pool for the strings of this task type's tasks
+	 */
+	@Getter
+	private final StringPool stringPool = new StringPool();
+	// Tasks hold param values in arrays, in the order of these names
+	@Getter
+	private final String[] intParamNames;
+	@Getter
+	private final String[] stringParamNames;
+	private final HashMap<String, Integer> intParamIndexes = new HashMap<>();
+	private final HashMap<String, Integer> stringParamIndexes = new HashMap<>();
 
-	public TaskType(Client client, ClientThread clientThread, SpriteManager spriteManager, TaskTypeDefinition taskTypeDefinition)
+	public TaskType(Client client, StallWatchdog stallWatchdog, IconCache iconCache, TaskTypeDefinition taskTypeDefinition)
 	{
 		this.client = client;
-		this.clientThread = clientThread;
-		this.spriteManager = spriteManager;
+		this.stallWatchdog = stallWatchdog;
+		this.iconCache = iconCache;
 		this._taskTypeDefinition = taskTypeDefinition;
+		this.intParamNames = indexParamNames(taskTypeDefinition.getIntParamMap(), intParamIndexes);
+		this.stringParamNames = indexParamNames(taskTypeDefinition.getStringParamMap(), stringParamIndexes);
+	}
+
+	private static String[] indexParamNames(HashMap<String, Integer> paramMap, HashMap<String, Integer> paramIndexes)
+	{
+		if (paramMap == null)
+		{
+			return new String[0];
+		}
+		String[] paramNames = paramMap.keySet().toArray(new String[0]);
+		for (int i = 0; i < paramNames.length; i++)
+		{
+			paramIndexes.put(paramNames[i], i);
+		}
+		return paramNames;
+	}
+
+	/**
+	 * Position of an int param in tasks' param arrays, or -1 if the task type has no such param
+	 */
+	public int getIntParamIndex(String paramName)
+	{
+		return intParamIndexes.getOrDefault(paramName, -1);
+	}
+
+	/**
+	 * Position of a string param in tasks' param arrays, or -1 if the task type has no such param
+	 */
+	public int getStringParamIndex(String paramName)
+	{
+		return stringParamIndexes.getOrDefault(paramName, -1);
 	}
 
 	public CompletableFuture<Boolean> loadTaskTypeDataAsync()
 	{
+		if (dataLoaded)
+		{
+			return CompletableFuture.completedFuture(true);
+		}
+
 		CompletableFuture<Boolean> future = new CompletableFuture<>();
-		clientThread.invoke(() -> {
+		stallWatchdog.invoke("TaskType.loadTaskTypeData", () -> {
 			try
 			{
-				getButtonFiltersSpriteIds().forEach((spriteId) -> {
-					BufferedImage spriteImage = spriteManager.getSprite(spriteId, 0);
-					spritesById.put(spriteId, spriteImage);
-				});
-				_taskTypeDefinition.getTierSpriteIdMap().forEach((idKey, spriteId) -> {
-					Integer tierId = Integer.parseInt(idKey);
-					BufferedImage spriteImage = spriteManager.getSprite(spriteId, 0);
-					tierSprites.put(tierId, spriteImage);
-				});
-				if (_taskTypeDefinition.getIntEnumMap().containsKey("tierPoints"))
-				{
-					int enumId = _taskTypeDefinition.getIntEnumMap().get("tierPoints");
-					EnumComposition enumComposition = client.getEnum(enumId);
-					int[] keys = enumComposition.getKeys();
-					for (int key : keys)
-					{
-						tierPoints.put(key, enumComposition.getIntValue(key));
-					}
-				}
+				loadTaskTypeData();
 				future.complete(true);
 			}
 			catch (Exception e)
@@ -74,6 +110,82 @@ public class TaskType
 		return future;
 	}
 
+	/**
+	 * Load the sprites and int enums of the task type. Does nothing if already loaded.
+	 * Sprites the client can't provide yet are left out, and the task type isn't marked as loaded, so the next
+	 * load tries them again. Must be called on the client thread.
+	 */
+	public void loadTaskTypeData()
+	{
+		assert client.isClientThread();
+
+		if (dataLoaded)
+		{
+			return;
+		}
+
+		// Sprites are shared across task types through the icon cache, so ids already loaded by another type are free
+		boolean spritesLoaded = true;
+		for (Integer spriteId : getButtonFiltersSpriteIds())
+		{
+			spritesLoaded &= loadSprite(spritesById, spriteId, spriteId);
+		}
+		for (Map.Entry<String, Integer> tierSpriteId : _taskTypeDefinition.getTierSpriteIdMap().entrySet())
+		{
+			spritesLoaded &= loadSprite(tierSprites, Integer.parseInt(tierSpriteId.getKey()), tierSpriteId.getValue());
+		}
+		if (_taskTypeDefinition.getIntEnumMap().containsKey("tierPoints"))
+		{
+			int enumId = _taskTypeDefinition.getIntEnumMap().get("tierPoints");
+			EnumComposition enumComposition = client.getEnum(enumId);
+			int[] keys = enumComposition.getKeys();
+			for (int key : keys)
+			{
+				tierPoints.put(key, enumComposition.getIntValue(key));
+			}
+		}
+		dataLoaded = spritesLoaded;
+	}
+
+	/**
+	 * Load a sprite into a map, unless it's already there
+	 *
+	 * @return whether the map has the sprite
+	 */
+	private boolean loadSprite(HashMap<Integer, BufferedImage> sprites, Integer key, int spriteId)
+	{
+		if (sprites.containsKey(key))
+		{
+			return true;
+		}
+		BufferedImage spriteImage = iconCache.loadSprite(spriteId);
+		if (spriteImage == null)
+		{
+			return false;
+		}
+		sprites.put(key, spriteImage);
+		return true;
+	}
+
+	/**
+	 * All sprite ids used by the task type, for button filters and tiers
+	 */
+	public HashSet<Integer> getSpriteIds()
+	{
+		HashSet<Integer> spriteIds = getButtonFiltersSpriteIds();
+		spriteIds.addAll(_taskTypeDefinition.getTierSpriteIdMap().values());
+		return spriteIds;
+	}
+
+	/**
+	 * Shared icon for a tier, or null if the tier has no sprite
+	 */
+	public ImageIcon getTierIcon(int tierId)
+	{
+		BufferedImage tierSprite = tierSprites.get(tierId);
+		return tierSprite != null ? iconCache.getIcon(tierSprite) : null;
+	}
+
 	public String getFilterConfigPrefix()
 	{
 		return _taskTypeDefinition.getTaskJsonName() + ".";
@@ -0,0 +1,71 @@
+package net.reldo.taskstracker.data.task;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Identifies one task type switch. A newer switch cancels the token of the one before it, so a
+ * superseded load can stop at its next stage boundary and abort any in-flight request.
+ */
+@Slf4j
+public class TaskTypeLoadToken
+{
+	@Getter
+	private final int generation;
+	@Getter
+	private volatile boolean cancelled = false;
+	private final List<Runnable> cancelListeners = new ArrayList<>();
+
+	public TaskTypeLoadToken(int generation)
+	{
+		this.generation = generation;
+	}
+
+	/**
+	 * Register an action to run when the load is cancelled, such as cancelling a http call.
+	 * Runs immediately if the load has already been cancelled.
+	 */
+	public void onCancel(Runnable listener)
+	{
+		synchronized (cancelListeners)
+		{
+			if (!cancelled)
+			{
+				cancelListeners.add(listener);
+				return;
+			}
+		}
+		listener.run();
+	}
+
+	public void cancel()
+	{
+		List<Runnable> listeners;
+		synchronized (cancelListeners)
+		{
+			if (cancelled)
+			{
+				return;
+			}
+			cancelled = true;
+			listeners = new ArrayList<>(cancelListeners);
+			cancelListeners.clear();
+		}
+		log.debug("Cancelling task type load {}", generation);
+		listeners.forEach(Runnable::run);
+	}
+
+	/**
+	 * @throws CancellationException if a newer task type switch has superseded this one
+	 */
+	public void throwIfCancelled()
+	{
+		if (cancelled)
+		{
+			throw new CancellationException("Task type load " + generation + " superseded");
+		}
+	}
+}
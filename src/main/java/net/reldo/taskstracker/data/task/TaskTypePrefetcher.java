@@ -0,0 +1,101 @@
+package net.reldo.taskstracker.data.task;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Queue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import lombok.extern.slf4j.Slf4j;
+import net.reldo.taskstracker.metrics.StallWatchdog;
+import net.reldo.taskstracker.panel.IconCache;
+
+/**
+ * Warms the sprite and enum caches of every task type after login, so that switching task type
+ * in the panel doesn't have to wait on the client thread.
+ * <p>
+ * Work is done in small client thread slices, bounded by {@link #SLICE_BUDGET_NANOS} per frame.
+ */
+@Singleton
+@Slf4j
+public class TaskTypePrefetcher
+{
+	private static final long SLICE_BUDGET_NANOS = 1_000_000;
+
+	@Inject
+	private TaskService taskService;
+	@Inject
+	private StallWatchdog stallWatchdog;
+	@Inject
+	private IconCache iconCache;
+
+	private final AtomicBoolean isPrefetching = new AtomicBoolean(false);
+	// The task types prefetched most recently; task types are recreated when they are cleared
+	private volatile HashMap<String, TaskType> prefetchedTaskTypes;
+
+	public void prefetch()
+	{
+		if (!isPrefetching.compareAndSet(false, true))
+		{
+			return;
+		}
+
+		taskService.getTaskTypesByJsonName().thenAccept(taskTypes -> {
+			if (taskTypes == prefetchedTaskTypes)
+			{
+				isPrefetching.set(false);
+				return;
+			}
+
+			Queue<Runnable> steps = new ArrayDeque<>();
+			for (TaskType taskType : taskTypes.values())
+			{
+				if (!taskType.isDataLoaded())
+				{
+					taskType.getSpriteIds().forEach(spriteId -> steps.add(() -> iconCache.loadSprite(spriteId)));
+					steps.add(taskType::loadTaskTypeData);
+				}
+				taskType.getStringEnumMap().keySet().forEach(enumName -> steps.add(() -> taskService.loadStringEnumValues(taskType, enumName)));
+			}
+
+			log.debug("Prefetching {} task types in {} steps", taskTypes.size(), steps.size());
+			stallWatchdog.invokeLaterOnClientThread("TaskTypePrefetcher.runSlice", () -> runSlice(steps, taskTypes));
+		}).exceptionally(ex -> {
+			log.error("Unable to prefetch task types", ex);
+			isPrefetching.set(false);
+			return null;
+		});
+	}
+
+	/**
+	 * Runs prefetch steps until the slice budget is spent.
+	 *
+	 * @return true when all steps are done, false to be run again on a later frame
+	 */
+	private boolean runSlice(Queue<Runnable> steps, HashMap<String, TaskType> taskTypes)
+	{
+		long start = System.nanoTime();
+		while (!steps.isEmpty())
+		{
+			Runnable step = steps.poll();
+			try
+			{
+				step.run();
+			}
+			catch (Exception ex)
+			{
+				log.warn("Task type prefetch step failed", ex);
+			}
+
+			if (System.nanoTime() - start > SLICE_BUDGET_NANOS)
+			{
+				return false;
+			}
+		}
+
+		log.debug("Task type prefetch complete");
+		prefetchedTaskTypes = taskTypes;
+		isPrefetching.set(false);
+		return true;
+	}
+}
@@ -0,0 +1,38 @@
+package net.reldo.taskstracker.data.task;
+
+import java.util.Map;
+import lombok.Getter;
+import net.reldo.taskstracker.data.jsondatastore.types.TaskDefinitionTable;
+
+/**
+ * The task definitions of a task type, and optionally the struct params decoded for each of them.
+ * <p>
+ * Param columns are indexed by task row. They are only present when read back from a
+ * {@link TaskSnapshotStore} snapshot; definitions fresh from the task json need their structs loaded.
+ */
+public class TaskTypeSnapshot
+{
+	@Getter
+	private final TaskDefinitionTable table;
+	@Getter
+	private final Map<String, int[]> intParamColumns;
+	@Getter
+	private final Map<String, String[]> stringParamColumns;
+
+	public TaskTypeSnapshot(TaskDefinitionTable table)
+	{
+		this(table, null, null);
+	}
+
+	public TaskTypeSnapshot(TaskDefinitionTable table, Map<String, int[]> intParamColumns, Map<String, String[]> stringParamColumns)
+	{
+		this.table = table;
+		this.intParamColumns = intParamColumns;
+		this.stringParamColumns = stringParamColumns;
+	}
+
+	public boolean hasStructParams()
+	{
+		return intParamColumns != null && stringParamColumns != null;
+	}
+}
@@ -0,0 +1,149 @@
+package net.reldo.taskstracker.data.task;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import lombok.Getter;
+import net.reldo.taskstracker.data.jsondatastore.types.TaskMetadataColumn;
+import net.reldo.taskstracker.metrics.HeapComponent;
+import net.reldo.taskstracker.metrics.HeapFootprint;
+import net.reldo.taskstracker.metrics.HeapSizer;
+
+/**
+ * An immutable snapshot of a fully loaded task type: its tasks with struct data, and the sort indexes built over them.
+ * <p>
+ * Snapshots are published by {@link TaskService} with a single reference swap, so readers on any thread
+ * see either the previous task type or the new one, never a partially replaced list.
+ * The task list and index collections cannot be modified; the sort index arrays must be treated as read only.
+ * Task completion state lives on the tasks themselves and is not part of the snapshot.
+ */
+public class TaskTypeState
+{
+	public static final TaskTypeState EMPTY = new TaskTypeState();
+
+	@Getter
+	private final TaskType taskType;
+	/**
+	 * Increases every time a snapshot is published, including when a cached snapshot is reused
+	 */
+	@Getter
+	private final long version;
+	@Getter
+	private final List<TaskFromStruct> tasks;
+	@Getter
+	private final Map<String, int[]> sortedIndexes;
+	@Getter
+	private final Set<Integer> taskVarps;
+	/**
+	 * Estimated heap of the tasks, params, definitions and sort indexes, as {@code ::tt-mem} reports them
+	 */
+	@Getter
+	private final long estimatedBytes;
+	/**
+	 * Status totals of the tasks, shared by every version of this snapshot
+	 */
+	@Getter
+	private final TaskTotals totals;
+
+	public TaskTypeState(TaskType taskType, List<TaskFromStruct> tasks, HashMap<String, int[]> sortedIndexes)
+	{
+		this.taskType = taskType;
+		this.version = 0;
+		this.tasks = Collections.unmodifiableList(new ArrayList<>(tasks));
+		this.sortedIndexes = Collections.unmodifiableMap(new HashMap<>(sortedIndexes));
+		this.taskVarps = Collections.unmodifiableSet(new HashSet<>(taskType.getTaskVarps()));
+		HeapFootprint.Entry entry = new HeapFootprint.Entry(taskType.getTaskJsonName(), "loaded", this.tasks.size());
+		measureHeap(entry, new HeapSizer());
+		this.estimatedBytes = entry.getTotalBytes();
+		this.totals = new TaskTotals(this.tasks);
+	}
+
+	private TaskTypeState()
+	{
+		this.taskType = null;
+		this.version = 0;
+		this.tasks = Collections.emptyList();
+		this.sortedIndexes = Collections.emptyMap();
+		this.taskVarps = Collections.emptySet();
+		this.estimatedBytes = 0;
+		this.totals = TaskTotals.EMPTY;
+	}
+
+	private TaskTypeState(TaskTypeState state, long version)
+	{
+		this.taskType = state.taskType;
+		this.version = version;
+		this.tasks = state.tasks;
+		this.sortedIndexes = state.sortedIndexes;
+		this.taskVarps = state.taskVarps;
+		this.estimatedBytes = state.estimatedBytes;
+		this.totals = state.totals;
+	}
+
+	/**
+	 * Get a copy of this snapshot with a new version, sharing the same tasks and indexes
+	 */
+	public TaskTypeState withVersion(long version)
+	{
+		return new TaskTypeState(this, version);
+	}
+
+	/**
+	 * Get the task at a position of a sort index, or the unsorted position if there is no such index
+	 */
+	public int getSortedTaskIndex(String sortCriteria, int position)
+	{
+		int[] sortedIndex = sortedIndexes.get(sortCriteria);
+		if (sortedIndex == null || position >= sortedIndex.length)
+		{
+			return position;
+		}
+		return sortedIndex[position];
+	}
+
+	/**
+	 * Get the metadata column of the task type's definitions, or null if no task has the property
+	 */
+	public TaskMetadataColumn getMetadataColumn(String key)
+	{
+		if (tasks.isEmpty())
+		{
+			return null;
+		}
+		return tasks.get(0).getTaskDefinition().getTable().getMetadataColumn(key);
+	}
+
+	/**
+	 * Estimate the heap of the tasks, params, definitions and sort indexes, adding each component to the entry
+	 */
+	public void measureHeap(HeapFootprint.Entry entry, HeapSizer sizer)
+	{
+		// The task list, then each task
+		long taskBytes = HeapSizer.referenceArray(tasks.size());
+		long paramBytes = 0;
+		for (TaskFromStruct task : tasks)
+		{
+			taskBytes += task.measureHeap(sizer);
+			paramBytes += task.measureParamsHeap(sizer);
+		}
+		entry.add(HeapComponent.TASKS, taskBytes);
+		entry.add(HeapComponent.PARAMS, paramBytes);
+
+		// Every task shares its task type's definition table
+		if (!tasks.isEmpty())
+		{
+			entry.add(HeapComponent.DEFINITIONS, tasks.get(0).getTaskDefinition().getTable().measureHeap(sizer));
+		}
+
+		long sortIndexBytes = HeapSizer.map(sortedIndexes.size());
+		for (Map.Entry<String, int[]> sortedIndex : sortedIndexes.entrySet())
+		{
+			sortIndexBytes += sizer.string(sortedIndex.getKey()) + sizer.array(sortedIndex.getValue());
+		}
+		entry.add(HeapComponent.SORT_INDEXES, sortIndexBytes);
+	}
+}
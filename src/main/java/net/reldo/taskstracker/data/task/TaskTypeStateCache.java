@@ -0,0 +1,88 @@
+package net.reldo.taskstracker.data.task;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Least recently used cache of loaded task type states, bounded by their estimated heap size.
+ */
+@Slf4j
+public class TaskTypeStateCache
+{
+	private final LinkedHashMap<String, TaskTypeState> statesByJsonName = new LinkedHashMap<>(16, 0.75f, true);
+	private long totalBytes = 0;
+
+	/**
+	 * Get the cached state of a task type, if it is still valid for that task type instance
+	 */
+	public synchronized TaskTypeState get(TaskType taskType)
+	{
+		TaskTypeState state = statesByJsonName.get(taskType.getTaskJsonName());
+		if (state == null || state.getTaskType() != taskType)
+		{
+			return null;
+		}
+		return state;
+	}
+
+	/**
+	 * Add a state to the cache, evicting least recently used states to stay within the budget.
+	 *
+	 * @param state       the loaded state
+	 * @param budgetBytes the maximum total estimated size of cached states
+	 */
+	public synchronized void put(TaskTypeState state, long budgetBytes)
+	{
+		remove(state.getTaskType().getTaskJsonName());
+		if (state.getEstimatedBytes() > budgetBytes)
+		{
+			log.debug("Not caching {}, {} bytes exceeds budget {}", state.getTaskType().getTaskJsonName(), state.getEstimatedBytes(), budgetBytes);
+			trimTo(budgetBytes);
+			return;
+		}
+
+		trimTo(budgetBytes - state.getEstimatedBytes());
+		statesByJsonName.put(state.getTaskType().getTaskJsonName(), state);
+		totalBytes += state.getEstimatedBytes();
+		log.debug("Cached {} ({} bytes), {} states using {} bytes", state.getTaskType().getTaskJsonName(), state.getEstimatedBytes(), statesByJsonName.size(), totalBytes);
+	}
+
+	/**
+	 * Get the cached states, least recently used first
+	 */
+	public synchronized List<TaskTypeState> getStates()
+	{
+		return new ArrayList<>(statesByJsonName.values());
+	}
+
+	public synchronized void clear()
+	{
+		statesByJsonName.clear();
+		totalBytes = 0;
+	}
+
+	private void remove(String taskJsonName)
+	{
+		TaskTypeState removed = statesByJsonName.remove(taskJsonName);
+		if (removed != null)
+		{
+			totalBytes -= removed.getEstimatedBytes();
+		}
+	}
+
+	private void trimTo(long budgetBytes)
+	{
+		Iterator<Map.Entry<String, TaskTypeState>> iterator = statesByJsonName.entrySet().iterator();
+		while (totalBytes > budgetBytes && iterator.hasNext())
+		{
+			TaskTypeState evicted = iterator.next().getValue();
+			iterator.remove();
+			totalBytes -= evicted.getEstimatedBytes();
+			log.debug("Evicted {} from task type cache", evicted.getTaskType().getTaskJsonName());
+		}
+	}
+}
@@ -0,0 +1,83 @@
+package net.reldo.taskstracker.data.task;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import javax.annotation.Nullable;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import lombok.extern.slf4j.Slf4j;
+import net.reldo.taskstracker.TasksTrackerConfig;
+import net.reldo.taskstracker.metrics.Metrics;
+import net.reldo.taskstracker.metrics.Stage;
+import net.reldo.taskstracker.metrics.StallWatchdog;
+import net.runelite.api.Client;
+
+/**
+ * Updates task completion from the task varps of the current task type, one client thread invocation per task
+ */
+@Singleton
+@Slf4j
+public class TaskVarpSync
+{
+	@Inject
+	private Client client;
+	@Inject
+	private TasksTrackerConfig config;
+	@Inject
+	private TaskService taskService;
+	@Inject
+	private Metrics metrics;
+	@Inject
+	private StallWatchdog stallWatchdog;
+
+	/**
+	 * Update task completion status. If no varpId is specified, it updates all tasks in the current task type
+	 *
+	 * @param varpId varp id to update (optional)
+	 * @return future of the tasks updated, completed once every task has been processed
+	 */
+	public CompletableFuture<List<TaskFromStruct>> syncVarp(@Nullable Integer varpId)
+	{
+		log.info("processVarpAndUpdateTasks: " + (varpId != null ? varpId : "all"));
+		long start = metrics.startTimer();
+
+		List<TaskFromStruct> tasks = varpId != null ?
+			taskService.getTasksFromVarpId(varpId) :
+			taskService.getTasks();
+
+		List<CompletableFuture<Boolean>> taskFutures = new ArrayList<>();
+		for (TaskFromStruct task : tasks)
+		{
+			taskFutures.add(syncTaskStatus(task));
+		}
+
+		return CompletableFuture.allOf(taskFutures.toArray(new CompletableFuture[0]))
+			.thenApply(v -> {
+				metrics.stopTimer(Stage.VARP_FLUSH, start);
+				return tasks;
+			});
+	}
+
+	private CompletableFuture<Boolean> syncTaskStatus(TaskFromStruct task)
+	{
+		CompletableFuture<Boolean> future = new CompletableFuture<>();
+		stallWatchdog.invoke("TaskVarpSync.syncTaskStatus", () -> {
+			int taskId = task.getIntParam("id");
+			int varbitIndex = taskId / 32;
+			try
+			{
+				int varpId = task.getTaskType().getTaskVarps().get(varbitIndex);
+				boolean isTaskCompleted = task.applyVarpValue(client.getVarpValue(varpId), config.untrackUponCompletion());
+				log.debug("process taskFromStruct {} ({}) {}", task.getStringParam("name"), task.getIntParam("id"), isTaskCompleted);
+				future.complete(isTaskCompleted);
+			}
+			catch (Exception ex)
+			{
+				log.error("Error processing task status {}", taskId, ex);
+				future.completeExceptionally(ex);
+			}
+		});
+		return future;
+	}
+}
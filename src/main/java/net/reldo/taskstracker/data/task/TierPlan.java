@@ -0,0 +1,42 @@
+package net.reldo.taskstracker.data.task;
+
+import java.util.Collections;
+import java.util.List;
+import lombok.Getter;
+
+/**
+ * A set of incomplete tasks which together reach the next tier, as chosen by {@link TierPlanner}
+ */
+@Getter
+public class TierPlan
+{
+	/**
+	 * Display label of the tier being planned for
+	 */
+	private final String tierLabel;
+	/**
+	 * Points, or completed tasks for completion count tiers, still needed to reach the tier
+	 */
+	private final int remaining;
+	/**
+	 * The planned tasks, cheapest first
+	 */
+	private final List<TaskFromStruct> tasks;
+	/**
+	 * Points of the planned tasks
+	 */
+	private final int points;
+	/**
+	 * Whether the planned tasks reach the tier. If not, the plan holds every eligible task.
+	 */
+	private final boolean reachable;
+
+	public TierPlan(String tierLabel, int remaining, List<TaskFromStruct> tasks, int points, boolean reachable)
+	{
+		this.tierLabel = tierLabel;
+		this.remaining = remaining;
+		this.tasks = Collections.unmodifiableList(tasks);
+		this.points = points;
+		this.reachable = reachable;
+	}
+}
@@ -0,0 +1,350 @@
+package net.reldo.taskstracker.data.task;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import lombok.extern.slf4j.Slf4j;
+import net.reldo.taskstracker.data.jsondatastore.types.TaskCompletionCountTierDefinition;
+import net.reldo.taskstracker.data.jsondatastore.types.TaskDefinitionTable;
+import net.reldo.taskstracker.data.jsondatastore.types.TaskPointTierDefinition;
+import net.runelite.api.Skill;
+
+/**
+ * Plans the cheapest set of tasks to complete to reach the next tier.
+ * <p>
+ * Only incomplete, non-ignored tasks whose skill requirements the player meets are considered. A task's cost
+ * grows with its rarity, from the wiki completion percent, and with its tier, so common low tier tasks are preferred.
+ * Point tiers are planned with an exact knapsack when the search space is small enough, otherwise greedily
+ * by cost per point and then repaired by dropping tasks that aren't needed.
+ */
+@Singleton
+@Slf4j
+public class TierPlanner
+{
+	// Every task costs at least this much, so fewer tasks are preferred
+	private static final double BASE_COST = 1.0;
+	private static final double RARITY_WEIGHT = 1.0;
+	private static final double TIER_WEIGHT = 0.5;
+	// Used when the wiki has no completion percent for a task
+	private static final double UNKNOWN_RARITY = 0.5;
+	// Largest candidates × points table solved exactly
+	private static final long KNAPSACK_CELL_LIMIT = 2_000_000;
+
+	@Inject
+	private TierService tierService;
+
+	private final Map<String, Skill> skillsByName = new HashMap<>();
+
+	/**
+	 * Plan the tasks to complete to reach the next point tier
+	 *
+	 * @param playerSkills real skill levels by skill ordinal, or null if unknown
+	 * @return the plan, or null if the task type has no point tiers or all of them are reached
+	 */
+	public TierPlan planNextPointTier(TaskTypeState state, int[] playerSkills)
+	{
+		if (state.getTaskType() == null)
+		{
+			return null;
+		}
+		List<TaskPointTierDefinition> tiers = state.getTaskType().getTaskPointTiers();
+		int currentPoints = state.getTotals().getCompletedPoints();
+		TaskPointTierDefinition nextTier = tierService.getNextTier(tiers, currentPoints);
+		int remaining = tierService.getPointsToNextTier(tiers, currentPoints);
+		if (nextTier == null || remaining <= 0)
+		{
+			return null;
+		}
+
+		List<Candidate> candidates = getCandidates(state, playerSkills, true);
+		String label = nextTier.getDisplayLabel(tiers.indexOf(nextTier));
+		List<Candidate> planned = solve(candidates, remaining);
+		if (planned == null)
+		{
+			return toPlan(label, remaining, candidates, false);
+		}
+		return toPlan(label, remaining, planned, true);
+	}
+
+	/**
+	 * Plan the tasks to complete to reach the next completion count tier
+	 *
+	 * @param playerSkills real skill levels by skill ordinal, or null if unknown
+	 * @return the plan, or null if the task type has no completion count tiers or all of them are reached
+	 */
+	public TierPlan planNextCompletionCountTier(TaskTypeState state, int[] playerSkills)
+	{
+		if (state.getTaskType() == null)
+		{
+			return null;
+		}
+		List<TaskCompletionCountTierDefinition> unlocks = state.getTaskType().getTaskCompletionCountTiers();
+		int completedTasks = state.getTotals().getCompletedCount();
+		TaskCompletionCountTierDefinition nextUnlock = tierService.getNextUnlock(unlocks, completedTasks);
+		int remaining = tierService.getTasksToNextUnlock(unlocks, completedTasks);
+		if (nextUnlock == null || remaining <= 0)
+		{
+			return null;
+		}
+
+		// Every task counts the same, so the cheapest tasks are the plan
+		List<Candidate> candidates = getCandidates(state, playerSkills, false);
+		candidates.sort(Comparator.comparingDouble(candidate -> candidate.cost));
+		List<Candidate> planned = new ArrayList<>(candidates.subList(0, Math.min(remaining, candidates.size())));
+		String label = nextUnlock.getDisplayLabel(unlocks.indexOf(nextUnlock));
+		return toPlan(label, remaining, planned, planned.size() >= remaining);
+	}
+
+	private TierPlan toPlan(String label, int remaining, List<Candidate> planned, boolean reachable)
+	{
+		planned.sort(Comparator.comparingDouble(candidate -> candidate.cost));
+
+		List<TaskFromStruct> tasks = new ArrayList<>(planned.size());
+		int points = 0;
+		for (Candidate candidate : planned)
+		{
+			tasks.add(candidate.task);
+			points += candidate.points;
+		}
+		return new TierPlan(label, remaining, tasks, points, reachable);
+	}
+
+	/**
+	 * Score the tasks that could be completed towards a tier
+	 *
+	 * @param requirePoints whether tasks worth no points are left out
+	 */
+	List<Candidate> getCandidates(TaskTypeState state, int[] playerSkills, boolean requirePoints)
+	{
+		TaskTotals totals = state.getTotals();
+		int minTier = Integer.MAX_VALUE;
+		int maxTier = Integer.MIN_VALUE;
+		List<TaskFromStruct> eligible = new ArrayList<>();
+		for (TaskFromStruct task : state.getTasks())
+		{
+			if (task.isCompleted() || task.isIgnored() || !task.isStructLoaded())
+			{
+				continue;
+			}
+			if (requirePoints && totals.getPoints(task.getOrdinal()) <= 0)
+			{
+				continue;
+			}
+			if (!meetsSkillRequirements(task, playerSkills))
+			{
+				continue;
+			}
+			eligible.add(task);
+			minTier = Math.min(minTier, totals.getTier(task.getOrdinal()));
+			maxTier = Math.max(maxTier, totals.getTier(task.getOrdinal()));
+		}
+
+		int tierRange = Math.max(1, maxTier - minTier);
+		List<Candidate> candidates = new ArrayList<>(eligible.size());
+		for (TaskFromStruct task : eligible)
+		{
+			TaskDefinitionTable table = task.getTaskDefinition().getTable();
+			float completionPercent = table.getCompletionPercent(task.getTaskDefinition().getRow());
+			double rarity = Float.isNaN(completionPercent)
+				? UNKNOWN_RARITY
+				: 1.0 - Math.max(0, Math.min(100, completionPercent)) / 100.0;
+			double tierCost = (double) (totals.getTier(task.getOrdinal()) - minTier) / tierRange;
+			double cost = BASE_COST + RARITY_WEIGHT * rarity + TIER_WEIGHT * tierCost;
+			candidates.add(new Candidate(task, totals.getPoints(task.getOrdinal()), cost));
+		}
+		return candidates;
+	}
+
+	private boolean meetsSkillRequirements(TaskFromStruct task, int[] playerSkills)
+	{
+		if (playerSkills == null)
+		{
+			return true;
+		}
+
+		TaskDefinitionTable table = task.getTaskDefinition().getTable();
+		int row = task.getTaskDefinition().getRow();
+		for (int skillIndex = 0; skillIndex < table.getSkillCount(row); skillIndex++)
+		{
+			int requiredLevel = table.getSkillLevel(row, skillIndex);
+			Skill skill = getSkill(table.getSkillName(row, skillIndex));
+			if (requiredLevel == TaskDefinitionTable.NO_VALUE || skill == null || skill.ordinal() >= playerSkills.length)
+			{
+				continue;
+			}
+			if (playerSkills[skill.ordinal()] < requiredLevel)
+			{
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private Skill getSkill(String skillName)
+	{
+		if (skillName == null)
+		{
+			return null;
+		}
+		synchronized (skillsByName)
+		{
+			if (!skillsByName.containsKey(skillName))
+			{
+				Skill skill = null;
+				try
+				{
+					skill = Skill.valueOf(skillName.toUpperCase());
+				}
+				catch (IllegalArgumentException ex)
+				{
+					// Requirements like total level aren't a skill
+				}
+				skillsByName.put(skillName, skill);
+			}
+			return skillsByName.get(skillName);
+		}
+	}
+
+	/**
+	 * Cheapest set of candidates with at least the needed points, exact if the knapsack table is small enough,
+	 * or null if the candidates can't reach it
+	 */
+	static List<Candidate> solve(List<Candidate> candidates, int needed)
+	{
+		long cells = (long) candidates.size() * (needed + 1);
+		return cells <= KNAPSACK_CELL_LIMIT ? solveKnapsack(candidates, needed) : solveGreedy(candidates, needed);
+	}
+
+	/**
+	 * Exact minimum cost set of candidates with at least the needed points, or null if the candidates can't reach it.
+	 * Points above the need are capped, so the table is candidates × (needed + 1).
+	 */
+	static List<Candidate> solveKnapsack(List<Candidate> candidates, int needed)
+	{
+		int width = needed + 1;
+		double[] minCost = new double[width];
+		Arrays.fill(minCost, Double.POSITIVE_INFINITY);
+		minCost[0] = 0;
+		// Whether candidate i improved the cost of each point total, and where it improved the capped total from
+		long[] improved = new long[(int) (((long) candidates.size() * width + 63) / 64)];
+		int[] cappedFrom = new int[candidates.size()];
+
+		for (int i = 0; i < candidates.size(); i++)
+		{
+			int points = candidates.get(i).points;
+			double cost = candidates.get(i).cost;
+			// Descending, so each candidate is used at most once
+			for (int from = needed - 1; from >= 0; from--)
+			{
+				if (minCost[from] == Double.POSITIVE_INFINITY)
+				{
+					continue;
+				}
+				int to = Math.min(needed, from + points);
+				double newCost = minCost[from] + cost;
+				if (newCost < minCost[to])
+				{
+					minCost[to] = newCost;
+					long bit = (long) i * width + to;
+					improved[(int) (bit >>> 6)] |= 1L << bit;
+					if (to == needed)
+					{
+						cappedFrom[i] = from;
+					}
+				}
+			}
+		}
+
+		if (minCost[needed] == Double.POSITIVE_INFINITY)
+		{
+			return null;
+		}
+
+		List<Candidate> planned = new ArrayList<>();
+		int total = needed;
+		for (int i = candidates.size() - 1; i >= 0 && total > 0; i--)
+		{
+			long bit = (long) i * width + total;
+			if ((improved[(int) (bit >>> 6)] & (1L << bit)) != 0)
+			{
+				planned.add(candidates.get(i));
+				total = total == needed ? cappedFrom[i] : total - candidates.get(i).points;
+			}
+		}
+		return planned;
+	}
+
+	/**
+	 * Greedy set of candidates with at least the needed points, or null if the candidates can't reach it.
+	 * Takes the cheapest candidates per point, then drops any that the rest cover without,
+	 * and swaps the last pick for a single cheaper candidate if one covers the same shortfall.
+	 */
+	static List<Candidate> solveGreedy(List<Candidate> candidates, int needed)
+	{
+		List<Candidate> byValue = new ArrayList<>(candidates);
+		byValue.sort(Comparator.comparingDouble(candidate -> candidate.cost / candidate.points));
+
+		List<Candidate> planned = new ArrayList<>();
+		int points = 0;
+		int next = 0;
+		while (points < needed && next < byValue.size())
+		{
+			Candidate candidate = byValue.get(next++);
+			planned.add(candidate);
+			points += candidate.points;
+		}
+		if (points < needed)
+		{
+			return null;
+		}
+
+		// The last pick may overshoot the need by a lot; a cheaper unpicked task may cover the same shortfall
+		Candidate last = planned.get(planned.size() - 1);
+		int shortfall = needed - (points - last.points);
+		Candidate replacement = last;
+		for (int i = next; i < byValue.size(); i++)
+		{
+			Candidate candidate = byValue.get(i);
+			if (candidate.points >= shortfall && candidate.cost < replacement.cost)
+			{
+				replacement = candidate;
+			}
+		}
+		if (replacement != last)
+		{
+			planned.set(planned.size() - 1, replacement);
+			points += replacement.points - last.points;
+		}
+
+		// Drop the most expensive picks the rest already cover
+		planned.sort(Comparator.comparingDouble((Candidate candidate) -> candidate.cost).reversed());
+		for (int i = 0; i < planned.size(); i++)
+		{
+			if (points - planned.get(i).points >= needed)
+			{
+				points -= planned.get(i).points;
+				planned.remove(i--);
+			}
+		}
+		return planned;
+	}
+
+	static class Candidate
+	{
+		final TaskFromStruct task;
+		final int points;
+		final double cost;
+
+		Candidate(TaskFromStruct task, int points, double cost)
+		{
+			this.task = task;
+			this.points = points;
+			this.cost = cost;
+		}
+	}
+}
@@ -1,12 +1,22 @@
 package net.reldo.taskstracker.data.task;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.function.ToIntFunction;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 import lombok.extern.slf4j.Slf4j;
 import net.reldo.taskstracker.data.jsondatastore.types.TaskCompletionCountTierDefinition;
 import net.reldo.taskstracker.data.jsondatastore.types.TaskPointTierDefinition;
+import net.reldo.taskstracker.metrics.StallWatchdog;
 import net.runelite.api.Client;
+import net.runelite.api.events.VarbitChanged;
 
 /**
  * Service for resolving tier and unlock thresholds.
@@ -15,6 +25,10 @@ import net.runelite.api.Client;
  * 1. Game varbit (if varbitId > 0 and returns > 0)
  * 2. Hardcoded JSON value
  * 3. -1 (unknown)
+ * <p>
+ * Resolved thresholds are cached per tier list as a sorted array, so tier lookups are a binary search.
+ * The cache is cleared when one of the tier varbits changes. Varbits are only read on the client thread;
+ * lookups from other threads use the cached thresholds, or the JSON values until the client thread has resolved them.
  */
 @Slf4j
 @Singleton
@@ -22,6 +36,14 @@ public class TierService
 {
 	@Inject
 	private Client client;
+	@Inject
+	private StallWatchdog stallWatchdog;
+
+	// Keyed by tier list identity; replaced rather than modified so it can be read from any thread
+	private volatile Map<List<?>, Thresholds> thresholdsByTiers = new IdentityHashMap<>();
+	private volatile Set<Integer> tierVarbitIds = Collections.emptySet();
+	// Tier lists queued to be resolved on the client thread, so a burst of lookups queues each one once
+	private final Set<List<?>> pendingResolutions = Collections.synchronizedSet(Collections.newSetFromMap(new IdentityHashMap<>()));
 
 	/**
 	 * Resolve actual points for a tier.
@@ -33,25 +55,7 @@ public class TierService
 		{
 			return -1;
 		}
-
-		if (tier.hasVarbit())
-		{
-			try
-			{
-				int gameValue = client.getVarbitValue(tier.getVarbitId());
-				if (gameValue > 0)
-				{
-					log.debug("Resolved {} from varbit {}: {}", tier.getLabel(), tier.getVarbitId(), gameValue);
-					return gameValue;
-				}
-			}
-			catch (Exception e)
-			{
-				log.debug("Failed to read varbit {}: {}", tier.getVarbitId(), e.getMessage());
-			}
-		}
-
-		return tier.getPoints(); // Returns -1 if unknown
+		return resolve(tier.hasVarbit(), tier.getVarbitId(), tier.getPoints());
 	}
 
 	/**
@@ -64,112 +68,210 @@ public class TierService
 		{
 			return -1;
 		}
+		return resolve(unlock.hasVarbit(), unlock.getVarbitId(), unlock.getTasks());
+	}
 
-		if (unlock.hasVarbit())
+	private int resolve(boolean hasVarbit, int varbitId, int jsonValue)
+	{
+		if (hasVarbit && client.isClientThread())
 		{
 			try
 			{
-				int gameValue = client.getVarbitValue(unlock.getVarbitId());
+				int gameValue = client.getVarbitValue(varbitId);
 				if (gameValue > 0)
 				{
-					log.debug("Resolved {} from varbit {}: {}", unlock.getLabel(), unlock.getVarbitId(), gameValue);
 					return gameValue;
 				}
 			}
 			catch (Exception e)
 			{
-				log.debug("Failed to read varbit {}: {}", unlock.getVarbitId(), e.getMessage());
+				log.debug("Failed to read varbit {}: {}", varbitId, e.getMessage());
 			}
 		}
 
-		return unlock.getTasks(); // Returns -1 if unknown
+		return jsonValue; // Returns -1 if unknown
 	}
 
-	// Get the reward tier achieved for a point total.
-	public TaskPointTierDefinition getTierForPoints(List<TaskPointTierDefinition> tiers, int totalPoints)
+	/**
+	 * Clear the cached thresholds if one of the tier varbits changed
+	 */
+	public void onVarbitChanged(VarbitChanged varbitChanged)
 	{
-		TaskPointTierDefinition result = null;
-		for (TaskPointTierDefinition tier : tiers)
+		if (tierVarbitIds.contains(varbitChanged.getVarbitId()))
 		{
-			int threshold = resolvePoints(tier);
-			if (threshold >= 0 && totalPoints >= threshold)
-			{
-				result = tier;
-			}
-			else if (threshold >= 0)
-			{
-				break;
-			}
+			log.debug("Tier varbit {} changed, clearing tier thresholds", varbitChanged.getVarbitId());
+			thresholdsByTiers = new IdentityHashMap<>();
 		}
-		return result;
+	}
+
+	// Get the reward tier achieved for a point total.
+	public TaskPointTierDefinition getTierForPoints(List<TaskPointTierDefinition> tiers, int totalPoints)
+	{
+		return getPointThresholds(tiers).getAchieved(tiers, totalPoints);
 	}
 
 	// Get the completion tier achieved for a task count.
 	public TaskCompletionCountTierDefinition getUnlockForTasks(List<TaskCompletionCountTierDefinition> unlocks, int completedTasks)
 	{
-		TaskCompletionCountTierDefinition result = null;
-		for (TaskCompletionCountTierDefinition unlock : unlocks)
+		return getTaskThresholds(unlocks).getAchieved(unlocks, completedTasks);
+	}
+
+	// Get the next points tier after the current one.
+	public TaskPointTierDefinition getNextTier(List<TaskPointTierDefinition> tiers, int currentPoints)
+	{
+		return getPointThresholds(tiers).getNext(tiers, currentPoints); // null at max tier
+	}
+
+	// Get the next completion count tier after the current one.
+	public TaskCompletionCountTierDefinition getNextUnlock(List<TaskCompletionCountTierDefinition> unlocks, int completedTasks)
+	{
+		return getTaskThresholds(unlocks).getNext(unlocks, completedTasks); // null at max unlock
+	}
+
+	public int getPointsToNextTier(List<TaskPointTierDefinition> tiers, int currentPoints)
+	{
+		return getPointThresholds(tiers).getRemainingToNext(currentPoints);
+	}
+
+	public int getTasksToNextUnlock(List<TaskCompletionCountTierDefinition> unlocks, int completedTasks)
+	{
+		return getTaskThresholds(unlocks).getRemainingToNext(completedTasks);
+	}
+
+	private Thresholds getPointThresholds(List<TaskPointTierDefinition> tiers)
+	{
+		return getThresholds(tiers, this::resolvePoints, TaskPointTierDefinition::hasVarbit, TaskPointTierDefinition::getVarbitId);
+	}
+
+	private Thresholds getTaskThresholds(List<TaskCompletionCountTierDefinition> unlocks)
+	{
+		return getThresholds(unlocks, this::resolveTasks, TaskCompletionCountTierDefinition::hasVarbit, TaskCompletionCountTierDefinition::getVarbitId);
+	}
+
+	private <T> Thresholds getThresholds(List<T> tiers, ToIntFunction<T> resolver, Predicate<T> hasVarbit, ToIntFunction<T> getVarbitId)
+	{
+		if (tiers.isEmpty())
+		{
+			return Thresholds.EMPTY;
+		}
+		Thresholds thresholds = thresholdsByTiers.get(tiers);
+		if (thresholds != null)
+		{
+			return thresholds;
+		}
+
+		thresholds = Thresholds.resolve(tiers, resolver);
+		if (!client.isClientThread())
 		{
-			int threshold = resolveTasks(unlock);
-			if (threshold >= 0 && completedTasks >= threshold)
+			// Varbits weren't read, so cache the game values once the client thread gets to them
+			if (pendingResolutions.add(tiers))
 			{
-				result = unlock;
+				stallWatchdog.invokeLaterOnClientThread("TierService.getThresholds", () -> {
+					pendingResolutions.remove(tiers);
+					getThresholds(tiers, resolver, hasVarbit, getVarbitId);
+				});
 			}
-			else if (threshold >= 0)
+			return thresholds;
+		}
+
+		Set<Integer> varbitIds = new HashSet<>(tierVarbitIds);
+		for (T tier : tiers)
+		{
+			if (hasVarbit.test(tier))
 			{
-				break;
+				varbitIds.add(getVarbitId.applyAsInt(tier));
 			}
 		}
-		return result;
+		tierVarbitIds = Collections.unmodifiableSet(varbitIds);
+
+		Map<List<?>, Thresholds> updated = new IdentityHashMap<>(thresholdsByTiers);
+		updated.put(tiers, thresholds);
+		thresholdsByTiers = updated;
+		return thresholds;
 	}
 
-	// Get the next points tier after the current one.
-	public TaskPointTierDefinition getNextTier(List<TaskPointTierDefinition> tiers, int currentPoints)
+	/**
+	 * The known thresholds of a tier list in ascending order, with the list index of each tier
+	 */
+	private static class Thresholds
 	{
-		for (TaskPointTierDefinition tier : tiers)
+		private static final Thresholds EMPTY = new Thresholds(new int[0], new int[0]);
+
+		private final int[] values;
+		private final int[] tierIndexes;
+
+		private Thresholds(int[] values, int[] tierIndexes)
+		{
+			this.values = values;
+			this.tierIndexes = tierIndexes;
+		}
+
+		private static <T> Thresholds resolve(List<T> tiers, ToIntFunction<T> resolver)
 		{
-			int threshold = resolvePoints(tier);
-			if (threshold > currentPoints)
+			// Pack each known threshold with its index so they sort together
+			long[] packed = new long[tiers.size()];
+			int count = 0;
+			for (int i = 0; i < tiers.size(); i++)
 			{
-				return tier;
+				int threshold = resolver.applyAsInt(tiers.get(i));
+				if (threshold >= 0)
+				{
+					packed[count++] = ((long) threshold << 32) | i;
+				}
 			}
+			Arrays.sort(packed, 0, count);
+
+			int[] values = new int[count];
+			int[] tierIndexes = new int[count];
+			for (int i = 0; i < count; i++)
+			{
+				values[i] = (int) (packed[i] >>> 32);
+				tierIndexes[i] = (int) packed[i];
+			}
+			return new Thresholds(values, tierIndexes);
 		}
-		return null; // At max tier
-	}
 
-	// Get the next completion count tier after the current one.
-	public TaskCompletionCountTierDefinition getNextUnlock(List<TaskCompletionCountTierDefinition> unlocks, int completedTasks)
-	{
-		for (TaskCompletionCountTierDefinition unlock : unlocks)
+		// Position of the first threshold above the value
+		private int firstAbove(int value)
 		{
-			int threshold = resolveTasks(unlock);
-			if (threshold > completedTasks)
+			int low = 0;
+			int high = values.length;
+			while (low < high)
 			{
-				return unlock;
+				int mid = (low + high) >>> 1;
+				if (values[mid] <= value)
+				{
+					low = mid + 1;
+				}
+				else
+				{
+					high = mid;
+				}
 			}
+			return low;
 		}
-		return null; // At max unlock
-	}
 
-	public int getPointsToNextTier(List<TaskPointTierDefinition> tiers, int currentPoints)
-	{
-		TaskPointTierDefinition next = getNextTier(tiers, currentPoints);
-		if (next == null)
+		private <T> T getAchieved(List<T> tiers, int value)
 		{
-			return 0;
+			int position = firstAbove(value) - 1;
+			return position >= 0 ? tiers.get(tierIndexes[position]) : null;
 		}
-		int threshold = resolvePoints(next);
-		return threshold > 0 ? threshold - currentPoints : 0;
-	}
 
-	public int getTasksToNextUnlock(List<TaskCompletionCountTierDefinition> unlocks, int completedTasks)
-	{
-		TaskCompletionCountTierDefinition next = getNextUnlock(unlocks, completedTasks);
-		if (next == null)
+		private <T> T getNext(List<T> tiers, int value)
+		{
+			int position = firstAbove(value);
+			return position < values.length ? tiers.get(tierIndexes[position]) : null;
+		}
+
+		private int getRemainingToNext(int value)
 		{
-			return 0;
+			int position = firstAbove(value);
+			if (position >= values.length)
+			{
+				return 0;
+			}
+			int threshold = values[position];
+			return threshold > 0 ? threshold - value : 0;
 		}
-		int threshold = resolveTasks(next);
-		return threshold > 0 ? threshold - completedTasks : 0;
 	}
 }
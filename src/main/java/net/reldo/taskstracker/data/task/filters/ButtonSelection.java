@@ -0,0 +1,39 @@
+package net.reldo.taskstracker.data.task.filters;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Parses the selected button keys of a button filter, stored as "f-key-f" entries joined by commas
+ */
+final class ButtonSelection
+{
+	private static final String KEY_PREFIX = "f-";
+	private static final String KEY_SUFFIX = "-f";
+
+	private ButtonSelection()
+	{
+	}
+
+	static Set<Integer> parse(String configValue)
+	{
+		Set<Integer> keys = new HashSet<>();
+		for (String entry : configValue.split(","))
+		{
+			if (!entry.startsWith(KEY_PREFIX) || !entry.endsWith(KEY_SUFFIX) || entry.length() <= KEY_PREFIX.length() + KEY_SUFFIX.length())
+			{
+				continue;
+			}
+			try
+			{
+				keys.add(Integer.parseInt(entry.substring(KEY_PREFIX.length(), entry.length() - KEY_SUFFIX.length())));
+			}
+			catch (NumberFormatException ignored)
+			{
+				// Not a key this filter can match
+			}
+		}
+		return Collections.unmodifiableSet(keys);
+	}
+}
@@ -0,0 +1,66 @@
+package net.reldo.taskstracker.data.task.filters;
+
+import net.reldo.taskstracker.TasksTrackerPlugin;
+import net.runelite.client.config.ConfigManager;
+
+/**
+ * A filter whose selection is stored as a string in the plugin config.
+ * <p>
+ * The config value is parsed once each time it changes rather than for every task checked,
+ * so matching a task only has to compare against the parsed selection.
+ *
+ * @param <T> the parsed selection
+ */
+public abstract class ConfigSelectionFilter<T> extends Filter
+{
+	private final ConfigManager configManager;
+	private final String filterConfigKey;
+	// Swapped as a whole so the config value and its parsed selection are always read together
+	private volatile ParsedSelection<T> parsedSelection;
+
+	protected ConfigSelectionFilter(ConfigManager configManager, String filterConfigKey)
+	{
+		this.configManager = configManager;
+		this.filterConfigKey = filterConfigKey;
+	}
+
+	/**
+	 * Parse a non-empty config value into a selection
+	 *
+	 * @return the selection, or null if the config value can't be parsed
+	 */
+	protected abstract T parseSelection(String configValue);
+
+	/**
+	 * Get the current selection, or null if nothing is selected
+	 */
+	protected T getSelection()
+	{
+		String configValue = configManager.getConfiguration(TasksTrackerPlugin.CONFIG_GROUP_NAME, filterConfigKey);
+		boolean isEmptyFilterSelection = configValue == null || configValue.isEmpty() || configValue.equals("-1");
+		if (isEmptyFilterSelection)
+		{
+			return null;
+		}
+
+		ParsedSelection<T> parsed = parsedSelection;
+		if (parsed == null || !parsed.configValue.equals(configValue))
+		{
+			parsed = new ParsedSelection<>(configValue, parseSelection(configValue));
+			parsedSelection = parsed;
+		}
+		return parsed.selection;
+	}
+
+	private static class ParsedSelection<T>
+	{
+		private final String configValue;
+		private final T selection;
+
+		private ParsedSelection(String configValue, T selection)
+		{
+			this.configValue = configValue;
+			this.selection = selection;
+		}
+	}
+}
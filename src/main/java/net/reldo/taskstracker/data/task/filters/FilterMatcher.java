@@ -8,6 +8,7 @@ import net.reldo.taskstracker.config.ConfigValues.CompletedFilterValues;
 import net.reldo.taskstracker.config.ConfigValues.IgnoredFilterValues;
 import net.reldo.taskstracker.config.ConfigValues.TrackedFilterValues;
 import net.reldo.taskstracker.data.jsondatastore.types.FilterType;
+import net.reldo.taskstracker.data.jsondatastore.types.FilterValueType;
 import net.reldo.taskstracker.data.task.TaskFromStruct;
 import net.reldo.taskstracker.data.task.TaskType;
 import net.runelite.client.config.ConfigManager;
@@ -43,16 +44,21 @@ public class FilterMatcher
 		}
 
 		taskType.getFilters().forEach((filterConfig) -> {
-			String paramName = filterConfig.getValueName();
+			String valueName = filterConfig.getValueName();
 			String configKey = taskType.getFilterConfigPrefix() + filterConfig.getConfigKey();
+			boolean isMetadata = FilterValueType.METADATA.equals(filterConfig.getValueType());
 
 			if (filterConfig.getFilterType().equals(FilterType.BUTTON_FILTER))
 			{
-				filters.add(new ParamButtonFilter(configManager, paramName, configKey));
+				filters.add(isMetadata
+					? new MetadataButtonFilter(configManager, valueName, configKey, filterConfig.getCustomItems())
+					: new ParamButtonFilter(configManager, valueName, configKey));
 			}
 			else if (filterConfig.getFilterType().equals(FilterType.DROPDOWN_FILTER))
 			{
-				filters.add(new ParamDropdownFilter(configManager, paramName, configKey));
+				filters.add(isMetadata
+					? new MetadataDropdownFilter(configManager, valueName, configKey)
+					: new ParamDropdownFilter(configManager, valueName, configKey));
 			}
 		});
 
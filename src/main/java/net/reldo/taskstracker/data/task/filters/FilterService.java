@@ -1,9 +1,11 @@
 package net.reldo.taskstracker.data.task.filters;
 
 import java.util.HashMap;
+import java.util.concurrent.CompletableFuture;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 import lombok.extern.slf4j.Slf4j;
+import net.reldo.taskstracker.data.DataLoadExecutor;
 import net.reldo.taskstracker.data.jsondatastore.FilterDataClient;
 import net.reldo.taskstracker.data.jsondatastore.types.FilterConfig;
 
@@ -13,9 +15,12 @@ public class FilterService
 {
 	@Inject
 	private FilterDataClient filterDataClient;
+	@Inject
+	private DataLoadExecutor dataLoadExecutor;
 
 	// Filter config cache
-	private HashMap<String, FilterConfig> _filterConfigs = new HashMap<>();
+	private volatile HashMap<String, FilterConfig> _filterConfigs = new HashMap<>();
+	private CompletableFuture<Void> filterConfigsFuture;
 
 	public FilterConfig getGlobalFilterByKey(String filterKey)
 	{
@@ -40,8 +45,26 @@ public class FilterService
 		return null;
 	}
 
-	public void clearFilterConfigs()
+	/**
+	 * Fetch the global filter configs in the background, so the fetch can overlap with other loading.
+	 * Completes normally even if the fetch fails; {@link #getGlobalFilterByKey(String)} will then retry it.
+	 */
+	public synchronized CompletableFuture<Void> loadFilterConfigsAsync()
+	{
+		if (_filterConfigs != null && !_filterConfigs.isEmpty())
+		{
+			return CompletableFuture.completedFuture(null);
+		}
+		if (filterConfigsFuture == null)
+		{
+			filterConfigsFuture = CompletableFuture.runAsync(() -> getGlobalFilterByKey(null), dataLoadExecutor);
+		}
+		return filterConfigsFuture;
+	}
+
+	public synchronized void clearFilterConfigs()
 	{
-		this._filterConfigs.clear();
+		this._filterConfigs = new HashMap<>();
+		this.filterConfigsFuture = null;
 	}
 }
@@ -0,0 +1,112 @@
+package net.reldo.taskstracker.data.task.filters;
+
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import net.reldo.taskstracker.data.jsondatastore.types.FilterCustomItem;
+import net.reldo.taskstracker.data.jsondatastore.types.TaskDefinition;
+import net.reldo.taskstracker.data.jsondatastore.types.TaskMetadataColumn;
+import net.reldo.taskstracker.data.task.TaskFromStruct;
+import net.runelite.client.config.ConfigManager;
+
+/**
+ * A button filter over a metadata property of the task definitions.
+ * <p>
+ * Number and boolean metadata match the button key directly. String metadata, including string arrays,
+ * match the button's tooltip, or its key if it has no tooltip. Selected strings are resolved to the column's
+ * dictionary codes once per selection, so each task is matched with int comparisons.
+ */
+public class MetadataButtonFilter extends ConfigSelectionFilter<Set<Integer>>
+{
+	private final String metadataKey;
+	private final Map<Integer, String> valuesByKey = new HashMap<>();
+	private volatile ResolvedSelection resolvedSelection;
+
+	public MetadataButtonFilter(ConfigManager configManager, String metadataKey, String filterConfigKey, Collection<FilterCustomItem> customItems)
+	{
+		super(configManager, filterConfigKey);
+		this.metadataKey = metadataKey;
+		if (customItems != null)
+		{
+			for (FilterCustomItem customItem : customItems)
+			{
+				String value = customItem.getTooltip() != null ? customItem.getTooltip() : String.valueOf(customItem.getValue());
+				valuesByKey.put(customItem.getValue(), value);
+			}
+		}
+	}
+
+	@Override
+	protected Set<Integer> parseSelection(String configValue)
+	{
+		return ButtonSelection.parse(configValue);
+	}
+
+	@Override
+	public boolean meetsCriteria(TaskFromStruct task)
+	{
+		Set<Integer> selectedKeys = getSelection();
+		if (selectedKeys == null)
+		{
+			return false;
+		}
+
+		TaskDefinition taskDefinition = task.getTaskDefinition();
+		TaskMetadataColumn column = taskDefinition.getTable().getMetadataColumn(metadataKey);
+		if (column == null)
+		{
+			return false;
+		}
+
+		int row = taskDefinition.getRow();
+		switch (column.getType(row))
+		{
+			case TaskMetadataColumn.TYPE_NUMBER:
+			case TaskMetadataColumn.TYPE_BOOLEAN:
+				double number = column.getNumber(row);
+				return number == (int) number && selectedKeys.contains((int) number);
+			case TaskMetadataColumn.TYPE_STRING:
+			case TaskMetadataColumn.TYPE_STRING_SET:
+				return column.hasAnyCode(row, resolveCodes(selectedKeys, column));
+			default:
+				return false;
+		}
+	}
+
+	private BitSet resolveCodes(Set<Integer> selectedKeys, TaskMetadataColumn column)
+	{
+		ResolvedSelection resolved = resolvedSelection;
+		if (resolved == null || resolved.selectedKeys != selectedKeys || resolved.column != column)
+		{
+			BitSet codes = new BitSet();
+			for (Integer key : selectedKeys)
+			{
+				String value = valuesByKey.getOrDefault(key, String.valueOf(key));
+				int code = column.getCode(value);
+				if (code != TaskMetadataColumn.NO_CODE)
+				{
+					codes.set(code);
+				}
+			}
+			resolved = new ResolvedSelection(selectedKeys, column, codes);
+			resolvedSelection = resolved;
+		}
+		return resolved.codes;
+	}
+
+	private static class ResolvedSelection
+	{
+		private final Set<Integer> selectedKeys;
+		private final TaskMetadataColumn column;
+		private final BitSet codes;
+
+		private ResolvedSelection(Set<Integer> selectedKeys, TaskMetadataColumn column, BitSet codes)
+		{
+			this.selectedKeys = selectedKeys;
+			this.column = column;
+			this.codes = codes;
+		}
+	}
+}
@@ -0,0 +1,110 @@
+package net.reldo.taskstracker.data.task.filters;
+
+import net.reldo.taskstracker.data.jsondatastore.types.TaskDefinition;
+import net.reldo.taskstracker.data.jsondatastore.types.TaskMetadataColumn;
+import net.reldo.taskstracker.data.task.TaskFromStruct;
+import net.runelite.client.config.ConfigManager;
+
+/**
+ * A dropdown filter over a metadata property of the task definitions.
+ * <p>
+ * The selected value is stored as text: number and boolean metadata match it as a number, string metadata
+ * match it by dictionary code, and string arrays match if they contain it. Unlike param dropdowns,
+ * tasks without a value for the property are filtered out while something is selected.
+ */
+public class MetadataDropdownFilter extends ConfigSelectionFilter<String>
+{
+	private final String metadataKey;
+	private volatile ResolvedSelection resolvedSelection;
+
+	public MetadataDropdownFilter(ConfigManager configManager, String metadataKey, String filterConfigKey)
+	{
+		super(configManager, filterConfigKey);
+		this.metadataKey = metadataKey;
+	}
+
+	@Override
+	protected String parseSelection(String configValue)
+	{
+		return configValue;
+	}
+
+	@Override
+	public boolean meetsCriteria(TaskFromStruct task)
+	{
+		String selectedValue = getSelection();
+		if (selectedValue == null)
+		{
+			return true;
+		}
+
+		TaskDefinition taskDefinition = task.getTaskDefinition();
+		TaskMetadataColumn column = taskDefinition.getTable().getMetadataColumn(metadataKey);
+		if (column == null)
+		{
+			return false;
+		}
+
+		ResolvedSelection resolved = resolve(selectedValue, column);
+		int row = taskDefinition.getRow();
+		switch (column.getType(row))
+		{
+			case TaskMetadataColumn.TYPE_NUMBER:
+			case TaskMetadataColumn.TYPE_BOOLEAN:
+				return column.getNumber(row) == resolved.number;
+			case TaskMetadataColumn.TYPE_STRING:
+			case TaskMetadataColumn.TYPE_STRING_SET:
+				return resolved.code != TaskMetadataColumn.NO_CODE && column.hasCode(row, resolved.code);
+			default:
+				return false;
+		}
+	}
+
+	private ResolvedSelection resolve(String selectedValue, TaskMetadataColumn column)
+	{
+		ResolvedSelection resolved = resolvedSelection;
+		if (resolved == null || resolved.selectedValue != selectedValue || resolved.column != column)
+		{
+			resolved = new ResolvedSelection(selectedValue, column, parseNumber(selectedValue), column.getCode(selectedValue));
+			resolvedSelection = resolved;
+		}
+		return resolved;
+	}
+
+	private static double parseNumber(String value)
+	{
+		if (value.equals("true"))
+		{
+			return 1;
+		}
+		if (value.equals("false"))
+		{
+			return 0;
+		}
+		try
+		{
+			return Double.parseDouble(value);
+		}
+		catch (NumberFormatException ex)
+		{
+			// NaN never equals a number value
+			return Double.NaN;
+		}
+	}
+
+	private static class ResolvedSelection
+	{
+		private final String selectedValue;
+		private final TaskMetadataColumn column;
+		private final double number;
+		private final int code;
+
+		private ResolvedSelection(String selectedValue, TaskMetadataColumn column, double number, int code)
+		{
+			this.selectedValue = selectedValue;
+			this.column = column;
+			this.number = number;
+			this.code = code;
+		}
+	}
+}
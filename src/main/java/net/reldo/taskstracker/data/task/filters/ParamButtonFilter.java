@@ -1,34 +1,37 @@
 package net.reldo.taskstracker.data.task.filters;
 
+import java.util.Set;
 import lombok.extern.slf4j.Slf4j;
-import net.reldo.taskstracker.TasksTrackerPlugin;
 import net.reldo.taskstracker.data.task.TaskFromStruct;
 import net.runelite.client.config.ConfigManager;
 
 @Slf4j
-public class ParamButtonFilter extends Filter
+public class ParamButtonFilter extends ConfigSelectionFilter<Set<Integer>>
 {
 	private final String paramName;
-	private final String filterConfigKey;
-	private final ConfigManager configManager;
 
 	public ParamButtonFilter(ConfigManager configManager, String paramName, String filterConfigKey)
 	{
-		this.configManager = configManager;
+		super(configManager, filterConfigKey);
 		this.paramName = paramName;
-		this.filterConfigKey = filterConfigKey;
+	}
+
+	@Override
+	protected Set<Integer> parseSelection(String configValue)
+	{
+		return ButtonSelection.parse(configValue);
 	}
 
 	@Override
 	public boolean meetsCriteria(TaskFromStruct task)
 	{
-		String configValue = configManager.getConfiguration(TasksTrackerPlugin.CONFIG_GROUP_NAME, filterConfigKey);
-		boolean isEmptyFilterSelection = configValue == null || configValue.isEmpty() || configValue.equals("-1");
-		if (isEmptyFilterSelection)
+		Set<Integer> selectedKeys = getSelection();
+		if (selectedKeys == null)
 		{
 			return false;
 		}
 
-		return configValue.contains("f-" + task.getIntParam(paramName) + "-f");
+		Integer value = task.getIntParam(paramName);
+		return value != null && selectedKeys.contains(value);
 	}
 }
@@ -1,46 +1,45 @@
 package net.reldo.taskstracker.data.task.filters;
 
 import lombok.extern.slf4j.Slf4j;
-import net.reldo.taskstracker.TasksTrackerPlugin;
 import net.reldo.taskstracker.data.task.TaskFromStruct;
 import net.runelite.client.config.ConfigManager;
 
 @Slf4j
-public class ParamDropdownFilter extends Filter
+public class ParamDropdownFilter extends ConfigSelectionFilter<Integer>
 {
 	private final String paramName;
-	private final String filterConfigKey;
-	private final ConfigManager configManager;
 
 	public ParamDropdownFilter(ConfigManager configManager, String paramName, String filterConfigKey)
 	{
-		this.configManager = configManager;
+		super(configManager, filterConfigKey);
 		this.paramName = paramName;
-		this.filterConfigKey = filterConfigKey;
 	}
 
 	@Override
-	public boolean meetsCriteria(TaskFromStruct task)
+	protected Integer parseSelection(String configValue)
 	{
-		String configValue = configManager.getConfiguration(TasksTrackerPlugin.CONFIG_GROUP_NAME, filterConfigKey);
-		boolean isEmptyFilterSelection = configValue == null || configValue.isEmpty() || configValue.equals("-1");
-		if (isEmptyFilterSelection)
+		try
 		{
-			return true;
+			return Integer.parseInt(configValue);
 		}
-		if (task.getIntParam(paramName) != null)
+		catch (NumberFormatException ex)
 		{
-			try
-			{
-				Integer parsedConfigValue = Integer.parseInt(configValue);
-				return parsedConfigValue.equals(task.getIntParam(paramName));
-			}
-			catch (Exception ex)
-			{
-				log.warn("meetsCriteria error parsing config value for  {}", configValue);
-				return true;
-			}
+			log.warn("meetsCriteria error parsing config value for  {}", configValue);
+			return null;
 		}
-		return true;
+	}
+
+	@Override
+	public boolean meetsCriteria(TaskFromStruct task)
+	{
+		// An unparseable selection doesn't filter anything out
+		Integer selectedValue = getSelection();
+		if (selectedValue == null)
+		{
+			return true;
+		}
+
+		Integer value = task.getIntParam(paramName);
+		return value == null || selectedValue.equals(value);
 	}
 }
@@ -0,0 +1,24 @@
+package net.reldo.taskstracker.metrics;
+
+import lombok.Getter;
+
+/**
+ * Counted events of loading a task type
+ */
+public enum Counter
+{
+	SNAPSHOT_HIT("snapshot hits"),
+	SNAPSHOT_MISS("snapshot misses"),
+	STATE_CACHE_HIT("state cache hits"),
+	SAVE_CACHE_HIT("save cache hits"),
+	SAVE_CACHE_MISS("save cache misses"),
+	SWITCH_SUPERSEDED("superseded switches");
+
+	@Getter
+	private final String label;
+
+	Counter(String label)
+	{
+		this.label = label;
+	}
+}
@@ -0,0 +1,179 @@
+package net.reldo.taskstracker.metrics;
+
+import java.awt.Component;
+import java.awt.Container;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import javax.swing.AbstractButton;
+import javax.swing.JLabel;
+import javax.swing.text.JTextComponent;
+import lombok.extern.slf4j.Slf4j;
+import net.reldo.taskstracker.data.DataLoadExecutor;
+import net.reldo.taskstracker.data.TrackerConfigStore;
+import net.reldo.taskstracker.data.task.TaskService;
+import net.reldo.taskstracker.data.task.TaskTypeState;
+import net.reldo.taskstracker.panel.IconCache;
+
+/**
+ * On demand estimate of the heap the plugin retains, reported by the {@code ::tt-mem} command.
+ * <p>
+ * Walks the loaded task type states (tasks, params, definitions and sort indexes), the task panels of the
+ * displayed task type, the shared sprite cache and the saves of each task type, both the strings held by the
+ * config manager and the saves held to find changes.
+ * Sizes are estimated from field and array layouts rather than read from the JVM, so they are comparable
+ * between runs but only approximate the true retained size.
+ */
+@Singleton
+@Slf4j
+public class HeapAccountant
+{
+	/**
+	 * Entry name of state shared by every task type
+	 */
+	public static final String SHARED_ENTRY_NAME = "Shared";
+	// Swing components hold dozens of fields, property maps and listeners; a rough average per component
+	private static final int COMPONENT_BYTES = 1024;
+
+	@Inject
+	private TaskService taskService;
+	@Inject
+	private TrackerConfigStore trackerConfigStore;
+	@Inject
+	private IconCache iconCache;
+	@Inject
+	private DataLoadExecutor dataLoadExecutor;
+	@Inject
+	private StallWatchdog stallWatchdog;
+	@Inject
+	private Metrics metrics;
+
+	/**
+	 * Measure the plugin's heap, reading the panels on the EDT and everything else on the data load executor.
+	 * The result is also recorded in {@link Metrics}.
+	 *
+	 * @param taskListPanel the panel holding the task panels, or null if there is none
+	 */
+	public CompletableFuture<HeapFootprint> measureAsync(Container taskListPanel)
+	{
+		CompletableFuture<Long> panelBytesFuture = new CompletableFuture<>();
+		stallWatchdog.invokeLater("HeapAccountant.measurePanels", () -> {
+			try
+			{
+				panelBytesFuture.complete(taskListPanel != null ? measurePanels(taskListPanel, new HeapSizer()) : 0L);
+			}
+			catch (Exception ex)
+			{
+				panelBytesFuture.completeExceptionally(ex);
+			}
+		});
+
+		CompletableFuture<Collection<String>> taskJsonNamesFuture = taskService.getTaskTypesByJsonName()
+			.<Collection<String>>thenApply(Map::keySet)
+			.exceptionally(ex -> {
+				log.debug("Task types unavailable, only measuring saves of loaded task types", ex);
+				return Collections.emptySet();
+			});
+
+		return panelBytesFuture.thenCombineAsync(taskJsonNamesFuture, (panelBytes, taskJsonNames) -> {
+			HeapFootprint footprint = measure(taskJsonNames, panelBytes);
+			metrics.setHeapFootprint(footprint);
+			return footprint;
+		}, dataLoadExecutor);
+	}
+
+	/**
+	 * Measure the loaded task type states, the sprite cache and the saves of the given task types
+	 *
+	 * @param taskJsonNames task types whose saves should be measured, in addition to the loaded ones
+	 * @param panelBytes    estimated heap of the task panels, which belong to the published state
+	 */
+	public HeapFootprint measure(Collection<String> taskJsonNames, long panelBytes)
+	{
+		List<HeapFootprint.Entry> entries = new ArrayList<>();
+		Set<String> measuredTaskJsonNames = new HashSet<>();
+		TaskTypeState publishedState = taskService.getState();
+		for (TaskTypeState state : taskService.getLoadedStates())
+		{
+			boolean isPublished = state == publishedState;
+			HeapFootprint.Entry entry = measureState(state, isPublished ? "current" : "cached");
+			if (isPublished)
+			{
+				entry.add(HeapComponent.PANELS, panelBytes);
+			}
+			entries.add(entry);
+			measuredTaskJsonNames.add(state.getTaskType().getTaskJsonName());
+		}
+
+		for (String taskJsonName : taskJsonNames)
+		{
+			if (!measuredTaskJsonNames.contains(taskJsonName))
+			{
+				HeapFootprint.Entry entry = new HeapFootprint.Entry(taskJsonName, "saved", 0);
+				entry.add(HeapComponent.SAVE, trackerConfigStore.measureSaveHeap(taskJsonName, new HeapSizer()));
+				if (entry.getTotalBytes() > 0)
+				{
+					entries.add(entry);
+				}
+			}
+		}
+
+		HeapFootprint.Entry shared = new HeapFootprint.Entry(SHARED_ENTRY_NAME, "icon cache", 0);
+		shared.add(HeapComponent.SPRITES, iconCache.measureHeap(new HeapSizer()));
+		entries.add(shared);
+		return new HeapFootprint(entries);
+	}
+
+	/**
+	 * Measure one task type state and its save
+	 */
+	public HeapFootprint.Entry measureState(TaskTypeState state, String status)
+	{
+		String taskJsonName = state.getTaskType().getTaskJsonName();
+		HeapFootprint.Entry entry = new HeapFootprint.Entry(taskJsonName, status, state.getTasks().size());
+		HeapSizer sizer = new HeapSizer();
+		state.measureHeap(entry, sizer);
+		entry.add(HeapComponent.SAVE, trackerConfigStore.measureSaveHeap(taskJsonName, sizer));
+		return entry;
+	}
+
+	/**
+	 * Estimate the heap of a component tree. Must be called on the EDT.
+	 */
+	public long measurePanels(Container container, HeapSizer sizer)
+	{
+		long bytes = COMPONENT_BYTES;
+		for (Component component : container.getComponents())
+		{
+			if (component instanceof JLabel)
+			{
+				bytes += sizer.string(((JLabel) component).getText());
+			}
+			else if (component instanceof AbstractButton)
+			{
+				bytes += sizer.string(((AbstractButton) component).getText());
+			}
+			else if (component instanceof JTextComponent)
+			{
+				bytes += sizer.string(((JTextComponent) component).getText());
+			}
+
+			if (component instanceof Container)
+			{
+				bytes += measurePanels((Container) component, sizer);
+			}
+			else
+			{
+				bytes += COMPONENT_BYTES;
+			}
+		}
+		return bytes;
+	}
+}
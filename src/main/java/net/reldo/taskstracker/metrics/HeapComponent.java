@@ -0,0 +1,25 @@
+package net.reldo.taskstracker.metrics;
+
+import lombok.Getter;
+
+/**
+ * Parts of a task type's retained heap, estimated by {@link HeapAccountant}
+ */
+public enum HeapComponent
+{
+	TASKS("tasks"),
+	PARAMS("params"),
+	DEFINITIONS("definitions"),
+	SORT_INDEXES("sort indexes"),
+	PANELS("panels"),
+	SPRITES("sprites"),
+	SAVE("save");
+
+	@Getter
+	private final String label;
+
+	HeapComponent(String label)
+	{
+		this.label = label;
+	}
+}
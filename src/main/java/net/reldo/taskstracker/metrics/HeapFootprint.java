@@ -0,0 +1,147 @@
+package net.reldo.taskstracker.metrics;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import lombok.Getter;
+
+/**
+ * Estimated retained heap of the plugin, per task type and component, as measured by {@link HeapAccountant}
+ */
+public class HeapFootprint
+{
+	// Components that grow with a task type's task data, rather than with the panels or the save
+	private static final Set<HeapComponent> TASK_DATA_COMPONENTS = EnumSet.of(
+		HeapComponent.TASKS, HeapComponent.PARAMS, HeapComponent.DEFINITIONS, HeapComponent.SORT_INDEXES);
+
+	@Getter
+	private final List<Entry> entries;
+
+	public HeapFootprint(List<Entry> entries)
+	{
+		this.entries = Collections.unmodifiableList(new ArrayList<>(entries));
+	}
+
+	public long getTotalBytes()
+	{
+		return entries.stream().mapToLong(Entry::getTotalBytes).sum();
+	}
+
+	/**
+	 * Get the entry with the given name, or null
+	 */
+	public Entry getEntry(String name)
+	{
+		return entries.stream()
+			.filter(entry -> entry.getName().equals(name))
+			.findFirst()
+			.orElse(null);
+	}
+
+	/**
+	 * A total line, then one line per entry with its components, for chat or a stats file
+	 */
+	public List<String> getReport()
+	{
+		List<String> lines = new ArrayList<>();
+		lines.add("Heap estimate: " + formatBytes(getTotalBytes()));
+		for (Entry entry : entries)
+		{
+			StringBuilder line = new StringBuilder(entry.getName()).append(" (").append(entry.getStatus());
+			if (entry.getTaskCount() > 0)
+			{
+				line.append(", ").append(entry.getTaskCount()).append(" tasks): ")
+					.append(formatBytes(entry.getTotalBytes())).append(", ")
+					.append(entry.getBytesPerTask()).append(" B/task");
+			}
+			else
+			{
+				line.append("): ").append(formatBytes(entry.getTotalBytes()));
+			}
+			String separator = "; ";
+			for (Map.Entry<HeapComponent, Long> component : entry.getBytes().entrySet())
+			{
+				line.append(separator).append(component.getKey().getLabel()).append(' ').append(formatBytes(component.getValue()));
+				separator = ", ";
+			}
+			lines.add(line.toString());
+		}
+		return lines;
+	}
+
+	static String formatBytes(long bytes)
+	{
+		if (bytes >= 1024 * 1024)
+		{
+			return String.format("%.1f MB", bytes / (1024.0 * 1024.0));
+		}
+		if (bytes >= 1024)
+		{
+			return String.format("%.1f KB", bytes / 1024.0);
+		}
+		return bytes + " B";
+	}
+
+	/**
+	 * The estimated heap of one task type, or of state shared by every task type
+	 */
+	public static class Entry
+	{
+		@Getter
+		private final String name;
+		/**
+		 * Why the entry is held, such as current, cached or saved
+		 */
+		@Getter
+		private final String status;
+		@Getter
+		private final int taskCount;
+		private final Map<HeapComponent, Long> bytes = new EnumMap<>(HeapComponent.class);
+
+		public Entry(String name, String status, int taskCount)
+		{
+			this.name = name;
+			this.status = status;
+			this.taskCount = taskCount;
+		}
+
+		public void add(HeapComponent component, long componentBytes)
+		{
+			if (componentBytes > 0)
+			{
+				bytes.merge(component, componentBytes, Long::sum);
+			}
+		}
+
+		public Map<HeapComponent, Long> getBytes()
+		{
+			return Collections.unmodifiableMap(bytes);
+		}
+
+		public long getBytes(HeapComponent component)
+		{
+			return bytes.getOrDefault(component, 0L);
+		}
+
+		public long getTotalBytes()
+		{
+			return bytes.values().stream().mapToLong(Long::longValue).sum();
+		}
+
+		/**
+		 * Task data bytes per task, not counting panels or the save, which depend on the UI and progress
+		 */
+		public long getBytesPerTask()
+		{
+			if (taskCount == 0)
+			{
+				return 0;
+			}
+			return TASK_DATA_COMPONENTS.stream().mapToLong(this::getBytes).sum() / taskCount;
+		}
+	}
+}
@@ -0,0 +1,142 @@
+package net.reldo.taskstracker.metrics;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBuffer;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+
+/**
+ * Estimates the retained heap of objects, assuming a 64 bit JVM with compressed references and compact strings.
+ * <p>
+ * Strings, arrays and images are counted the first time a sizer reaches them, so values shared within a
+ * task type, such as pooled strings, are only counted once. Use one sizer per component group being measured.
+ */
+public class HeapSizer
+{
+	public static final int OBJECT_HEADER_BYTES = 12;
+	public static final int REFERENCE_BYTES = 4;
+	private static final int ARRAY_HEADER_BYTES = 16;
+	private static final int ALIGNMENT = 8;
+	// String object: header, value reference, hash, coder and hashIsZero
+	private static final int STRING_BYTES = 24;
+	// HashMap and ConcurrentHashMap objects, and each of their nodes
+	private static final int MAP_BYTES = 48;
+	private static final int MAP_NODE_BYTES = 32;
+	// Boxed values the JVM always caches
+	private static final int INTEGER_CACHE_LOW = -128;
+	private static final int INTEGER_CACHE_HIGH = 127;
+
+	private final Set<Object> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+
+	public static long align(long bytes)
+	{
+		return (bytes + ALIGNMENT - 1) / ALIGNMENT * ALIGNMENT;
+	}
+
+	/**
+	 * An object with the given bytes of fields. Objects are not tracked, so only size each one once.
+	 */
+	public static long object(long fieldBytes)
+	{
+		return align(OBJECT_HEADER_BYTES + fieldBytes);
+	}
+
+	/**
+	 * A map of the given size, not including its keys and values
+	 */
+	public static long map(int size)
+	{
+		int capacity = Integer.highestOneBit(Math.max(1, (int) Math.ceil(size / 0.75))) << 1;
+		return MAP_BYTES + referenceArray(capacity) + (long) size * MAP_NODE_BYTES;
+	}
+
+	/**
+	 * An array of references, not including what it references
+	 */
+	public static long referenceArray(int length)
+	{
+		return align(ARRAY_HEADER_BYTES + (long) REFERENCE_BYTES * length);
+	}
+
+	public long boxed(Integer value)
+	{
+		if (value == null || (value >= INTEGER_CACHE_LOW && value <= INTEGER_CACHE_HIGH) || !seen.add(value))
+		{
+			return 0;
+		}
+		return object(Integer.BYTES);
+	}
+
+	public long string(String value)
+	{
+		if (value == null || !seen.add(value))
+		{
+			return 0;
+		}
+		return STRING_BYTES + align(ARRAY_HEADER_BYTES + (long) value.length() * (isLatin1(value) ? 1 : 2));
+	}
+
+	/**
+	 * An array of strings, including the strings
+	 */
+	public long strings(String[] values)
+	{
+		if (values == null || !seen.add(values))
+		{
+			return 0;
+		}
+		long bytes = referenceArray(values.length);
+		for (String value : values)
+		{
+			bytes += string(value);
+		}
+		return bytes;
+	}
+
+	public long array(int[] values)
+	{
+		return values == null || !seen.add(values) ? 0 : align(ARRAY_HEADER_BYTES + (long) Integer.BYTES * values.length);
+	}
+
+	public long array(float[] values)
+	{
+		return values == null || !seen.add(values) ? 0 : align(ARRAY_HEADER_BYTES + (long) Float.BYTES * values.length);
+	}
+
+	public long array(double[] values)
+	{
+		return values == null || !seen.add(values) ? 0 : align(ARRAY_HEADER_BYTES + (long) Double.BYTES * values.length);
+	}
+
+	public long array(byte[] values)
+	{
+		return values == null || !seen.add(values) ? 0 : align(ARRAY_HEADER_BYTES + values.length);
+	}
+
+	/**
+	 * The pixel data of an image, which is nearly all of its size
+	 */
+	public long image(BufferedImage image)
+	{
+		if (image == null || !seen.add(image))
+		{
+			return 0;
+		}
+		DataBuffer dataBuffer = image.getRaster().getDataBuffer();
+		long bytesPerElement = DataBuffer.getDataTypeSize(dataBuffer.getDataType()) / Byte.SIZE;
+		return align(ARRAY_HEADER_BYTES + bytesPerElement * dataBuffer.getSize() * dataBuffer.getNumBanks());
+	}
+
+	private static boolean isLatin1(String value)
+	{
+		for (int i = 0; i < value.length(); i++)
+		{
+			if (value.charAt(i) > 0xFF)
+			{
+				return false;
+			}
+		}
+		return true;
+	}
+}
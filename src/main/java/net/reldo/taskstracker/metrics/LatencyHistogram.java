@@ -0,0 +1,112 @@
+package net.reldo.taskstracker.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A thread safe histogram of durations in nanoseconds, with fixed log-linear buckets.
+ * <p>
+ * Each power of two is split into {@link #SUB_BUCKETS} buckets, so percentiles are within 12.5% of the
+ * true value. Recording a sample doesn't allocate.
+ */
+public class LatencyHistogram
+{
+	private static final int SUB_BUCKET_BITS = 3;
+	private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+	// Values below this have a bucket each
+	private static final int LINEAR_LIMIT = 2 * SUB_BUCKETS;
+	private static final int BUCKET_COUNT = LINEAR_LIMIT + (63 - SUB_BUCKET_BITS - 1) * SUB_BUCKETS;
+
+	private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+	private final AtomicLong count = new AtomicLong();
+	private final AtomicLong totalNanos = new AtomicLong();
+	private final AtomicLong maxNanos = new AtomicLong();
+
+	public void record(long nanos)
+	{
+		long value = Math.max(0, nanos);
+		buckets.incrementAndGet(getBucket(value));
+		count.incrementAndGet();
+		totalNanos.addAndGet(value);
+		long max = maxNanos.get();
+		while (value > max && !maxNanos.compareAndSet(max, value))
+		{
+			max = maxNanos.get();
+		}
+	}
+
+	public long getCount()
+	{
+		return count.get();
+	}
+
+	public long getTotalNanos()
+	{
+		return totalNanos.get();
+	}
+
+	public long getMaxNanos()
+	{
+		return maxNanos.get();
+	}
+
+	/**
+	 * The upper bound of the bucket holding the given percentile, capped at the maximum
+	 *
+	 * @param percentile between 0 and 1
+	 * @return the duration in nanoseconds, or 0 if nothing was recorded
+	 */
+	public long getPercentileNanos(double percentile)
+	{
+		long total = count.get();
+		if (total == 0)
+		{
+			return 0;
+		}
+		long target = Math.max(1, (long) Math.ceil(percentile * total));
+		long seen = 0;
+		for (int bucket = 0; bucket < BUCKET_COUNT; bucket++)
+		{
+			seen += buckets.get(bucket);
+			if (seen >= target)
+			{
+				return Math.min(getBucketUpperBound(bucket), maxNanos.get());
+			}
+		}
+		return maxNanos.get();
+	}
+
+	public void reset()
+	{
+		for (int bucket = 0; bucket < BUCKET_COUNT; bucket++)
+		{
+			buckets.set(bucket, 0);
+		}
+		count.set(0);
+		totalNanos.set(0);
+		maxNanos.set(0);
+	}
+
+	static int getBucket(long value)
+	{
+		if (value < LINEAR_LIMIT)
+		{
+			return (int) value;
+		}
+		int exponent = 63 - Long.numberOfLeadingZeros(value);
+		int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+		return LINEAR_LIMIT + (exponent - SUB_BUCKET_BITS - 1) * SUB_BUCKETS + subBucket;
+	}
+
+	static long getBucketUpperBound(int bucket)
+	{
+		if (bucket < LINEAR_LIMIT)
+		{
+			return bucket;
+		}
+		int exponent = (bucket - LINEAR_LIMIT) / SUB_BUCKETS + SUB_BUCKET_BITS + 1;
+		int subBucket = (bucket - LINEAR_LIMIT) % SUB_BUCKETS;
+		long lowerBound = (long) (SUB_BUCKETS + subBucket) << (exponent - SUB_BUCKET_BITS);
+		return lowerBound + (1L << (exponent - SUB_BUCKET_BITS)) - 1;
+	}
+}
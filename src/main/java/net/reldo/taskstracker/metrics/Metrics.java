@@ -0,0 +1,116 @@
+package net.reldo.taskstracker.metrics;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+import javax.inject.Singleton;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Stage timers and event counters for diagnosing slow task type switches, reported by the {@code ::tt-stats} command.
+ * <p>
+ * Timers use the monotonic clock and every histogram is allocated up front, so timing a stage is two
+ * {@link System#nanoTime()} calls and a few atomic increments:
+ * <pre>
+ * long start = metrics.startTimer();
+ * ...
+ * metrics.stopTimer(Stage.SORT_BUILD, start);
+ * </pre>
+ */
+@Singleton
+public class Metrics
+{
+	private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+	private final Map<Stage, LatencyHistogram> timers = new EnumMap<>(Stage.class);
+	private final AtomicLongArray counters = new AtomicLongArray(Counter.values().length);
+	/**
+	 * The most recent heap measurement, or null if the heap hasn't been measured
+	 */
+	@Getter
+	@Setter
+	private volatile HeapFootprint heapFootprint;
+
+	public Metrics()
+	{
+		for (Stage stage : Stage.values())
+		{
+			timers.put(stage, new LatencyHistogram());
+		}
+	}
+
+	public long startTimer()
+	{
+		return System.nanoTime();
+	}
+
+	/**
+	 * Record the time since a {@link #startTimer()}
+	 */
+	public void stopTimer(Stage stage, long startNanos)
+	{
+		timers.get(stage).record(System.nanoTime() - startNanos);
+	}
+
+	public void increment(Counter counter)
+	{
+		counters.incrementAndGet(counter.ordinal());
+	}
+
+	public LatencyHistogram getTimer(Stage stage)
+	{
+		return timers.get(stage);
+	}
+
+	public long getCount(Counter counter)
+	{
+		return counters.get(counter.ordinal());
+	}
+
+	public void reset()
+	{
+		timers.values().forEach(LatencyHistogram::reset);
+		for (int i = 0; i < counters.length(); i++)
+		{
+			counters.set(i, 0);
+		}
+	}
+
+	/**
+	 * One line per timed stage with samples and per counter, and the heap total if it has been measured,
+	 * for chat or a stats file
+	 */
+	public List<String> getReport()
+	{
+		List<String> lines = new ArrayList<>();
+		timers.forEach((stage, timer) -> {
+			if (timer.getCount() == 0)
+			{
+				return;
+			}
+			lines.add(String.format("%s: n=%d p50=%.1fms p95=%.1fms max=%.1fms",
+				stage.getLabel(),
+				timer.getCount(),
+				timer.getPercentileNanos(0.5) / NANOS_PER_MILLI,
+				timer.getPercentileNanos(0.95) / NANOS_PER_MILLI,
+				timer.getMaxNanos() / NANOS_PER_MILLI));
+		});
+		for (Counter counter : Counter.values())
+		{
+			long count = getCount(counter);
+			if (count > 0)
+			{
+				lines.add(String.format("%s: %d", counter.getLabel(), count));
+			}
+		}
+		HeapFootprint footprint = heapFootprint;
+		if (footprint != null)
+		{
+			lines.add(footprint.getReport().get(0) + " (at last ::tt-mem)");
+		}
+		return lines;
+	}
+}
@@ -0,0 +1,30 @@
+package net.reldo.taskstracker.metrics;
+
+import lombok.Getter;
+
+/**
+ * Timed stages of loading and displaying a task type
+ */
+public enum Stage
+{
+	MANIFEST_FETCH("manifest fetch"),
+	TASK_JSON_LOAD("task json fetch and parse"),
+	SNAPSHOT_READ("snapshot read"),
+	STRUCT_LOAD("struct load batch"),
+	SORT_BUILD("sort index build"),
+	TASK_TYPE_SWITCH("task type switch"),
+	SAVE_APPLY("save apply"),
+	SAVE_CAPTURE("save capture"),
+	SAVE_WRITE("save write"),
+	VARP_FLUSH("varp flush"),
+	REFRESH("refresh pass"),
+	PANEL_BUILD("panel build");
+
+	@Getter
+	private final String label;
+
+	Stage(String label)
+	{
+		this.label = label;
+	}
+}
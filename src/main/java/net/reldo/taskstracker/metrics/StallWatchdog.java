@@ -0,0 +1,307 @@
+package net.reldo.taskstracker.metrics;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import javax.swing.SwingUtilities;
+import lombok.extern.slf4j.Slf4j;
+import net.runelite.client.callback.ClientThread;
+
+/**
+ * Times work the plugin submits to the EDT and the client thread, to find UI and game frame hitches.
+ * <p>
+ * Submit work through this class with an origin naming the call site. Every run is recorded against its
+ * origin, and a run over the stall threshold of its thread is logged. While started, a sampler thread
+ * captures the stack of a run as soon as it passes the threshold, so the log shows where the time went.
+ * The sampler is only scheduled while watched runs are in progress, and stops once none have run for a second.
+ * Invocations nested in a watched run are timed as part of it.
+ */
+@Singleton
+@Slf4j
+public class StallWatchdog
+{
+	private static final long EDT_STALL_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+	private static final long CLIENT_THREAD_STALL_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+	private static final long SAMPLE_PERIOD_MILLIS = 5;
+	private static final long SAMPLER_IDLE_MILLIS = 1000;
+	private static final int REPORT_CALL_SITES = 10;
+	private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+	@Inject
+	private ClientThread clientThread;
+
+	private final Map<String, CallSite> callSites = new ConcurrentHashMap<>();
+	private final List<ThreadWatch> threadWatches = new CopyOnWriteArrayList<>();
+	private final ThreadLocal<ThreadWatch> threadWatch = ThreadLocal.withInitial(this::createThreadWatch);
+	// Watched runs in progress on any thread
+	private final AtomicInteger activeRuns = new AtomicInteger();
+	private ScheduledExecutorService sampler;
+	// Guarded by this; sampling is also read without the lock to skip it when the sampler is already scheduled
+	private volatile boolean sampling;
+	private ScheduledFuture<?> samplingTask;
+	// Consecutive samples with no watched run, only used by the sampler thread
+	private long idleSamples;
+
+	public synchronized void start()
+	{
+		if (sampler != null)
+		{
+			return;
+		}
+		sampler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "tasks-tracker-stall-sampler");
+			thread.setDaemon(true);
+			return thread;
+		});
+		if (activeRuns.get() > 0)
+		{
+			startSampling();
+		}
+	}
+
+	public synchronized void shutDown()
+	{
+		if (sampler != null)
+		{
+			sampler.shutdownNow();
+			sampler = null;
+			samplingTask = null;
+			sampling = false;
+		}
+	}
+
+	/**
+	 * Run on the EDT, like {@link SwingUtilities#invokeLater}
+	 */
+	public void invokeLater(String origin, Runnable runnable)
+	{
+		SwingUtilities.invokeLater(() -> run(origin, EDT_STALL_NANOS, runnable));
+	}
+
+	/**
+	 * Run on the client thread, like {@link ClientThread#invoke(Runnable)}
+	 */
+	public void invoke(String origin, Runnable runnable)
+	{
+		clientThread.invoke(() -> run(origin, CLIENT_THREAD_STALL_NANOS, runnable));
+	}
+
+	/**
+	 * Run on the client thread on a later frame, like {@link ClientThread#invokeLater(Runnable)}
+	 */
+	public void invokeLaterOnClientThread(String origin, Runnable runnable)
+	{
+		clientThread.invokeLater(() -> run(origin, CLIENT_THREAD_STALL_NANOS, runnable));
+	}
+
+	/**
+	 * Run on the client thread each frame until the supplier returns true, like {@link ClientThread#invokeLater(BooleanSupplier)}
+	 */
+	public void invokeLaterOnClientThread(String origin, BooleanSupplier supplier)
+	{
+		clientThread.invokeLater(() -> {
+			boolean[] isDone = new boolean[1];
+			run(origin, CLIENT_THREAD_STALL_NANOS, () -> isDone[0] = supplier.getAsBoolean());
+			return isDone[0];
+		});
+	}
+
+	public void reset()
+	{
+		callSites.clear();
+	}
+
+	/**
+	 * One line per call site, slowest first, for chat or a stats file
+	 */
+	public List<String> getReport()
+	{
+		List<CallSite> slowest = new ArrayList<>(callSites.values());
+		slowest.sort(Comparator.comparingLong((CallSite callSite) -> callSite.times.getMaxNanos()).reversed());
+		List<String> lines = new ArrayList<>();
+		for (CallSite callSite : slowest.subList(0, Math.min(REPORT_CALL_SITES, slowest.size())))
+		{
+			LatencyHistogram times = callSite.times;
+			lines.add(String.format("%s: n=%d stalls=%d p95=%.1fms max=%.1fms",
+				callSite.origin,
+				times.getCount(),
+				callSite.stalls.get(),
+				times.getPercentileNanos(0.95) / NANOS_PER_MILLI,
+				times.getMaxNanos() / NANOS_PER_MILLI));
+		}
+		return lines;
+	}
+
+	private void run(String origin, long stallNanos, Runnable runnable)
+	{
+		ThreadWatch watch = threadWatch.get();
+		if (watch.startNanos != 0)
+		{
+			// Nested in a watched run, which already times it
+			runnable.run();
+			return;
+		}
+
+		// Counted before sampling is checked, and the sampler clears sampling before it checks the count,
+		// so either the sampler sees this run and keeps going or this run sees it stopped and restarts it
+		if (activeRuns.incrementAndGet() == 1 && !sampling)
+		{
+			startSampling();
+		}
+		watch.origin = origin;
+		watch.stallNanos = stallNanos;
+		watch.runId++;
+		long start = System.nanoTime();
+		watch.startNanos = start;
+		try
+		{
+			runnable.run();
+		}
+		finally
+		{
+			long elapsed = System.nanoTime() - start;
+			watch.startNanos = 0;
+			activeRuns.decrementAndGet();
+			CallSite callSite = callSites.computeIfAbsent(origin, CallSite::new);
+			callSite.times.record(elapsed);
+			if (elapsed > stallNanos)
+			{
+				callSite.stalls.incrementAndGet();
+				logStall(watch, elapsed);
+			}
+		}
+	}
+
+	private void logStall(ThreadWatch watch, long elapsed)
+	{
+		StackTraceElement[] sample = watch.sampledRunId == watch.runId ? watch.sample : null;
+		watch.sample = null;
+		if (sample == null)
+		{
+			log.warn("{} stalled {} for {}ms", watch.origin, watch.thread.getName(), String.format("%.1f", elapsed / NANOS_PER_MILLI));
+			return;
+		}
+		StallSample stallSample = new StallSample(watch.origin);
+		stallSample.setStackTrace(sample);
+		log.warn("{} stalled {} for {}ms", watch.origin, watch.thread.getName(), String.format("%.1f", elapsed / NANOS_PER_MILLI), stallSample);
+	}
+
+	private synchronized void startSampling()
+	{
+		if (sampler == null || sampling)
+		{
+			return;
+		}
+		sampling = true;
+		idleSamples = 0;
+		samplingTask = sampler.scheduleAtFixedRate(this::sampleStalls, SAMPLE_PERIOD_MILLIS, SAMPLE_PERIOD_MILLIS, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Cancel the sampler, unless a watched run has started since it last found none
+	 */
+	private synchronized void stopSamplingIfIdle()
+	{
+		sampling = false;
+		if (activeRuns.get() > 0 || samplingTask == null)
+		{
+			sampling = samplingTask != null;
+			idleSamples = 0;
+			return;
+		}
+		samplingTask.cancel(false);
+		samplingTask = null;
+	}
+
+	private void sampleStalls()
+	{
+		if (activeRuns.get() == 0)
+		{
+			if (++idleSamples >= SAMPLER_IDLE_MILLIS / SAMPLE_PERIOD_MILLIS)
+			{
+				stopSamplingIfIdle();
+			}
+			return;
+		}
+		idleSamples = 0;
+
+		long now = System.nanoTime();
+		for (ThreadWatch watch : threadWatches)
+		{
+			long start = watch.startNanos;
+			long runId = watch.runId;
+			if (start == 0 || now - start <= watch.stallNanos || watch.sampledRunId == runId)
+			{
+				continue;
+			}
+			StackTraceElement[] sample = watch.thread.getStackTrace();
+			// Only keep the sample if the same run was still going when it was taken
+			if (watch.startNanos == start && watch.runId == runId)
+			{
+				watch.sample = sample;
+				watch.sampledRunId = runId;
+			}
+		}
+	}
+
+	private ThreadWatch createThreadWatch()
+	{
+		ThreadWatch watch = new ThreadWatch(Thread.currentThread());
+		threadWatches.add(watch);
+		return watch;
+	}
+
+	/**
+	 * The watched run in progress on a thread. Written by its thread, read by the sampler.
+	 */
+	private static class ThreadWatch
+	{
+		private final Thread thread;
+		private volatile String origin;
+		private volatile long stallNanos;
+		private volatile long startNanos;
+		private volatile long runId;
+		private volatile long sampledRunId = -1;
+		private volatile StackTraceElement[] sample;
+
+		private ThreadWatch(Thread thread)
+		{
+			this.thread = thread;
+		}
+	}
+
+	private static class CallSite
+	{
+		private final String origin;
+		private final LatencyHistogram times = new LatencyHistogram();
+		private final AtomicLong stalls = new AtomicLong();
+
+		private CallSite(String origin)
+		{
+			this.origin = origin;
+		}
+	}
+
+	/**
+	 * Carries the stack sampled from a stalled thread to the log
+	 */
+	private static class StallSample extends Throwable
+	{
+		private StallSample(String origin)
+		{
+			super("Stack sampled during stall of " + origin, null, false, true);
+		}
+	}
+}
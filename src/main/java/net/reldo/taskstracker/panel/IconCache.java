@@ -0,0 +1,178 @@
+package net.reldo.taskstracker.panel;
+
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.GraphicsEnvironment;
+import java.awt.Image;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import javax.swing.ImageIcon;
+import lombok.extern.slf4j.Slf4j;
+import net.reldo.taskstracker.metrics.HeapSizer;
+import net.runelite.client.game.SpriteManager;
+import net.runelite.client.util.ImageUtil;
+
+/**
+ * Process-wide cache of sprite and resource images, shared by every task type, task panel and filter panel.
+ * <p>
+ * Images are converted once into the screen's compatible format so Swing can paint them without
+ * per-frame conversion. Icons are created once per image, so memory and load time no longer scale
+ * with the number of panels or redraws.
+ */
+@Slf4j
+@Singleton
+public class IconCache
+{
+	@Inject
+	private SpriteManager spriteManager;
+
+	private final Map<Integer, BufferedImage> spritesById = new ConcurrentHashMap<>();
+	private final Map<String, BufferedImage> resourcesByPath = new ConcurrentHashMap<>();
+	// BufferedImage uses identity equality, so images key their icons directly. An icon references its image,
+	// so icons are held weakly too, otherwise no key could ever be collected. Icons are kept while any
+	// component shows them.
+	private final Map<BufferedImage, WeakReference<ImageIcon>> icons = new WeakHashMap<>();
+	private final Map<BufferedImage, WeakReference<ImageIcon>> dimmedIcons = new WeakHashMap<>();
+
+	/**
+	 * Loads a sprite, or returns the cached copy if any task type has already loaded it.
+	 * Must be called on the client thread unless the sprite is already cached.
+	 */
+	public BufferedImage loadSprite(int spriteId)
+	{
+		BufferedImage cached = spritesById.get(spriteId);
+		if (cached != null)
+		{
+			return cached;
+		}
+
+		BufferedImage spriteImage = spriteManager.getSprite(spriteId, 0);
+		if (spriteImage == null)
+		{
+			log.debug("sprite {} not available", spriteId);
+			return null;
+		}
+		BufferedImage compatibleImage = toCompatibleImage(spriteImage);
+		spritesById.put(spriteId, compatibleImage);
+		return compatibleImage;
+	}
+
+	/**
+	 * Returns a previously loaded sprite, or null. Safe to call from any thread.
+	 */
+	public BufferedImage getSprite(int spriteId)
+	{
+		return spritesById.get(spriteId);
+	}
+
+	public boolean isSpriteLoaded(int spriteId)
+	{
+		return spritesById.containsKey(spriteId);
+	}
+
+	/**
+	 * Returns a shared icon for a previously loaded sprite, or null. Safe to call from any thread.
+	 */
+	public ImageIcon getSpriteIcon(int spriteId)
+	{
+		BufferedImage spriteImage = getSprite(spriteId);
+		return spriteImage != null ? getIcon(spriteImage) : null;
+	}
+
+	/**
+	 * Loads an image resource relative to a class, or returns the cached copy.
+	 */
+	public BufferedImage getResourceImage(Class<?> clazz, String path)
+	{
+		String key = clazz.getName() + ":" + path;
+		return resourcesByPath.computeIfAbsent(key, k -> toCompatibleImage(ImageUtil.loadImageResource(clazz, path)));
+	}
+
+	/**
+	 * Returns the shared icon for an image.
+	 */
+	public ImageIcon getIcon(BufferedImage image)
+	{
+		return getOrCreateIcon(icons, image, false);
+	}
+
+	/**
+	 * Returns the shared translucent icon used for deselected buttons.
+	 */
+	public ImageIcon getDimmedIcon(BufferedImage image)
+	{
+		return getOrCreateIcon(dimmedIcons, image, true);
+	}
+
+	private static ImageIcon getOrCreateIcon(Map<BufferedImage, WeakReference<ImageIcon>> iconMap, BufferedImage image, boolean dimmed)
+	{
+		synchronized (iconMap)
+		{
+			WeakReference<ImageIcon> reference = iconMap.get(image);
+			ImageIcon icon = reference != null ? reference.get() : null;
+			if (icon == null)
+			{
+				icon = new ImageIcon(dimmed ? ImageUtil.alphaOffset(image, -180) : image);
+				iconMap.put(image, new WeakReference<>(icon));
+			}
+			return icon;
+		}
+	}
+
+	/**
+	 * Estimated heap of the cached images and the dimmed copies made for icons
+	 */
+	public long measureHeap(HeapSizer sizer)
+	{
+		long bytes = 0;
+		for (BufferedImage image : spritesById.values())
+		{
+			bytes += sizer.image(image);
+		}
+		for (BufferedImage image : resourcesByPath.values())
+		{
+			bytes += sizer.image(image);
+		}
+		synchronized (dimmedIcons)
+		{
+			for (WeakReference<ImageIcon> reference : dimmedIcons.values())
+			{
+				ImageIcon icon = reference.get();
+				Image image = icon != null ? icon.getImage() : null;
+				if (image instanceof BufferedImage)
+				{
+					bytes += sizer.image((BufferedImage) image);
+				}
+			}
+		}
+		return bytes;
+	}
+
+	private static BufferedImage toCompatibleImage(BufferedImage image)
+	{
+		if (image == null || GraphicsEnvironment.isHeadless())
+		{
+			return image;
+		}
+
+		GraphicsConfiguration graphicsConfiguration = GraphicsEnvironment.getLocalGraphicsEnvironment()
+			.getDefaultScreenDevice()
+			.getDefaultConfiguration();
+		if (image.getColorModel().equals(graphicsConfiguration.getColorModel(Transparency.TRANSLUCENT)))
+		{
+			return image;
+		}
+
+		BufferedImage compatibleImage = graphicsConfiguration.createCompatibleImage(image.getWidth(), image.getHeight(), Transparency.TRANSLUCENT);
+		Graphics2D graphics = compatibleImage.createGraphics();
+		graphics.drawImage(image, 0, 0, null);
+		graphics.dispose();
+		return compatibleImage;
+	}
+}
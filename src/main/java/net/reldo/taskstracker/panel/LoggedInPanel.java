@@ -17,7 +17,6 @@ import javax.swing.JPanel;
 import javax.swing.JPopupMenu;
 import javax.swing.JToggleButton;
 import javax.swing.SwingConstants;
-import javax.swing.SwingUtilities;
 import javax.swing.border.EmptyBorder;
 import javax.swing.border.MatteBorder;
 import javax.swing.event.ChangeListener;
@@ -597,7 +596,7 @@ public class LoggedInPanel extends JPanel
 				taskService.setTaskType(taskType).thenAccept(wasTaskTypeChanged -> {
 					if (wasTaskTypeChanged)
 					{
-						SwingUtilities.invokeLater(() ->
+						plugin.getStallWatchdog().invokeLater("LoggedInPanel.taskTypeDropdown", () ->
 						{
 							redraw();
 							plugin.refreshAllTasks();
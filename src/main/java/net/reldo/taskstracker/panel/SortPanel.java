@@ -5,7 +5,6 @@ import java.util.stream.Collectors;
 import javax.swing.BoxLayout;
 import javax.swing.Icon;
 import javax.swing.JComboBox;
-import javax.swing.SwingUtilities;
 import lombok.extern.slf4j.Slf4j;
 import net.reldo.taskstracker.TasksTrackerPlugin;
 import net.reldo.taskstracker.config.ConfigValues;
@@ -54,7 +53,7 @@ public class SortPanel extends FixedWidthPanel
 		sortDropdown.setSelectedIndex(0);
 		sortDropdown.addActionListener(e -> {
 			updateConfig();
-			SwingUtilities.invokeLater(taskListPanel::redraw);
+			plugin.getStallWatchdog().invokeLater("SortPanel.redraw", taskListPanel::redraw);
 		});
 		sortDropdown.setFocusable(false);
 
@@ -65,7 +64,7 @@ public class SortPanel extends FixedWidthPanel
 		directionButton.setBackground(ColorScheme.DARK_GRAY_COLOR);
 		directionButton.setStateChangedAction(e -> {
 			updateConfig();
-			SwingUtilities.invokeLater(taskListPanel::redraw);
+			plugin.getStallWatchdog().invokeLater("SortPanel.redraw", taskListPanel::redraw);
 		});
 
 		add(sortDropdown);
@@ -1,17 +1,21 @@
 package net.reldo.taskstracker.panel;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ExecutionException;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
 import javax.swing.BoxLayout;
 import javax.swing.border.EmptyBorder;
 import lombok.extern.slf4j.Slf4j;
 import net.reldo.taskstracker.TasksTrackerPlugin;
 import net.reldo.taskstracker.data.jsondatastore.types.FilterConfig;
 import net.reldo.taskstracker.data.jsondatastore.types.FilterValueType;
+import net.reldo.taskstracker.data.jsondatastore.types.TaskMetadataColumn;
 import net.reldo.taskstracker.data.task.TaskService;
+import net.reldo.taskstracker.data.task.TaskTypeState;
 import net.reldo.taskstracker.panel.components.FixedWidthPanel;
 import net.reldo.taskstracker.panel.filters.ComboItem;
 import net.reldo.taskstracker.panel.filters.DynamicButtonFilterPanel;
@@ -73,22 +77,62 @@ public class SubFilterPanel extends FixedWidthPanel
 		return filterPanels;
 	}
 
-	private FilterPanel createDynamicFilterPanel(FilterConfig filterConfig) throws Exception
+	private FilterPanel createDynamicFilterPanel(FilterConfig filterConfig)
 	{
 		switch (filterConfig.getFilterType())
 		{
 			case BUTTON_FILTER:
 				return new DynamicButtonFilterPanel(plugin, filterConfig, taskService.getCurrentTaskType());
 			case DROPDOWN_FILTER:
-				ComboItem[] dropdownItems = getDropdownItems(filterConfig);
-				return new DynamicDropdownFilterPanel(plugin, filterConfig, taskService.getCurrentTaskType(), dropdownItems);
+				return createDropdownFilterPanel(filterConfig);
 			default:
 				log.error("invalid filter type " + filterConfig.getFilterType());
 				return null;
 		}
 	}
 
-	private ComboItem[] getDropdownItems(FilterConfig filterConfig) throws ExecutionException, InterruptedException
+	private FilterPanel createDropdownFilterPanel(FilterConfig filterConfig)
+	{
+		if (FilterValueType.METADATA.equals(filterConfig.getValueType()))
+		{
+			return new DynamicDropdownFilterPanel(plugin, filterConfig, taskService.getCurrentTaskType(), getMetadataDropdownItems(filterConfig));
+		}
+
+		CompletableFuture<HashMap<Integer, String>> enumEntriesFuture = getDropdownEnumEntriesAsync(filterConfig);
+		if (enumEntriesFuture == null)
+		{
+			return new DynamicDropdownFilterPanel(plugin, filterConfig, taskService.getCurrentTaskType(), new ComboItem[0]);
+		}
+
+		// Enum values are usually cached, in which case the panel can be built with its items straight away
+		HashMap<Integer, String> enumEntries = enumEntriesFuture.getNow(null);
+		if (enumEntries != null)
+		{
+			return new DynamicDropdownFilterPanel(plugin, filterConfig, taskService.getCurrentTaskType(), getDropdownItems(filterConfig, enumEntries));
+		}
+
+		// Otherwise render a placeholder and fill it in once the client thread has read the enum
+		DynamicDropdownFilterPanel filterPanel = new DynamicDropdownFilterPanel(plugin, filterConfig, taskService.getCurrentTaskType(), null);
+		enumEntriesFuture.whenComplete((entries, ex) -> {
+			if (ex != null)
+			{
+				log.error("error loading dropdown items {}", filterConfig.getConfigKey(), ex);
+				return;
+			}
+			plugin.getStallWatchdog().invokeLater("SubFilterPanel.setItems", () -> {
+				if (filterPanels.contains(filterPanel))
+				{
+					filterPanel.setItems(getDropdownItems(filterConfig, entries));
+				}
+			});
+		});
+		return filterPanel;
+	}
+
+	/**
+	 * @return future of the enum entries labelling the dropdown options, or null if the filter has no label enum
+	 */
+	private CompletableFuture<HashMap<Integer, String>> getDropdownEnumEntriesAsync(FilterConfig filterConfig)
 	{
 		if (filterConfig.getValueType() == null)
 		{
@@ -99,24 +143,73 @@ public class SubFilterPanel extends FixedWidthPanel
 			String enumName = filterConfig.getOptionLabelEnum();
 			if (!enumName.isEmpty())
 			{
-				HashMap<Integer, String> enumEntries = taskService.getStringEnumValuesAsync(enumName).get(); // TODO: blocking call
-				ArrayList<ComboItem<Integer>> options = new ArrayList<>();
-				options.add(new ComboItem<>(-1, ""));
-				for (Map.Entry<Integer, String> entry : enumEntries.entrySet())
+				return taskService.getStringEnumValuesAsync(enumName);
+			}
+		}
+
+		return null;
+	}
+
+	/**
+	 * Dropdown options for a metadata filter: every distinct value of the property, numbers first
+	 */
+	private ComboItem[] getMetadataDropdownItems(FilterConfig filterConfig)
+	{
+		ArrayList<ComboItem<String>> options = new ArrayList<>();
+		options.add(new ComboItem<>("-1", ""));
+
+		TaskTypeState state = taskService.getState();
+		TaskMetadataColumn column = state.getMetadataColumn(filterConfig.getValueName());
+		if (column == null)
+		{
+			return options.toArray(new ComboItem[0]);
+		}
+
+		TreeSet<Double> numbers = new TreeSet<>();
+		boolean hasBooleans = false;
+		for (int row = 0; row < state.getTasks().size(); row++)
+		{
+			byte type = column.getType(row);
+			if (type == TaskMetadataColumn.TYPE_NUMBER)
+			{
+				numbers.add(column.getNumber(row));
+			}
+			hasBooleans |= type == TaskMetadataColumn.TYPE_BOOLEAN;
+		}
+		for (Double number : numbers)
+		{
+			String value = number == Math.rint(number) ? String.valueOf(number.longValue()) : String.valueOf(number);
+			options.add(new ComboItem<>(value, value));
+		}
+		if (hasBooleans)
+		{
+			options.add(new ComboItem<>("true", "Yes"));
+			options.add(new ComboItem<>("false", "No"));
+		}
+		String[] strings = column.getDictionary().clone();
+		Arrays.sort(strings, String.CASE_INSENSITIVE_ORDER);
+		for (String value : strings)
+		{
+			options.add(new ComboItem<>(value, value));
+		}
+		return options.toArray(new ComboItem[0]);
+	}
+
+	private ComboItem[] getDropdownItems(FilterConfig filterConfig, HashMap<Integer, String> enumEntries)
+	{
+		ArrayList<ComboItem<Integer>> options = new ArrayList<>();
+		options.add(new ComboItem<>(-1, ""));
+		for (Map.Entry<Integer, String> entry : enumEntries.entrySet())
+		{
+			if (filterConfig.getValueName().equals("tier"))
+			{
+				if (entry.getValue().equals("All") || entry.getValue().equals("Tier"))
 				{
-					if (filterConfig.getValueName().equals("tier"))
-					{
-						if (entry.getValue().equals("All") || entry.getValue().equals("Tier"))
-						{
-							continue;
-						}
-					}
-					options.add(new ComboItem<>(entry.getKey(), entry.getValue()));
+					continue;
 				}
-				return options.toArray(new ComboItem[0]);
 			}
+			options.add(new ComboItem<>(entry.getKey(), entry.getValue()));
 		}
-
-		return new ComboItem[0];
+		return options.toArray(new ComboItem[0]);
 	}
 }
@@ -17,9 +17,9 @@ import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 import net.reldo.taskstracker.TasksTrackerPlugin;
 import net.reldo.taskstracker.config.ConfigValues;
-import net.reldo.taskstracker.data.jsondatastore.types.TaskDefinitionSkill;
 import net.reldo.taskstracker.data.task.TaskFromStruct;
 import net.reldo.taskstracker.data.task.TaskService;
+import net.reldo.taskstracker.data.task.TaskTypeState;
 import net.reldo.taskstracker.data.task.filters.FilterMatcher;
 import net.reldo.taskstracker.panel.components.FixedWidthPanel;
 import net.runelite.api.Skill;
@@ -129,8 +129,9 @@ public class TaskListPanel extends JScrollPane
 		}
 		for (TaskFromStruct task : tasks)
 		{
-			refresh(task);
+			refreshPanel(task);
 		}
+		refreshEmptyPanel();
 	}
 
 	public void refreshTask(TaskFromStruct task)
@@ -146,22 +147,23 @@ public class TaskListPanel extends JScrollPane
 			log.error("Task list panel refresh failed - not event dispatch thread.");
 			return;
 		}
+		refreshPanel(task);
+		refreshEmptyPanel();
+	}
+
+	private void refreshPanel(TaskFromStruct task)
+	{
 		if (task == null)
 		{
 			log.debug("Attempted to refresh null task");
 			return;
 		}
 
-		emptyTasks.setVisible(false);
-
 		TaskPanel panel = taskPanelsByStructId.get(task.getStructId());
 		if (panel != null)
 		{
 			panel.refresh();
 		}
-
-		refreshEmptyPanel();
-
 	}
 
 	private void refreshEmptyPanel()
@@ -184,21 +186,7 @@ public class TaskListPanel extends JScrollPane
 		// Refresh all task panels for tasks with 'skill' or
 		// 'SKILLS' (any skill) or 'TOTAL LEVEL' as a requirement.
 		taskPanelsByStructId.values().stream()
-			.filter(tp ->
-			{
-				List<TaskDefinitionSkill> skillsList = tp.task.getTaskDefinition().getSkills();
-				if (skillsList == null || skillsList.isEmpty())
-				{
-					return false;
-				}
-
-				return skillsList.stream()
-					.map(TaskDefinitionSkill::getSkill)
-					.anyMatch(s -> s.equalsIgnoreCase(skill.getName()) ||
-						s.equalsIgnoreCase("SKILLS") ||
-						s.equalsIgnoreCase("TOTAL LEVEL")
-					);
-			})
+			.filter(tp -> tp.task.getTaskDefinition().requiresSkill(skill.getName(), "SKILLS", "TOTAL LEVEL"))
 			.forEach(TaskPanel::refresh);
 	}
 
@@ -230,7 +218,7 @@ public class TaskListPanel extends JScrollPane
 
 		public void prepEmptyTaskListPanel()
 		{
-			SwingUtilities.invokeLater(this::removeAll);
+			plugin.getStallWatchdog().invokeLater("TaskListPanel.prepEmptyTaskListPanel", this::removeAll);
 		}
 
 		public void drawNewTaskType()
@@ -284,6 +272,8 @@ public class TaskListPanel extends JScrollPane
 					return;
 				}
 
+				TaskTypeState state = taskService.getState();
+				String sortCriteria = plugin.getConfig().sortCriteria();
 				for (int indexPosition = 0; indexPosition < taskPanels.size(); indexPosition++)
 				{
 					int adjustedIndexPosition = indexPosition;
@@ -291,11 +281,11 @@ public class TaskListPanel extends JScrollPane
 					{
 						adjustedIndexPosition = taskPanels.size() - (adjustedIndexPosition + 1);
 					}
-					TaskPanel taskPanel = taskPanels.get(taskService.getSortedTaskIndex(plugin.getConfig().sortCriteria(), adjustedIndexPosition));
+					TaskPanel taskPanel = taskPanels.get(state.getSortedTaskIndex(sortCriteria, adjustedIndexPosition));
 					setComponentZOrder(taskPanel, indexPosition);
 				}
 
-				SwingUtilities.invokeLater(TaskListPanel.this::refreshAllTasks);
+				plugin.getStallWatchdog().invokeLater("TaskListPanel.redraw refreshAllTasks", TaskListPanel.this::refreshAllTasks);
 			}
 			else
 			{
@@ -334,11 +324,11 @@ public class TaskListPanel extends JScrollPane
 			int batchIndex = batch + 1;
 			if (batchIndex * batchSize < objectCount)
 			{
-				SwingUtilities.invokeLater(() -> processBatch(batchIndex, objectCount, method));
+				plugin.getStallWatchdog().invokeLater("TaskListPanel.processBatch", () -> processBatch(batchIndex, objectCount, method));
 			}
 			else
 			{
-				SwingUtilities.invokeLater(TaskListPanel.this::refreshAllTasks);
+				plugin.getStallWatchdog().invokeLater("TaskListPanel.processBatch refreshAllTasks", TaskListPanel.this::refreshAllTasks);
 			}
 		}
 	}
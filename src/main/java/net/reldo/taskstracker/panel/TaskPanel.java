@@ -6,7 +6,6 @@ import java.awt.Desktop;
 import java.awt.Dimension;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
-import java.awt.image.BufferedImage;
 import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
@@ -15,7 +14,6 @@ import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
 import java.text.SimpleDateFormat;
 import java.util.Date;
-import java.util.List;
 import javax.swing.BoxLayout;
 import javax.swing.ImageIcon;
 import javax.swing.JDialog;
@@ -31,7 +29,7 @@ import javax.swing.border.EmptyBorder;
 import lombok.extern.slf4j.Slf4j;
 import net.reldo.taskstracker.HtmlUtil;
 import net.reldo.taskstracker.TasksTrackerPlugin;
-import net.reldo.taskstracker.data.jsondatastore.types.TaskDefinitionSkill;
+import net.reldo.taskstracker.data.jsondatastore.types.TaskDefinition;
 import net.reldo.taskstracker.data.task.TaskFromStruct;
 import net.reldo.taskstracker.data.task.filters.FilterMatcher;
 import net.runelite.api.Constants;
@@ -134,15 +132,11 @@ public class TaskPanel extends JPanel
 			return Colors.COMPLETED_BACKGROUND_COLOR;
 		}
 
-		if (task.getTaskDefinition().getSkills() == null || task.getTaskDefinition().getSkills().size() == 0)
-		{
-			return ColorScheme.DARKER_GRAY_COLOR;
-		}
-
-		for (TaskDefinitionSkill requiredSkill : task.getTaskDefinition().getSkills())
+		TaskDefinition taskDefinition = task.getTaskDefinition();
+		for (int skillIndex = 0; skillIndex < taskDefinition.getSkillCount(); skillIndex++)
 		{
 			Skill skill;
-			String requiredSkillName = requiredSkill.getSkill().toUpperCase();
+			String requiredSkillName = taskDefinition.getSkillName(skillIndex).toUpperCase();
 			try
 			{
 				skill = Skill.valueOf(requiredSkillName);
@@ -153,7 +147,7 @@ public class TaskPanel extends JPanel
 				continue;
 			}
 
-			if (plugin.playerSkills[skill.ordinal()] < requiredSkill.getLevel())
+			if (plugin.playerSkills[skill.ordinal()] < taskDefinition.getSkillLevel(skillIndex))
 			{
 				return Colors.UNQUALIFIED_BACKGROUND_COLOR;
 			}
@@ -214,11 +208,11 @@ public class TaskPanel extends JPanel
 		container.add(body, BorderLayout.CENTER);
 		container.add(buttons, BorderLayout.EAST);
 
-		BufferedImage tierSprite = task.getTaskType().getTierSprites().get(task.getTier());
-		if (tierSprite != null)
+		ImageIcon tierSpriteIcon = task.getTaskType().getTierIcon(task.getTier());
+		if (tierSpriteIcon != null)
 		{
 			tierIcon.setMinimumSize(new Dimension(Constants.ITEM_SPRITE_WIDTH, Constants.ITEM_SPRITE_HEIGHT));
-			tierIcon.setIcon(new ImageIcon(tierSprite));
+			tierIcon.setIcon(tierSpriteIcon);
 			tierIcon.setBorder(new EmptyBorder(0, 0, 0, 5));
 		}
 		else
@@ -314,7 +308,9 @@ public class TaskPanel extends JPanel
 		toggleTrack.setSelected(task.isTracked());
 		toggleIgnore.setSelected(task.isIgnored());
 
-		setVisible(meetsFilterCriteria());
+		boolean matchesFilters = meetsFilterCriteria();
+		task.setMatchesFilters(matchesFilters);
+		setVisible(matchesFilters);
 
 		revalidate();
 	}
@@ -353,28 +349,29 @@ public class TaskPanel extends JPanel
 
 	private String getSkillSectionHtml()
 	{
-		List<TaskDefinitionSkill> requiredSkills = task.getTaskDefinition().getSkills();
-		if (requiredSkills == null)
+		TaskDefinition taskDefinition = task.getTaskDefinition();
+		if (taskDefinition.getSkillCount() == 0)
 		{
 			return null;
 		}
 		StringBuilder skillSection = new StringBuilder();
 		skillSection.append(HtmlUtil.HTML_LINE_BREAK);
-		for (TaskDefinitionSkill requiredSkill : requiredSkills)
+		for (int skillIndex = 0; skillIndex < taskDefinition.getSkillCount(); skillIndex++)
 		{
+			String requiredSkillName = taskDefinition.getSkillName(skillIndex);
 			Skill skill;
 			try
 			{
-				skill = Skill.valueOf(requiredSkill.getSkill().toUpperCase());
+				skill = Skill.valueOf(requiredSkillName.toUpperCase());
 			}
 			catch (IllegalArgumentException ex)
 			{
-				log.warn("unknown skill: {}", requiredSkill.getSkill().toUpperCase(), ex);
+				log.warn("unknown skill: {}", requiredSkillName.toUpperCase(), ex);
 				continue;
 			}
 
 
-			Integer requiredLevel = requiredSkill.getLevel();
+			Integer requiredLevel = taskDefinition.getSkillLevel(skillIndex);
 			int playerLevel = -1;
 			if (requiredLevel == null)
 			{
@@ -384,7 +381,7 @@ public class TaskPanel extends JPanel
 			{
 				playerLevel = plugin.playerSkills[skill.ordinal()];
 			}
-			String skillMessage = getSkillRequirementHtml(requiredSkill.getSkill().toLowerCase(), playerLevel, requiredLevel);
+			String skillMessage = getSkillRequirementHtml(requiredSkillName.toLowerCase(), playerLevel, requiredLevel);
 			skillSection.append(skillMessage).append(" ");
 		}
 
@@ -0,0 +1,108 @@
+package net.reldo.taskstracker.panel;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
+import lombok.extern.slf4j.Slf4j;
+import net.reldo.taskstracker.data.task.TaskFromStruct;
+import net.reldo.taskstracker.data.task.TaskService;
+import net.reldo.taskstracker.metrics.Metrics;
+import net.reldo.taskstracker.metrics.Stage;
+import net.reldo.taskstracker.metrics.StallWatchdog;
+
+/**
+ * Coalesces task list refresh requests into at most one refresh pass per EDT cycle.
+ * <p>
+ * Requests may come from any thread. Partial requests mark task ordinals as dirty; a pending full
+ * refresh supersedes any partial ones, so repeated requests within one cycle collapse into a single pass.
+ */
+@Slf4j
+public class TaskRefreshScheduler
+{
+	private final TasksTrackerPluginPanel pluginPanel;
+	private final TaskService taskService;
+	private final Metrics metrics;
+	private final StallWatchdog stallWatchdog;
+
+	private final BitSet dirtyTaskOrdinals = new BitSet();
+	private boolean fullRefreshPending = false;
+	private boolean flushScheduled = false;
+
+	public TaskRefreshScheduler(TasksTrackerPluginPanel pluginPanel, TaskService taskService, Metrics metrics, StallWatchdog stallWatchdog)
+	{
+		this.pluginPanel = pluginPanel;
+		this.taskService = taskService;
+		this.metrics = metrics;
+		this.stallWatchdog = stallWatchdog;
+	}
+
+	public synchronized void requestFullRefresh()
+	{
+		fullRefreshPending = true;
+		dirtyTaskOrdinals.clear();
+		scheduleFlush();
+	}
+
+	public synchronized void requestRefresh(Collection<TaskFromStruct> tasks)
+	{
+		if (fullRefreshPending)
+		{
+			// Already covered by the pending full refresh
+			return;
+		}
+		for (TaskFromStruct task : tasks)
+		{
+			dirtyTaskOrdinals.set(task.getOrdinal());
+		}
+		scheduleFlush();
+	}
+
+	private void scheduleFlush()
+	{
+		if (flushScheduled)
+		{
+			return;
+		}
+		flushScheduled = true;
+		stallWatchdog.invokeLater("TaskRefreshScheduler.flush", this::flush);
+	}
+
+	private void flush()
+	{
+		boolean fullRefresh;
+		BitSet dirtyOrdinals;
+		synchronized (this)
+		{
+			fullRefresh = fullRefreshPending;
+			dirtyOrdinals = (BitSet) dirtyTaskOrdinals.clone();
+			fullRefreshPending = false;
+			dirtyTaskOrdinals.clear();
+			flushScheduled = false;
+		}
+
+		long start = metrics.startTimer();
+		if (fullRefresh)
+		{
+			log.debug("TaskRefreshScheduler.flush full");
+			pluginPanel.refreshAllTasks();
+			metrics.stopTimer(Stage.REFRESH, start);
+			return;
+		}
+
+		if (dirtyOrdinals.isEmpty())
+		{
+			return;
+		}
+
+		List<TaskFromStruct> tasks = taskService.getTasks();
+		List<TaskFromStruct> dirtyTasks = new ArrayList<>(dirtyOrdinals.cardinality());
+		for (int ordinal = dirtyOrdinals.nextSetBit(0); ordinal >= 0 && ordinal < tasks.size(); ordinal = dirtyOrdinals.nextSetBit(ordinal + 1))
+		{
+			dirtyTasks.add(tasks.get(ordinal));
+		}
+		log.debug("TaskRefreshScheduler.flush {} tasks", dirtyTasks.size());
+		pluginPanel.taskListPanel.refreshMultipleTasks(dirtyTasks);
+		metrics.stopTimer(Stage.REFRESH, start);
+	}
+}
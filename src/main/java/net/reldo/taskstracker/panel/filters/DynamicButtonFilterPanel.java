@@ -16,7 +16,6 @@ import net.reldo.taskstracker.data.task.TaskType;
 import net.runelite.client.hiscore.HiscoreSkill;
 import static net.runelite.client.hiscore.HiscoreSkill.*;
 import net.runelite.client.ui.ColorScheme;
-import net.runelite.client.util.ImageUtil;
 
 public class DynamicButtonFilterPanel extends FilterButtonPanel
 {
@@ -95,11 +94,11 @@ public class DynamicButtonFilterPanel extends FilterButtonPanel
 					String directory = "/skill_icons_small/";
 					String skillIcon = directory + skillName + ".png";
 
-					skillImage = ImageUtil.loadImageResource(getClass(), skillIcon);
+					skillImage = plugin.getIconCache().getResourceImage(getClass(), skillIcon);
 				}
 				else
 				{
-					skillImage = ImageUtil.loadImageResource(TasksTrackerPlugin.class, "panel/components/no_skill.png");
+					skillImage = plugin.getIconCache().getResourceImage(TasksTrackerPlugin.class, "panel/components/no_skill.png");
 				}
 
 				String key = customItem.getValue().toString();
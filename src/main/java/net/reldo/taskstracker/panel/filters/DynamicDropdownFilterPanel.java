@@ -20,9 +20,14 @@ public class DynamicDropdownFilterPanel extends FilterPanel
 	private final FilterConfig filterConfig;
 	private final ConfigManager configManager;
 	private final TasksTrackerPlugin plugin;
-	private final ComboItem[] items;
+	private static final ComboItem[] LOADING_ITEMS = {new ComboItem<>(-1, "Loading...")};
+	// null while the items are still loading
+	private ComboItem[] items;
 	private JComboBox<ComboItem> dropdown;
 
+	/**
+	 * @param items dropdown options, or null to show a placeholder until {@link #setItems} is called
+	 */
 	public DynamicDropdownFilterPanel(TasksTrackerPlugin plugin, FilterConfig filterConfig, TaskType taskType, ComboItem[] items)
 	{
 		this.configManager = plugin.getConfigManager();
@@ -38,10 +43,14 @@ public class DynamicDropdownFilterPanel extends FilterPanel
 
 	private JComboBox<ComboItem> makeDropdownPanel()
 	{
-		JComboBox<ComboItem> dropdown = new JComboBox<>(items);
+		boolean isLoading = items == null;
+		ComboItem[] dropdownItems = isLoading ? LOADING_ITEMS : items;
+
+		JComboBox<ComboItem> dropdown = new JComboBox<>(dropdownItems);
 		dropdown.setFont(FontManager.getRunescapeSmallFont());
 		dropdown.setAlignmentX(LEFT_ALIGNMENT);
-		dropdown.setSelectedItem(items[0]);
+		dropdown.setSelectedItem(dropdownItems[0]);
+		dropdown.setEnabled(!isLoading);
 		dropdown.setFocusable(false);
 		dropdown.setBackground(ColorScheme.DARK_GRAY_COLOR.brighter());
 		dropdown.addActionListener(e -> {
@@ -68,6 +77,12 @@ public class DynamicDropdownFilterPanel extends FilterPanel
 		configManager.setConfiguration(TasksTrackerPlugin.CONFIG_GROUP_NAME, configKey, dropdown.getItemAt(dropdown.getSelectedIndex()).getValue());
 	}
 
+	public void setItems(ComboItem[] items)
+	{
+		this.items = items;
+		redraw();
+	}
+
 	public void redraw()
 	{
 		if (SwingUtilities.isEventDispatchThread())
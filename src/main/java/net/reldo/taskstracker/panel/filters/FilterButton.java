@@ -4,13 +4,12 @@ import java.awt.Dimension;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
 import java.awt.image.BufferedImage;
-import javax.swing.ImageIcon;
 import javax.swing.JMenuItem;
 import javax.swing.JPopupMenu;
 import javax.swing.JToggleButton;
 import javax.swing.plaf.basic.BasicBorders;
+import net.reldo.taskstracker.panel.IconCache;
 import net.runelite.client.ui.ColorScheme;
-import net.runelite.client.util.ImageUtil;
 
 public class FilterButton extends JToggleButton
 {
@@ -31,11 +30,9 @@ public class FilterButton extends JToggleButton
 
 		if (image != null)
 		{
-			ImageIcon selectedIcon = new ImageIcon(image);
-			ImageIcon deselectedIcon = new ImageIcon(ImageUtil.alphaOffset(image, -180));
-
-			setIcon(deselectedIcon);
-			setSelectedIcon(selectedIcon);
+			IconCache iconCache = parentPanel.plugin.getIconCache();
+			setIcon(iconCache.getDimmedIcon(image));
+			setSelectedIcon(iconCache.getIcon(image));
 			setPreferredSize(new Dimension(image.getWidth(), image.getHeight() + 10));
 		}
 		else
@@ -0,0 +1,161 @@
+package net.reldo.taskstracker.data;
+
+import com.google.gson.Gson;
+import java.util.HashMap;
+import java.util.Map;
+import net.reldo.taskstracker.data.task.ConfigTaskSave;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import org.junit.Test;
+
+public class CompactSaveCodecTest
+{
+	private static final long DATE = 1_700_000_000_000L;
+
+	private final TrackerConfigStore trackerConfigStore = new TrackerConfigStore(new Gson());
+
+	@Test
+	public void roundTripsEmptySave()
+	{
+		String value = CompactSaveCodec.encode(new HashMap<>());
+
+		assertTrue(CompactSaveCodec.isEncoded(value));
+		assertTrue(CompactSaveCodec.decode(value).isEmpty());
+	}
+
+	@Test
+	public void roundTripsDates()
+	{
+		Map<Integer, ConfigTaskSave> saveData = saves(
+			save(5, DATE, 0, 0, null),
+			// Earlier than the task before it, so written as a negative difference
+			save(9, DATE - 86_400_000L, DATE + 5, 0, null),
+			save(10, 0, 0, DATE - 1, null),
+			save(100_000, 1, DATE, 2, null),
+			save(100_001, 0, 0, 0, "only a note"));
+
+		assertSaves(saveData, CompactSaveCodec.decode(CompactSaveCodec.encode(saveData)));
+	}
+
+	@Test
+	public void writesSharedNotesOnce()
+	{
+		String note = "Bring an antidote, and the quest cape";
+		Map<Integer, ConfigTaskSave> shared = saves(
+			save(1, DATE, 0, 0, note),
+			save(2, 0, DATE, 0, note),
+			save(3, 0, 0, DATE, note));
+		Map<Integer, ConfigTaskSave> distinct = saves(
+			save(1, DATE, 0, 0, note),
+			save(2, 0, DATE, 0, note.replace('B', 'b')),
+			save(3, 0, 0, DATE, note.replace('B', 'R')));
+
+		String value = CompactSaveCodec.encode(shared);
+
+		assertSaves(shared, CompactSaveCodec.decode(value));
+		assertTrue(value.length() < CompactSaveCodec.encode(distinct).length() - note.length());
+	}
+
+	@Test
+	public void roundTripsNonAsciiNotes()
+	{
+		Map<Integer, ConfigTaskSave> saveData = saves(
+			save(1, DATE, 0, 0, "Kalphite Queen — ñ 日本語 🦂"),
+			save(2, 0, 0, 0, ""));
+
+		assertSaves(saveData, CompactSaveCodec.decode(CompactSaveCodec.encode(saveData)));
+	}
+
+	@Test
+	public void readsLegacyJsonSave()
+	{
+		String json = "{\"123\":{\"completed\":" + DATE + ",\"tracked\":0,\"structId\":123,\"ignored\":" + (DATE + 1) + ",\"note\":\"old\"},"
+			+ "\"456\":{\"completed\":0,\"tracked\":" + DATE + ",\"structId\":456,\"ignored\":0}}";
+
+		assertSaves(
+			saves(save(123, DATE, 0, DATE + 1, "old"), save(456, 0, DATE, 0, null)),
+			trackerConfigStore.deserializeSaveData(json));
+	}
+
+	@Test
+	public void writesJsonUntilMigrated()
+	{
+		Map<Integer, ConfigTaskSave> saveData = saves(save(123, DATE, 0, 0, "note"), save(456, 0, DATE, 0, null));
+
+		String value = trackerConfigStore.serializeSaveData(saveData);
+
+		assertEquals(TrackerConfigStore.WRITE_COMPACT_SAVES, CompactSaveCodec.isEncoded(value));
+		assertSaves(saveData, trackerConfigStore.deserializeSaveData(value));
+	}
+
+	@Test
+	public void rejectsTruncatedSaves()
+	{
+		String value = CompactSaveCodec.encode(saves(
+			save(1, DATE, DATE + 1, 0, "first"),
+			save(200, 0, 0, DATE - 1, "second"),
+			save(300, DATE + 2, 0, 0, null)));
+
+		for (int length = 1; length < value.length(); length++)
+		{
+			assertInvalid(value.substring(0, length));
+		}
+	}
+
+	@Test
+	public void rejectsGarbage()
+	{
+		assertInvalid("not base64!");
+		// Valid Base64 of an unknown version
+		assertInvalid("AAAA");
+		// A version 1 save claiming more notes than it holds
+		assertInvalid("AX8");
+		// A complete empty save with a byte after it
+		assertInvalid(CompactSaveCodec.encode(new HashMap<>()) + "AA");
+	}
+
+	private void assertInvalid(String value)
+	{
+		try
+		{
+			trackerConfigStore.deserializeSaveData(value);
+			fail("Expected \"" + value + "\" to be rejected");
+		}
+		catch (IllegalArgumentException ex)
+		{
+			// Expected
+		}
+	}
+
+	private static void assertSaves(Map<Integer, ConfigTaskSave> expected, Map<Integer, ConfigTaskSave> actual)
+	{
+		assertEquals(expected.keySet(), actual.keySet());
+		for (Map.Entry<Integer, ConfigTaskSave> entry : expected.entrySet())
+		{
+			ConfigTaskSave expectedSave = entry.getValue();
+			ConfigTaskSave actualSave = actual.get(entry.getKey());
+			String structId = "struct " + entry.getKey();
+			assertEquals(structId, expectedSave.structId, actualSave.structId);
+			assertEquals(structId, expectedSave.completed, actualSave.completed);
+			assertEquals(structId, expectedSave.tracked, actualSave.tracked);
+			assertEquals(structId, expectedSave.ignored, actualSave.ignored);
+			assertEquals(structId, expectedSave.note, actualSave.note);
+		}
+	}
+
+	private static ConfigTaskSave save(int structId, long completed, long tracked, long ignored, String note)
+	{
+		return new ConfigTaskSave(structId, completed, tracked, ignored, note);
+	}
+
+	private static Map<Integer, ConfigTaskSave> saves(ConfigTaskSave... saves)
+	{
+		Map<Integer, ConfigTaskSave> saveData = new HashMap<>();
+		for (ConfigTaskSave save : saves)
+		{
+			saveData.put(save.structId, save);
+		}
+		return saveData;
+	}
+}
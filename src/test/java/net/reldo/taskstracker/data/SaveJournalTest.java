@@ -0,0 +1,234 @@
+package net.reldo.taskstracker.data;
+
+import com.google.gson.Gson;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import net.reldo.taskstracker.data.jsondatastore.TaskDefinitionParser;
+import net.reldo.taskstracker.data.jsondatastore.types.TaskDefinitionTable;
+import net.reldo.taskstracker.data.jsondatastore.types.TaskTypeDefinition;
+import net.reldo.taskstracker.data.task.ConfigTaskSave;
+import net.reldo.taskstracker.data.task.TaskFromStruct;
+import net.reldo.taskstracker.data.task.TaskType;
+import net.reldo.taskstracker.testing.SyntheticDataStore;
+import net.reldo.taskstracker.testing.SyntheticDataStoreSpec;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import org.junit.Before;
+import org.junit.Test;
+
+public class SaveJournalTest
+{
+	private static final String TASK_JSON_NAME = "JOURNAL";
+
+	private List<TaskFromStruct> tasks;
+
+	@Before
+	public void setUp() throws Exception
+	{
+		tasks = createTasks(10);
+	}
+
+	@Test
+	public void changesOnlyIncludeTasksThatDiffer()
+	{
+		TaskFromStruct saved = tasks.get(0);
+		TaskFromStruct completed = tasks.get(1);
+		TaskFromStruct noted = tasks.get(2);
+		saved.setCompletedOn(100);
+		completed.setCompletedOn(200);
+		noted.setNote("note");
+		SaveJournal saveJournal = new SaveJournal(saves(save(saved.getStructId(), 100, 0, 0, null)), new HashMap<>());
+
+		Map<Integer, ConfigTaskSave> changes = saveJournal.getChanges(tasks);
+
+		assertEquals(2, changes.size());
+		assertEquals(200, changes.get(completed.getStructId()).completed);
+		assertEquals("note", changes.get(noted.getStructId()).note);
+	}
+
+	@Test
+	public void savedTasksHaveNoChanges()
+	{
+		TaskFromStruct task = tasks.get(3);
+		task.setTrackedOn(300);
+		SaveJournal saveJournal = new SaveJournal(new HashMap<>(), new HashMap<>());
+		saveJournal.append(saveJournal.getChanges(tasks));
+
+		assertTrue(saveJournal.getChanges(tasks).isEmpty());
+		assertEquals(1, saveJournal.getJournal().size());
+	}
+
+	@Test
+	public void journalOverridesBaseOnLoad()
+	{
+		int overriddenId = tasks.get(0).getStructId();
+		int baseOnlyId = tasks.get(1).getStructId();
+		int journalOnlyId = tasks.get(2).getStructId();
+		SaveJournal saveJournal = new SaveJournal(
+			saves(save(overriddenId, 100, 0, 0, null), save(baseOnlyId, 0, 150, 0, null)),
+			saves(save(overriddenId, 200, 0, 0, "later"), save(journalOnlyId, 0, 0, 250, null)));
+
+		assertEquals(200, saveJournal.getSaveData().get(overriddenId).completed);
+		assertEquals("later", saveJournal.getSaveData().get(overriddenId).note);
+		assertEquals(150, saveJournal.getSaveData().get(baseOnlyId).tracked);
+		assertEquals(250, saveJournal.getSaveData().get(journalOnlyId).ignored);
+		assertEquals(2, saveJournal.getJournal().size());
+	}
+
+	@Test
+	public void resetTaskIsJournaledThenDroppedByCompaction()
+	{
+		TaskFromStruct task = tasks.get(4);
+		TaskFromStruct kept = tasks.get(5);
+		kept.setCompletedOn(500);
+		SaveJournal saveJournal = new SaveJournal(
+			saves(save(task.getStructId(), 400, 0, 0, "old"), save(kept.getStructId(), 500, 0, 0, null)),
+			new HashMap<>());
+
+		// The task was loaded with the base's save, then reset to its defaults
+		Map<Integer, ConfigTaskSave> changes = saveJournal.getChanges(tasks);
+		ConfigTaskSave reset = changes.get(task.getStructId());
+		assertEquals(1, changes.size());
+		assertEquals(0, reset.completed);
+		assertEquals(0, reset.tracked);
+		assertEquals(0, reset.ignored);
+		assertNull(reset.note);
+
+		saveJournal.append(changes);
+		assertEquals(reset, saveJournal.getJournal().get(task.getStructId()));
+
+		HashMap<Integer, ConfigTaskSave> base = saveJournal.compact();
+		assertFalse(base.containsKey(task.getStructId()));
+		assertTrue(base.containsKey(kept.getStructId()));
+		assertTrue(saveJournal.getJournal().isEmpty());
+		assertTrue(saveJournal.getChanges(tasks).isEmpty());
+	}
+
+	@Test
+	public void compactsAtMinimumSize()
+	{
+		SaveJournal saveJournal = new SaveJournal(new HashMap<>(), new HashMap<>());
+		for (int structId = 0; structId < 63; structId++)
+		{
+			saveJournal.append(saves(save(structId, 1, 0, 0, null)));
+		}
+		assertFalse(saveJournal.needsCompaction());
+
+		saveJournal.append(saves(save(63, 1, 0, 0, null)));
+		assertTrue(saveJournal.needsCompaction());
+	}
+
+	@Test
+	public void compactsAtQuarterOfSavedTasks()
+	{
+		HashMap<Integer, ConfigTaskSave> base = new HashMap<>();
+		for (int structId = 0; structId < 400; structId++)
+		{
+			base.put(structId, save(structId, 1, 0, 0, null));
+		}
+		SaveJournal saveJournal = new SaveJournal(base, new HashMap<>());
+		for (int structId = 0; structId < 99; structId++)
+		{
+			saveJournal.append(saves(save(structId, 2, 0, 0, null)));
+		}
+		assertFalse(saveJournal.needsCompaction());
+
+		saveJournal.append(saves(save(99, 2, 0, 0, null)));
+		assertTrue(saveJournal.needsCompaction());
+
+		saveJournal.compact();
+		assertFalse(saveJournal.needsCompaction());
+	}
+
+	@Test
+	public void journalIsReadOverItsBase()
+	{
+		String baseValue = "{\"1\":{\"completed\":100}}";
+		String journalValue = SaveJournal.toJournalValue(SaveJournal.digestBase(baseValue), "{}");
+
+		assertEquals("{}", SaveJournal.getJournalSaves(journalValue, baseValue));
+		assertNull(SaveJournal.getJournalSaves(null, baseValue));
+	}
+
+	@Test
+	public void journalOverAnotherBaseIsIgnored()
+	{
+		String baseValue = "{\"1\":{\"completed\":100}}";
+		String journalValue = SaveJournal.toJournalValue(SaveJournal.digestBase(baseValue), "{}");
+
+		// Such as a base rewritten by a build that doesn't read journals
+		assertNull(SaveJournal.getJournalSaves(journalValue, "{\"1\":{\"completed\":200}}"));
+		assertNull(SaveJournal.getJournalSaves(journalValue, null));
+		assertNull(SaveJournal.getJournalSaves("{}", baseValue));
+	}
+
+	@Test
+	public void journalWithoutBaseIsReadWithoutBase()
+	{
+		SaveJournal saveJournal = new SaveJournal(new HashMap<>(), new HashMap<>());
+		String journalValue = SaveJournal.toJournalValue(saveJournal.getBaseDigest(), "{}");
+
+		assertEquals("{}", SaveJournal.getJournalSaves(journalValue, null));
+
+		saveJournal.setConfigValues("{}", journalValue);
+		assertEquals(SaveJournal.digestBase("{}"), saveJournal.getBaseDigest());
+		saveJournal.setConfigValues(null, null);
+		assertEquals(SaveJournal.digestBase("{}"), saveJournal.getBaseDigest());
+	}
+
+	@Test
+	public void matchesOnlyTheConfigValuesRecorded()
+	{
+		SaveJournal saveJournal = new SaveJournal(new HashMap<>(), new HashMap<>());
+		assertTrue(saveJournal.matchesConfigValues(null, null));
+
+		saveJournal.setConfigValues("base", "journal");
+		assertTrue(saveJournal.matchesConfigValues(new String("base"), new String("journal")));
+		assertFalse(saveJournal.matchesConfigValues("base", null));
+		// Same length and string hash
+		assertEquals("Aa".hashCode(), "BB".hashCode());
+		saveJournal.setConfigValues("Aa", null);
+		assertFalse(saveJournal.matchesConfigValues("BB", null));
+
+		// A journal only write keeps the base
+		saveJournal.setConfigValues(null, "journal");
+		assertTrue(saveJournal.matchesConfigValues("Aa", "journal"));
+	}
+
+	private static ConfigTaskSave save(int structId, long completed, long tracked, long ignored, String note)
+	{
+		return new ConfigTaskSave(structId, completed, tracked, ignored, note);
+	}
+
+	private static HashMap<Integer, ConfigTaskSave> saves(ConfigTaskSave... saves)
+	{
+		HashMap<Integer, ConfigTaskSave> saveData = new HashMap<>();
+		for (ConfigTaskSave save : saves)
+		{
+			saveData.put(save.structId, save);
+		}
+		return saveData;
+	}
+
+	/**
+	 * Tasks of a generated task type, without struct data
+	 */
+	private static List<TaskFromStruct> createTasks(int count) throws Exception
+	{
+		SyntheticDataStore store = SyntheticDataStore.generate(new SyntheticDataStoreSpec().addTaskType(TASK_JSON_NAME, count));
+		TaskTypeDefinition definition = new Gson().fromJson(store.getResolvedDefinitionJson(TASK_JSON_NAME), TaskTypeDefinition.class);
+		TaskType taskType = new TaskType(null, null, null, definition);
+		TaskDefinitionTable table = TaskDefinitionParser.parse(new StringReader(store.getTaskJson(TASK_JSON_NAME)), taskType.getStringPool());
+		List<TaskFromStruct> tasks = new ArrayList<>(table.getSize());
+		for (int row = 0; row < table.getSize(); row++)
+		{
+			tasks.add(new TaskFromStruct(taskType, table.getRows().get(row), row));
+		}
+		return tasks;
+	}
+}
@@ -0,0 +1,287 @@
+package net.reldo.taskstracker.data;
+
+import com.google.gson.Gson;
+import com.google.inject.Guice;
+import java.util.HashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import net.reldo.taskstracker.data.task.ConfigTaskSave;
+import net.reldo.taskstracker.data.task.TaskFromStruct;
+import net.reldo.taskstracker.metrics.Counter;
+import net.reldo.taskstracker.metrics.Metrics;
+import net.reldo.taskstracker.testing.FakeConfigManager;
+import net.reldo.taskstracker.testing.HeadlessHarness;
+import net.reldo.taskstracker.testing.SyntheticDataStore;
+import net.reldo.taskstracker.testing.SyntheticDataStoreSpec;
+import net.runelite.client.config.ConfigManager;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class SaveWriterTest
+{
+	private static final String TASK_JSON_NAME = "WRITER";
+	private static final String CONFIG_KEY = TrackerConfigStore.CONFIG_TASKS_PREFIX + TrackerConfigStore.CONFIG_GROUP_PREFIX_SEPARATOR + TASK_JSON_NAME;
+	private static final String BLOCKING_CONFIG_KEY = CONFIG_KEY + "-BLOCKING";
+	private static final String BASE_KEY = FakeConfigManager.getProfileValueKey(TrackerConfigStore.CONFIG_GROUP_NAME, CONFIG_KEY);
+	private static final String JOURNAL_KEY = BASE_KEY + TrackerConfigStore.CONFIG_JOURNAL_SUFFIX;
+	private static final long TIMEOUT_SECONDS = 60;
+
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	private final ConfigValues configValues = new ConfigValues();
+	private final TrackerConfigStore saveReader = new TrackerConfigStore(new Gson());
+	private final CountDownLatch releaseWriter = new CountDownLatch(1);
+	private String profileKey;
+	private SaveWriter saveWriter;
+
+	@Before
+	public void setUp()
+	{
+		ConfigManager configManager = FakeConfigManager.create(configValues);
+		profileKey = configManager.getRSProfileKey();
+		saveWriter = Guice.createInjector(binder -> {
+			binder.bind(ConfigManager.class).toInstance(configManager);
+			binder.bind(Gson.class).toInstance(new Gson());
+		}).getInstance(SaveWriter.class);
+	}
+
+	@After
+	public void tearDown()
+	{
+		releaseWriter.countDown();
+		saveWriter.shutDown();
+	}
+
+	@Test
+	public void writesOnCallingThreadWhileStopped()
+	{
+		SaveJournal saveJournal = new SaveJournal(new HashMap<>(), new HashMap<>());
+
+		saveWriter.submit(profileKey, CONFIG_KEY, saveJournal, saves(save(1, 100)), new HashMap<>());
+
+		assertEquals(100, getBase().get(1).completed);
+		assertNull(configValues.get(JOURNAL_KEY));
+		assertTrue(saveJournal.matchesConfigValues(configValues.get(BASE_KEY), null));
+	}
+
+	@Test
+	public void lastSnapshotSubmittedWins()
+	{
+		SaveJournal saveJournal = new SaveJournal(new HashMap<>(), new HashMap<>());
+		saveWriter.start();
+
+		for (int completed = 1; completed <= 200; completed++)
+		{
+			saveWriter.submit(profileKey, CONFIG_KEY, saveJournal, saves(save(1, completed)), new HashMap<>());
+		}
+		saveWriter.flush(profileKey, CONFIG_KEY);
+
+		assertEquals(200, getBase().get(1).completed);
+		assertTrue(saveJournal.matchesConfigValues(configValues.get(BASE_KEY), null));
+	}
+
+	@Test
+	public void journalsAreWrittenOverTheBaseWritten()
+	{
+		SaveJournal saveJournal = new SaveJournal(new HashMap<>(), new HashMap<>());
+		saveWriter.submit(profileKey, CONFIG_KEY, saveJournal, saves(save(1, 100)), new HashMap<>());
+
+		saveWriter.submit(profileKey, CONFIG_KEY, saveJournal, null, saves(save(2, 200)));
+		assertEquals(100, getBase().get(1).completed);
+		assertEquals(200, getJournal().get(2).completed);
+
+		// An empty journal unsets it
+		saveWriter.submit(profileKey, CONFIG_KEY, saveJournal, null, new HashMap<>());
+		assertNull(configValues.get(JOURNAL_KEY));
+		assertTrue(saveJournal.matchesConfigValues(configValues.get(BASE_KEY), null));
+	}
+
+	@Test
+	public void flushWritesAnUnwrittenBaseWithLaterJournals() throws Exception
+	{
+		blockWriter();
+		SaveJournal saveJournal = new SaveJournal(new HashMap<>(), new HashMap<>());
+
+		saveWriter.submit(profileKey, CONFIG_KEY, saveJournal, saves(save(1, 100)), new HashMap<>());
+		saveWriter.submit(profileKey, CONFIG_KEY, saveJournal, null, saves(save(2, 200)));
+		assertNull(configValues.get(BASE_KEY));
+
+		// Only waits on this key's writes, not the blocked one
+		saveWriter.flush(profileKey, CONFIG_KEY);
+
+		assertEquals(100, getBase().get(1).completed);
+		assertEquals(200, getJournal().get(2).completed);
+		assertTrue(saveJournal.matchesConfigValues(configValues.get(BASE_KEY), configValues.get(JOURNAL_KEY)));
+	}
+
+	@Test
+	public void writesOnCallingThreadAfterShutDown() throws Exception
+	{
+		blockWriter();
+		SaveJournal saveJournal = new SaveJournal(new HashMap<>(), new HashMap<>());
+		saveWriter.submit(profileKey, CONFIG_KEY, saveJournal, saves(save(1, 100)), new HashMap<>());
+
+		// The writer thread is still blocked, so what it hasn't taken is written by the shut down
+		saveWriter.shutDown();
+		assertEquals(100, getBase().get(1).completed);
+
+		saveWriter.submit(profileKey, CONFIG_KEY, saveJournal, saves(save(1, 200)), new HashMap<>());
+		assertEquals(200, getBase().get(1).completed);
+	}
+
+	@Test
+	public void loadAppliesCachedSaveUntilConfigChanges() throws Exception
+	{
+		try (HeadlessHarness harness = startHarness())
+		{
+			TrackerConfigStore trackerConfigStore = harness.getTrackerConfigStore();
+			Metrics metrics = harness.getInstance(Metrics.class);
+			TaskFromStruct task = harness.getTaskService().getTasks().get(0);
+			trackerConfigStore.loadCurrentTaskTypeFromConfig();
+			task.setCompletedOn(100);
+			trackerConfigStore.saveCurrentTaskTypeData();
+
+			task.setCompletedOn(150);
+			trackerConfigStore.loadCurrentTaskTypeFromConfig();
+			assertEquals(1, metrics.getCount(Counter.SAVE_CACHE_HIT));
+			assertEquals(0, metrics.getCount(Counter.SAVE_CACHE_MISS));
+			assertEquals(100, task.getCompletedOn());
+
+			// Such as a save arriving through profile sync
+			configValues.put(BASE_KEY, saveReader.serializeSaveData(saves(save(task.getStructId(), 300))));
+			trackerConfigStore.loadCurrentTaskTypeFromConfig();
+			assertEquals(1, metrics.getCount(Counter.SAVE_CACHE_MISS));
+			assertEquals(300, task.getCompletedOn());
+		}
+	}
+
+	@Test
+	public void loadReadsConfigAgainWhenSavedDuringParse() throws Exception
+	{
+		try (HeadlessHarness harness = startHarness())
+		{
+			TrackerConfigStore trackerConfigStore = harness.getTrackerConfigStore();
+			TaskFromStruct task = harness.getTaskService().getTasks().get(0);
+			trackerConfigStore.loadCurrentTaskTypeFromConfig();
+			task.setCompletedOn(100);
+			trackerConfigStore.saveCurrentTaskTypeData();
+			configValues.put(BASE_KEY, saveReader.serializeSaveData(saves(save(task.getStructId(), 300))));
+
+			// A save lands once the load has read the config, before it applies what it parsed
+			configValues.hookOnce(BASE_KEY, () -> {
+				task.setCompletedOn(400);
+				trackerConfigStore.saveCurrentTaskTypeData();
+			});
+			trackerConfigStore.loadCurrentTaskTypeFromConfig();
+
+			assertEquals(400, task.getCompletedOn());
+			assertEquals(400, getBase().get(task.getStructId()).completed);
+		}
+	}
+
+	private HeadlessHarness startHarness() throws Exception
+	{
+		SyntheticDataStore store = SyntheticDataStore.generate(new SyntheticDataStoreSpec().addTaskType(TASK_JSON_NAME, 20));
+		HeadlessHarness harness = new HeadlessHarness(store.getGameData(), store.getFiles(), temporaryFolder.newFolder().toPath(), 0, configValues);
+		harness.start();
+		assertTrue(harness.getTaskService().setTaskType(TASK_JSON_NAME).get(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+		return harness;
+	}
+
+	/**
+	 * Start the writer with its thread blocked writing another key, so snapshots submitted stay pending
+	 */
+	private void blockWriter() throws InterruptedException
+	{
+		CountDownLatch writerBlocked = new CountDownLatch(1);
+		configValues.hookOnce(FakeConfigManager.getProfileValueKey(TrackerConfigStore.CONFIG_GROUP_NAME, BLOCKING_CONFIG_KEY), () -> {
+			writerBlocked.countDown();
+			try
+			{
+				releaseWriter.await();
+			}
+			catch (InterruptedException ex)
+			{
+				Thread.currentThread().interrupt();
+			}
+		});
+		saveWriter.start();
+		saveWriter.submit(profileKey, BLOCKING_CONFIG_KEY, new SaveJournal(new HashMap<>(), new HashMap<>()), saves(save(1, 1)), new HashMap<>());
+		assertTrue(writerBlocked.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+	}
+
+	private HashMap<Integer, ConfigTaskSave> getBase()
+	{
+		return saveReader.deserializeSaveData(configValues.get(BASE_KEY));
+	}
+
+	private HashMap<Integer, ConfigTaskSave> getJournal()
+	{
+		String journalSaves = SaveJournal.getJournalSaves(configValues.get(JOURNAL_KEY), configValues.get(BASE_KEY));
+		assertTrue("Journal not written over the base", journalSaves != null);
+		return saveReader.deserializeSaveData(journalSaves);
+	}
+
+	private static ConfigTaskSave save(int structId, long completed)
+	{
+		return new ConfigTaskSave(structId, completed, 0, 0, null);
+	}
+
+	private static HashMap<Integer, ConfigTaskSave> saves(ConfigTaskSave... saves)
+	{
+		HashMap<Integer, ConfigTaskSave> saveData = new HashMap<>();
+		for (ConfigTaskSave save : saves)
+		{
+			saveData.put(save.structId, save);
+		}
+		return saveData;
+	}
+
+	/**
+	 * Config values that can run a hook once a key is next read or written
+	 */
+	private static class ConfigValues extends ConcurrentHashMap<String, String>
+	{
+		private volatile String hookKey;
+		private volatile Runnable hook;
+
+		void hookOnce(String key, Runnable hook)
+		{
+			this.hookKey = key;
+			this.hook = hook;
+		}
+
+		@Override
+		public String get(Object key)
+		{
+			String value = super.get(key);
+			runHook(key);
+			return value;
+		}
+
+		@Override
+		public String put(String key, String value)
+		{
+			runHook(key);
+			return super.put(key, value);
+		}
+
+		private void runHook(Object key)
+		{
+			Runnable currentHook = hook;
+			if (currentHook != null && key.equals(hookKey))
+			{
+				hook = null;
+				currentHook.run();
+			}
+		}
+	}
+}
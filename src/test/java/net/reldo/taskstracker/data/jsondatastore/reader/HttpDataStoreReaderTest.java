@@ -0,0 +1,116 @@
+package net.reldo.taskstracker.data.jsondatastore.reader;
+
+import com.google.common.io.CharStreams;
+import com.google.inject.Guice;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import net.reldo.taskstracker.data.task.TaskFromStruct;
+import net.reldo.taskstracker.data.task.TaskService;
+import net.reldo.taskstracker.data.task.TaskType;
+import net.reldo.taskstracker.testing.HeadlessHarness;
+import net.reldo.taskstracker.testing.MockDataStore;
+import net.reldo.taskstracker.testing.SyntheticDataStore;
+import net.reldo.taskstracker.testing.SyntheticDataStoreSpec;
+import okhttp3.OkHttpClient;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Reads a generated task json store served from memory, the way the plugin reads the real one
+ */
+public class HttpDataStoreReaderTest
+{
+	private static final long TIMEOUT_SECONDS = 60;
+
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	private final SyntheticDataStoreSpec spec = new SyntheticDataStoreSpec()
+		.addTaskType("FIRST", 40)
+		.addTaskType("SECOND", 100);
+	private final SyntheticDataStore store = SyntheticDataStore.generate(spec);
+	private MockDataStore dataStore;
+	private HttpDataStoreReader reader;
+
+	@Before
+	public void setUp() throws Exception
+	{
+		dataStore = new MockDataStore().putFiles(store.getFiles());
+		dataStore.start();
+		reader = Guice.createInjector(binder -> binder.bind(OkHttpClient.class).toInstance(new OkHttpClient()))
+			.getInstance(HttpDataStoreReader.class);
+	}
+
+	@After
+	public void tearDown() throws Exception
+	{
+		dataStore.close();
+	}
+
+	@Test
+	public void readsEveryStoreFile() throws Exception
+	{
+		assertEquals(store.getFiles().get(SyntheticDataStore.MANIFEST_PATH), read(reader.readManifestData()));
+		assertEquals(store.getFiles().get(SyntheticDataStore.TASK_TYPES_PATH), read(reader.readTaskTypes(SyntheticDataStore.TASK_TYPES_PATH)));
+		assertEquals(store.getFiles().get(SyntheticDataStore.FILTERS_PATH), read(reader.readFilterConfigs(SyntheticDataStore.FILTERS_PATH)));
+		assertEquals(store.getTaskJson("FIRST"), read(reader.readTasks("FIRST")));
+		assertEquals(store.getTaskJson("SECOND"), read(reader.readTasks("SECOND")));
+	}
+
+	@Test
+	public void missingTaskFileThrows()
+	{
+		try
+		{
+			reader.readTasks("MISSING");
+			fail("Expected a missing task file to throw");
+		}
+		catch (Exception ex)
+		{
+			assertTrue(ex.getMessage(), ex.getMessage().contains("404"));
+		}
+	}
+
+	@Test
+	public void loadsGeneratedTaskTypes() throws Exception
+	{
+		try (HeadlessHarness harness = new HeadlessHarness(store.getGameData(), store.getFiles(), temporaryFolder.newFolder().toPath(), 0))
+		{
+			harness.start();
+			TaskService taskService = harness.getTaskService();
+			HashMap<String, TaskType> taskTypes = taskService.getTaskTypesByJsonName().get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+			assertEquals(new HashSet<>(spec.getTaskCounts().keySet()), taskTypes.keySet());
+
+			assertTrue(taskService.setTaskType("SECOND").get(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+			assertEquals(100, taskService.getTasks().size());
+			Set<String> names = new HashSet<>();
+			for (TaskFromStruct task : taskService.getTasks())
+			{
+				names.add(task.getName());
+			}
+			for (int i = 0; i < 100; i++)
+			{
+				assertTrue("Task " + i + " not loaded", names.contains("Task " + i));
+			}
+		}
+	}
+
+	private static String read(InputStream stream) throws Exception
+	{
+		try (InputStreamReader streamReader = new InputStreamReader(stream, StandardCharsets.UTF_8))
+		{
+			return CharStreams.toString(streamReader);
+		}
+	}
+}
@@ -0,0 +1,149 @@
+package net.reldo.taskstracker.data.task;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+public class TierPlannerTest
+{
+	private static final double EPSILON = 1e-9;
+
+	@Test
+	public void knapsackMatchesBruteForce()
+	{
+		Random random = new Random(42);
+		for (int round = 0; round < 500; round++)
+		{
+			List<TierPlanner.Candidate> candidates = new ArrayList<>();
+			int candidateCount = 1 + random.nextInt(12);
+			for (int i = 0; i < candidateCount; i++)
+			{
+				candidates.add(candidate(1 + random.nextInt(10), 1.0 + random.nextInt(300) / 100.0));
+			}
+			int needed = 1 + random.nextInt(40);
+
+			double bestCost = bruteForceCost(candidates, needed);
+			List<TierPlanner.Candidate> planned = TierPlanner.solveKnapsack(candidates, needed);
+			String context = "round " + round + ", needed " + needed;
+			if (bestCost == Double.POSITIVE_INFINITY)
+			{
+				assertNull(context, planned);
+				continue;
+			}
+			assertNotNull(context, planned);
+			assertEquals(context + ", duplicate picks", planned.size(), new HashSet<>(planned).size());
+			assertTrue(context + ", not enough points", getPoints(planned) >= needed);
+			assertEquals(context, bestCost, getCost(planned), EPSILON);
+		}
+	}
+
+	@Test
+	public void knapsackIsNullWhenUnreachable()
+	{
+		assertNull(TierPlanner.solveKnapsack(Arrays.asList(candidate(3, 1), candidate(4, 1)), 8));
+		assertNull(TierPlanner.solveKnapsack(new ArrayList<>(), 1));
+	}
+
+	@Test
+	public void greedyReplacesAnOvershootingLastPick()
+	{
+		TierPlanner.Candidate large = candidate(10, 1.0);
+		TierPlanner.Candidate overshoot = candidate(10, 1.1);
+		TierPlanner.Candidate small = candidate(1, 1.05);
+
+		// By cost per point: large, then overshoot, then small. Only one point is short after large.
+		List<TierPlanner.Candidate> planned = TierPlanner.solveGreedy(Arrays.asList(small, overshoot, large), 11);
+
+		assertNotNull(planned);
+		assertEquals(new HashSet<>(Arrays.asList(large, small)), new HashSet<>(planned));
+	}
+
+	@Test
+	public void greedyDropsPicksTheRestCover()
+	{
+		TierPlanner.Candidate cheap = candidate(2, 0.1);
+		TierPlanner.Candidate covering = candidate(10, 1.0);
+
+		// The cheap pick comes first by cost per point, but the covering pick reaches the need alone
+		List<TierPlanner.Candidate> planned = TierPlanner.solveGreedy(Arrays.asList(covering, cheap), 10);
+
+		assertNotNull(planned);
+		assertEquals(Arrays.asList(covering), planned);
+	}
+
+	@Test
+	public void greedyIsNullWhenUnreachable()
+	{
+		assertNull(TierPlanner.solveGreedy(Arrays.asList(candidate(3, 1), candidate(4, 1)), 8));
+	}
+
+	@Test
+	public void greedyReachesTheNeed()
+	{
+		Random random = new Random(7);
+		for (int round = 0; round < 200; round++)
+		{
+			List<TierPlanner.Candidate> candidates = new ArrayList<>();
+			for (int i = 0; i < 50; i++)
+			{
+				candidates.add(candidate(1 + random.nextInt(20), 1.0 + random.nextDouble()));
+			}
+			int needed = 1 + random.nextInt(getPoints(candidates));
+
+			List<TierPlanner.Candidate> planned = TierPlanner.solveGreedy(candidates, needed);
+
+			assertNotNull(planned);
+			assertTrue("round " + round, getPoints(planned) >= needed);
+			// Nothing the rest cover is left in
+			for (TierPlanner.Candidate candidate : planned)
+			{
+				assertTrue("round " + round, getPoints(planned) - candidate.points < needed);
+			}
+		}
+	}
+
+	private static double bruteForceCost(List<TierPlanner.Candidate> candidates, int needed)
+	{
+		double bestCost = Double.POSITIVE_INFINITY;
+		for (int subset = 0; subset < 1 << candidates.size(); subset++)
+		{
+			int points = 0;
+			double cost = 0;
+			for (int i = 0; i < candidates.size(); i++)
+			{
+				if ((subset & (1 << i)) != 0)
+				{
+					points += candidates.get(i).points;
+					cost += candidates.get(i).cost;
+				}
+			}
+			if (points >= needed)
+			{
+				bestCost = Math.min(bestCost, cost);
+			}
+		}
+		return bestCost;
+	}
+
+	private static int getPoints(List<TierPlanner.Candidate> candidates)
+	{
+		return candidates.stream().mapToInt(candidate -> candidate.points).sum();
+	}
+
+	private static double getCost(List<TierPlanner.Candidate> candidates)
+	{
+		return candidates.stream().mapToDouble(candidate -> candidate.cost).sum();
+	}
+
+	private static TierPlanner.Candidate candidate(int points, double cost)
+	{
+		return new TierPlanner.Candidate(null, points, cost);
+	}
+}
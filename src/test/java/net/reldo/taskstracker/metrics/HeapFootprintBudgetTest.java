@@ -0,0 +1,49 @@
+package net.reldo.taskstracker.metrics;
+
+import java.util.concurrent.TimeUnit;
+import net.reldo.taskstracker.data.task.TaskTypeState;
+import net.reldo.taskstracker.testing.HeadlessHarness;
+import net.reldo.taskstracker.testing.SyntheticDataStore;
+import net.reldo.taskstracker.testing.SyntheticDataStoreSpec;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Fails if the estimated heap per loaded task grows past its budget.
+ * <p>
+ * The synthetic task type is close to 420 bytes per task, mostly its unique names and descriptions.
+ * If a change needs more, raise the budget in the same change and say why.
+ */
+public class HeapFootprintBudgetTest
+{
+	private static final String TASK_JSON_NAME = "HEAP";
+	private static final int TASK_COUNT = 5000;
+	private static final long BYTES_PER_TASK_BUDGET = 512;
+	private static final long TIMEOUT_SECONDS = 60;
+
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	@Test
+	public void loadedTaskTypeIsWithinBudget() throws Exception
+	{
+		SyntheticDataStore store = SyntheticDataStore.generate(new SyntheticDataStoreSpec().addTaskType(TASK_JSON_NAME, TASK_COUNT));
+		try (HeadlessHarness harness = new HeadlessHarness(store.getGameData(), store.getFiles(), temporaryFolder.newFolder().toPath(), 0))
+		{
+			harness.start();
+			assertTrue(harness.getTaskService().setTaskType(TASK_JSON_NAME).get(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+
+			TaskTypeState state = harness.getTaskService().getState();
+			HeapFootprint.Entry entry = harness.getInstance(HeapAccountant.class).measureState(state, "current");
+			assertEquals(TASK_COUNT, entry.getTaskCount());
+			assertTrue(entry.getBytes(HeapComponent.PARAMS) > 0);
+			assertTrue(entry.getBytes(HeapComponent.DEFINITIONS) > 0);
+			assertTrue(entry.getBytes(HeapComponent.SORT_INDEXES) > 0);
+			assertTrue(String.format("%d bytes per task is over the budget of %d: %s", entry.getBytesPerTask(), BYTES_PER_TASK_BUDGET, entry.getBytes()),
+				entry.getBytesPerTask() <= BYTES_PER_TASK_BUDGET);
+		}
+	}
+}
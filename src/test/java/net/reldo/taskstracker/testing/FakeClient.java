@@ -0,0 +1,108 @@
+package net.reldo.taskstracker.testing;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import net.runelite.api.Client;
+import net.runelite.api.EnumComposition;
+import net.runelite.api.GameState;
+import net.runelite.api.StructComposition;
+import org.mockito.Answers;
+import org.mockito.Mockito;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+/**
+ * Creates {@link Client} fakes that serve structs, enums, varps and varbits from {@link FakeGameData}.
+ * <p>
+ * Only the calls the plugin makes are answered; everything else returns Mockito defaults. The fakes are
+ * stub only, so they don't record invocations and can be called millions of times in a benchmark.
+ */
+public class FakeClient
+{
+	private static final int MAX_SKILL_LEVEL = 99;
+	private static final int SKILL_COUNT = 25;
+
+	public static Client create(FakeGameData gameData, FakeClientThread clientThread)
+	{
+		// Structs are immutable in the game cache, so each is faked once
+		Map<Integer, StructComposition> structs = new ConcurrentHashMap<>();
+		return stubOnlyMock(Client.class, invocation -> answerClient(invocation, gameData, clientThread, structs));
+	}
+
+	private static <T> T stubOnlyMock(Class<T> type, Answer<?> answer)
+	{
+		return Mockito.mock(type, Mockito.withSettings().stubOnly().defaultAnswer(answer));
+	}
+
+	private static Object answerClient(InvocationOnMock invocation, FakeGameData gameData, FakeClientThread clientThread,
+		Map<Integer, StructComposition> structs) throws Throwable
+	{
+		switch (invocation.getMethod().getName())
+		{
+			case "getStructComposition":
+				return structs.computeIfAbsent(invocation.getArgument(0), structId -> createStruct(structId, gameData));
+			case "getEnum":
+				return createEnum(gameData.getEnum(invocation.getArgument(0)));
+			case "getVarpValue":
+				return gameData.getVarp(invocation.getArgument(0));
+			case "getVarbitValue":
+				return gameData.getVarbit(invocation.getArgument(0));
+			case "isClientThread":
+				return clientThread.isClientThread();
+			case "getRevision":
+				return gameData.getRevision();
+			case "getGameState":
+				return GameState.LOGGED_IN;
+			case "getRealSkillLevels":
+				int[] levels = new int[SKILL_COUNT];
+				Arrays.fill(levels, MAX_SKILL_LEVEL);
+				return levels;
+			default:
+				return Answers.RETURNS_DEFAULTS.answer(invocation);
+		}
+	}
+
+	private static StructComposition createStruct(int structId, FakeGameData gameData)
+	{
+		return stubOnlyMock(StructComposition.class, invocation -> {
+			switch (invocation.getMethod().getName())
+			{
+				case "getId":
+					return structId;
+				case "getIntValue":
+					return gameData.getStructIntParam(structId, invocation.getArgument(0));
+				case "getStringValue":
+					return gameData.getStructStringParam(structId, invocation.getArgument(0));
+				default:
+					return Answers.RETURNS_DEFAULTS.answer(invocation);
+			}
+		});
+	}
+
+	private static EnumComposition createEnum(Map<Integer, Object> values)
+	{
+		int[] keys = values.keySet().stream().mapToInt(Integer::intValue).sorted().toArray();
+		return stubOnlyMock(EnumComposition.class, invocation -> {
+			switch (invocation.getMethod().getName())
+			{
+				case "getKeys":
+					return keys.clone();
+				case "size":
+					return keys.length;
+				case "getIntValue":
+					Object intValue = values.get((Integer) invocation.getArgument(0));
+					return intValue instanceof Integer ? intValue : -1;
+				case "getStringValue":
+					Object stringValue = values.get((Integer) invocation.getArgument(0));
+					return stringValue instanceof String ? stringValue : "null";
+				case "getIntVals":
+					return Arrays.stream(keys).map(key -> values.get(key) instanceof Integer ? (Integer) values.get(key) : -1).toArray();
+				case "getStringVals":
+					return Arrays.stream(keys).mapToObj(key -> values.get(key) instanceof String ? (String) values.get(key) : "null").toArray(String[]::new);
+				default:
+					return Answers.RETURNS_DEFAULTS.answer(invocation);
+			}
+		});
+	}
+}
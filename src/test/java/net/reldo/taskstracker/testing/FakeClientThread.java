@@ -0,0 +1,134 @@
+package net.reldo.taskstracker.testing;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.BooleanSupplier;
+import lombok.extern.slf4j.Slf4j;
+import net.runelite.client.callback.ClientThread;
+
+/**
+ * A client thread that queues invocations until a {@link TickSimulator} runs a frame, like the game loop does.
+ * <p>
+ * As with the real client thread, {@link #invoke} runs immediately when already on the client thread,
+ * and an invocation that returns false is run again on the next frame.
+ */
+@Slf4j
+public class FakeClientThread extends ClientThread
+{
+	private final Queue<BooleanSupplier> invokes = new ConcurrentLinkedQueue<>();
+	private final Queue<BooleanSupplier> tickEndInvokes = new ConcurrentLinkedQueue<>();
+	private volatile Thread clientThread;
+
+	@Override
+	public void invoke(Runnable runnable)
+	{
+		invoke(() -> {
+			runnable.run();
+			return true;
+		});
+	}
+
+	@Override
+	public void invoke(BooleanSupplier supplier)
+	{
+		if (isClientThread())
+		{
+			if (!runSafely(supplier))
+			{
+				invokes.add(supplier);
+			}
+			return;
+		}
+		invokes.add(supplier);
+	}
+
+	@Override
+	public void invokeLater(Runnable runnable)
+	{
+		invokeLater(() -> {
+			runnable.run();
+			return true;
+		});
+	}
+
+	@Override
+	public void invokeLater(BooleanSupplier supplier)
+	{
+		invokes.add(supplier);
+	}
+
+	@Override
+	public void invokeAtTickEnd(Runnable runnable)
+	{
+		tickEndInvokes.add(() -> {
+			runnable.run();
+			return true;
+		});
+	}
+
+	public boolean isClientThread()
+	{
+		return Thread.currentThread() == clientThread;
+	}
+
+	/**
+	 * Number of invocations waiting for a frame or tick end
+	 */
+	public int getPendingCount()
+	{
+		return invokes.size() + tickEndInvokes.size();
+	}
+
+	void setClientThread(Thread clientThread)
+	{
+		this.clientThread = clientThread;
+	}
+
+	/**
+	 * Run the invocations queued before this frame started. Must be called on the client thread.
+	 */
+	void runFrame()
+	{
+		drain(invokes);
+	}
+
+	/**
+	 * Run the invocations queued for the end of the tick. Must be called on the client thread.
+	 */
+	void runTickEnd()
+	{
+		drain(tickEndInvokes);
+	}
+
+	private static void drain(Queue<BooleanSupplier> queue)
+	{
+		// Only run what is already queued, so invocations that queue more work don't stall the frame
+		int count = queue.size();
+		for (int i = 0; i < count; i++)
+		{
+			BooleanSupplier supplier = queue.poll();
+			if (supplier == null)
+			{
+				return;
+			}
+			if (!runSafely(supplier))
+			{
+				queue.add(supplier);
+			}
+		}
+	}
+
+	private static boolean runSafely(BooleanSupplier supplier)
+	{
+		try
+		{
+			return supplier.getAsBoolean();
+		}
+		catch (Exception ex)
+		{
+			// The real client thread logs and drops invocations that throw
+			log.warn("Exception in client thread invocation", ex);
+			return true;
+		}
+	}
+}
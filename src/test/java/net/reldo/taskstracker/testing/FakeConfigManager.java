@@ -0,0 +1,83 @@
+package net.reldo.taskstracker.testing;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import net.runelite.client.config.ConfigManager;
+import org.mockito.Answers;
+import org.mockito.Mockito;
+
+/**
+ * Creates {@link ConfigManager} fakes backed by an in-memory map, with a single RuneScape profile.
+ * <p>
+ * Values are stored as strings, as the real config manager does. Calls the plugin doesn't make return
+ * Mockito defaults.
+ */
+public class FakeConfigManager
+{
+	private static final String RS_PROFILE_KEY = "rsprofile.headless";
+
+	/**
+	 * @param values the backing map of values by "group.key", or "group.rsprofile.headless.key" for profile values
+	 */
+	public static ConfigManager create(Map<String, String> values)
+	{
+		return Mockito.mock(ConfigManager.class, Mockito.withSettings().stubOnly().defaultAnswer(invocation -> {
+			String group = invocation.getArguments().length > 0 && invocation.getArgument(0) instanceof String ? invocation.getArgument(0) : null;
+			String key = invocation.getArguments().length > 1 && invocation.getArgument(1) instanceof String ? invocation.getArgument(1) : null;
+			switch (invocation.getMethod().getName())
+			{
+				case "getConfiguration":
+					if (invocation.getArguments().length == 2)
+					{
+						return values.get(group + "." + key);
+					}
+					break;
+				case "setConfiguration":
+					if (invocation.getArguments().length == 4)
+					{
+						// Profile value, by group, profile and key
+						values.put(group + "." + key + "." + invocation.getArgument(2), invocation.getArgument(3));
+						return null;
+					}
+					values.put(group + "." + key, String.valueOf((Object) invocation.getArgument(2)));
+					return null;
+				case "unsetConfiguration":
+					if (invocation.getArguments().length == 3)
+					{
+						values.remove(group + "." + key + "." + invocation.getArgument(2));
+						return null;
+					}
+					values.remove(group + "." + key);
+					return null;
+				case "getRSProfileConfiguration":
+					if (invocation.getArguments().length == 2)
+					{
+						return values.get(getProfileValueKey(group, key));
+					}
+					break;
+				case "setRSProfileConfiguration":
+					values.put(getProfileValueKey(group, key), String.valueOf((Object) invocation.getArgument(2)));
+					return null;
+				case "unsetRSProfileConfiguration":
+					values.remove(getProfileValueKey(group, key));
+					return null;
+				case "getRSProfileKey":
+					return RS_PROFILE_KEY;
+			}
+			return Answers.RETURNS_DEFAULTS.answer(invocation);
+		}));
+	}
+
+	public static ConfigManager create()
+	{
+		return create(new ConcurrentHashMap<>());
+	}
+
+	/**
+	 * The backing map key of a profile value
+	 */
+	public static String getProfileValueKey(String group, String key)
+	{
+		return group + "." + RS_PROFILE_KEY + "." + key;
+	}
+}
@@ -0,0 +1,93 @@
+package net.reldo.taskstracker.testing;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Game cache and player state served by a fake client: structs with int and string params, enums and varps.
+ * <p>
+ * Structs and enums are normally populated before a load starts. Varps can be changed at any time,
+ * such as from a {@link TickSimulator} tick listener.
+ */
+public class FakeGameData
+{
+	private final Map<Integer, Map<Integer, Object>> structParams = new ConcurrentHashMap<>();
+	private final Map<Integer, Map<Integer, Object>> enums = new ConcurrentHashMap<>();
+	private final Map<Integer, Integer> varps = new ConcurrentHashMap<>();
+	private final Map<Integer, Integer> varbits = new ConcurrentHashMap<>();
+
+	@Getter
+	@Setter
+	private volatile int revision = 1;
+
+	public void setStructParam(int structId, int paramId, int value)
+	{
+		structParams.computeIfAbsent(structId, id -> new ConcurrentHashMap<>()).put(paramId, value);
+	}
+
+	public void setStructParam(int structId, int paramId, String value)
+	{
+		structParams.computeIfAbsent(structId, id -> new ConcurrentHashMap<>()).put(paramId, value);
+	}
+
+	public boolean hasStruct(int structId)
+	{
+		return structParams.containsKey(structId);
+	}
+
+	/**
+	 * @return the int param, or 0 like the game does for missing params
+	 */
+	public int getStructIntParam(int structId, int paramId)
+	{
+		Object value = structParams.getOrDefault(structId, Map.of()).get(paramId);
+		return value instanceof Integer ? (Integer) value : 0;
+	}
+
+	/**
+	 * @return the string param, or null if the struct doesn't have it
+	 */
+	public String getStructStringParam(int structId, int paramId)
+	{
+		Object value = structParams.getOrDefault(structId, Map.of()).get(paramId);
+		return value instanceof String ? (String) value : null;
+	}
+
+	/**
+	 * @param values enum values by key, each an Integer or a String
+	 */
+	public void setEnum(int enumId, Map<Integer, ?> values)
+	{
+		enums.put(enumId, new ConcurrentHashMap<>(values));
+	}
+
+	/**
+	 * @return the enum values by key, or an empty map if there is no such enum
+	 */
+	public Map<Integer, Object> getEnum(int enumId)
+	{
+		return enums.getOrDefault(enumId, Map.of());
+	}
+
+	public void setVarp(int varpId, int value)
+	{
+		varps.put(varpId, value);
+	}
+
+	public int getVarp(int varpId)
+	{
+		return varps.getOrDefault(varpId, 0);
+	}
+
+	public void setVarbit(int varbitId, int value)
+	{
+		varbits.put(varbitId, value);
+	}
+
+	public int getVarbit(int varbitId)
+	{
+		return varbits.getOrDefault(varbitId, 0);
+	}
+}
@@ -0,0 +1,153 @@
+package net.reldo.taskstracker.testing;
+
+import com.google.gson.Gson;
+import com.google.inject.AbstractModule;
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import net.reldo.taskstracker.TasksTrackerConfig;
+import net.reldo.taskstracker.data.DataLoadExecutor;
+import net.reldo.taskstracker.data.TrackerConfigStore;
+import net.reldo.taskstracker.data.jsondatastore.reader.DataStoreReader;
+import net.reldo.taskstracker.data.jsondatastore.reader.HttpDataStoreReader;
+import net.reldo.taskstracker.data.task.TaskService;
+import net.reldo.taskstracker.data.task.TaskSnapshotStore;
+import net.reldo.taskstracker.data.task.TaskVarpSync;
+import net.runelite.api.Client;
+import net.runelite.client.callback.ClientThread;
+import net.runelite.client.config.ConfigManager;
+import net.runelite.client.game.SpriteManager;
+import okhttp3.OkHttpClient;
+import org.mockito.Mockito;
+
+/**
+ * Runs the plugin's data layer with no game and no network: a fake client and client thread serve
+ * {@link FakeGameData}, a {@link TickSimulator} runs the game loop, and a {@link MockDataStore} serves the task json store.
+ * <p>
+ * Services are created by Guice with the same bindings the plugin gets from the client, so load paths
+ * are the production ones. Each harness has its own injector, config and snapshot directory.
+ */
+@Slf4j
+public class HeadlessHarness implements AutoCloseable
+{
+	public static final long DEFAULT_FRAME_MILLIS = 20;
+
+	@Getter
+	private final FakeGameData gameData;
+	@Getter
+	private final FakeClientThread clientThread = new FakeClientThread();
+	@Getter
+	private final Client client;
+	@Getter
+	private final TickSimulator tickSimulator;
+	@Getter
+	private final MockDataStore dataStore = new MockDataStore();
+	/**
+	 * Config values by key, see {@link FakeConfigManager#create(Map)}
+	 */
+	@Getter
+	private final Map<String, String> configValues;
+	private final Injector injector;
+	private boolean started;
+
+	/**
+	 * @param dataStoreFiles task json store files by path
+	 * @param snapshotDir directory for task snapshots; share one between harnesses to measure warm starts
+	 * @param frameMillis time between client thread frames, or 0 to run frames back to back
+	 */
+	public HeadlessHarness(FakeGameData gameData, Map<String, String> dataStoreFiles, Path snapshotDir, long frameMillis)
+	{
+		this(gameData, dataStoreFiles, snapshotDir, frameMillis, new ConcurrentHashMap<>());
+	}
+
+	/**
+	 * @param configValues backing map of the config values, such as one that observes reads and writes
+	 */
+	public HeadlessHarness(FakeGameData gameData, Map<String, String> dataStoreFiles, Path snapshotDir, long frameMillis, Map<String, String> configValues)
+	{
+		this.gameData = gameData;
+		this.configValues = configValues;
+		this.client = FakeClient.create(gameData, clientThread);
+		this.tickSimulator = new TickSimulator(clientThread, frameMillis);
+		dataStore.putFiles(dataStoreFiles);
+
+		ConfigManager configManager = FakeConfigManager.create(configValues);
+		SpriteManager spriteManager = Mockito.mock(SpriteManager.class, Mockito.withSettings().stubOnly().defaultAnswer(
+			invocation -> new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB)));
+		TaskSnapshotStore taskSnapshotStore = new TaskSnapshotStore(snapshotDir.toFile());
+		injector = Guice.createInjector(new AbstractModule()
+		{
+			@Override
+			protected void configure()
+			{
+				bind(Client.class).toInstance(client);
+				bind(ClientThread.class).toInstance(clientThread);
+				bind(ConfigManager.class).toInstance(configManager);
+				bind(TasksTrackerConfig.class).toInstance(new TasksTrackerConfig()
+				{
+				});
+				bind(SpriteManager.class).toInstance(spriteManager);
+				bind(Gson.class).toInstance(new Gson());
+				bind(OkHttpClient.class).toInstance(new OkHttpClient());
+				bind(DataStoreReader.class).to(HttpDataStoreReader.class);
+				bind(TaskSnapshotStore.class).toInstance(taskSnapshotStore);
+			}
+		});
+	}
+
+	/**
+	 * Start the data store, the game loop and the data load executor, as the plugin does on startup
+	 */
+	public HeadlessHarness start() throws IOException
+	{
+		dataStore.start();
+		tickSimulator.start();
+		getInstance(DataLoadExecutor.class).start();
+		started = true;
+		return this;
+	}
+
+	public <T> T getInstance(Class<T> type)
+	{
+		return injector.getInstance(type);
+	}
+
+	public TaskService getTaskService()
+	{
+		return getInstance(TaskService.class);
+	}
+
+	public TrackerConfigStore getTrackerConfigStore()
+	{
+		return getInstance(TrackerConfigStore.class);
+	}
+
+	/**
+	 * Update every task of the current task type from its varp, with the plugin's {@link TaskVarpSync}
+	 *
+	 * @return future of whether every task was updated
+	 */
+	public CompletableFuture<Boolean> syncAllTaskVarps()
+	{
+		return getInstance(TaskVarpSync.class).syncVarp(null).thenApply(tasks -> true);
+	}
+
+	@Override
+	public void close() throws Exception
+	{
+		getTaskService().cancelTaskTypeLoad();
+		if (started)
+		{
+			getInstance(DataLoadExecutor.class).shutDown();
+			tickSimulator.close();
+			dataStore.close();
+		}
+	}
+}
@@ -0,0 +1,79 @@
+package net.reldo.taskstracker.testing;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import net.reldo.taskstracker.data.jsondatastore.JsonDataStore;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+
+/**
+ * Serves a task json store from memory over a local {@link MockWebServer}, so the real
+ * {@link net.reldo.taskstracker.data.jsondatastore.reader.HttpDataStoreReader} can be used without a network.
+ * <p>
+ * Files are keyed by their path in the store, such as "manifest.json" or "tasks/COMBAT.min.json".
+ * Starting the store points {@link JsonDataStore#baseUrl} at it until it is closed.
+ */
+public class MockDataStore implements AutoCloseable
+{
+	private final Map<String, String> files = new ConcurrentHashMap<>();
+	private final AtomicInteger requestCount = new AtomicInteger();
+	private final MockWebServer server = new MockWebServer();
+	private String previousBaseUrl;
+
+	public MockDataStore putFile(String path, String content)
+	{
+		files.put(path, content);
+		return this;
+	}
+
+	public MockDataStore putFiles(Map<String, String> filesByPath)
+	{
+		files.putAll(filesByPath);
+		return this;
+	}
+
+	/**
+	 * Number of requests served, including those for missing files
+	 */
+	public int getRequestCount()
+	{
+		return requestCount.get();
+	}
+
+	public void start() throws IOException
+	{
+		server.setDispatcher(new Dispatcher()
+		{
+			@Override
+			public MockResponse dispatch(RecordedRequest request)
+			{
+				requestCount.incrementAndGet();
+				String path = request.getPath() == null ? "" : request.getPath().replaceFirst("^/", "");
+				String content = files.get(path);
+				if (content == null)
+				{
+					return new MockResponse().setResponseCode(404);
+				}
+				return new MockResponse().setResponseCode(200).setBody(content);
+			}
+		});
+		server.start();
+		previousBaseUrl = JsonDataStore.baseUrl;
+		JsonDataStore.baseUrl = server.url("").toString().replaceFirst("/$", "");
+	}
+
+	@Override
+	public void close() throws IOException
+	{
+		if (previousBaseUrl != null)
+		{
+			JsonDataStore.baseUrl = previousBaseUrl;
+			previousBaseUrl = null;
+		}
+		server.shutdown();
+	}
+}
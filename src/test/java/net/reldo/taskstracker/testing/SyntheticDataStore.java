@@ -0,0 +1,344 @@
+package net.reldo.taskstracker.testing;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Generates a complete task json store for scale testing: manifest, task type metadata, filters and task files,
+ * with matching structs, tier enums and varps in a {@link FakeGameData}.
+ * <p>
+ * Every task type has the int params id, tier and category, the string params name and description, a tier
+ * button filter, a category dropdown, a region metadata dropdown and, when the spec has tags, a reference to
+ * a global tags metadata button filter in the filters file. Generation is deterministic for a spec.
+ */
+@Slf4j
+public class SyntheticDataStore
+{
+	public static final String MANIFEST_PATH = "manifest.json";
+	public static final String TASK_TYPES_PATH = "task-types.json";
+	public static final String FILTERS_PATH = "filters.json";
+	public static final int ID_PARAM = 1;
+	public static final int TIER_PARAM = 2;
+	public static final int CATEGORY_PARAM = 3;
+	public static final int NAME_PARAM = 4;
+	public static final int DESCRIPTION_PARAM = 5;
+	public static final int TIER_POINTS_PER_TIER = 5;
+	private static final int STRUCT_ID_BASE = 10_000;
+	private static final int STRUCT_IDS_PER_TASK_TYPE = 10_000_000;
+	private static final int VARP_ID_BASE = 1000;
+	private static final int VARPS_PER_TASK_TYPE = 1_000_000;
+	private static final int TIER_POINTS_ENUM_BASE = 5000;
+	private static final String[] SKILLS = {"ATTACK", "STRENGTH", "DEFENCE", "RANGED", "PRAYER", "MAGIC", "RUNECRAFT",
+		"CONSTRUCTION", "HITPOINTS", "AGILITY", "HERBLORE", "THIEVING", "CRAFTING", "FLETCHING", "SLAYER", "HUNTER",
+		"MINING", "SMITHING", "FISHING", "COOKING", "FIREMAKING", "WOODCUTTING", "FARMING"};
+
+	/**
+	 * Store files by path, as served by {@link MockDataStore}
+	 */
+	@Getter
+	private final Map<String, String> files = new LinkedHashMap<>();
+	@Getter
+	private final FakeGameData gameData = new FakeGameData();
+	private final Map<String, JsonObject> resolvedDefinitions = new HashMap<>();
+
+	private SyntheticDataStore()
+	{
+	}
+
+	public static SyntheticDataStore generate(SyntheticDataStoreSpec spec)
+	{
+		SyntheticDataStore store = new SyntheticDataStore();
+		Random random = new Random(spec.getSeed());
+
+		JsonObject manifest = new JsonObject();
+		manifest.addProperty("taskTypeMetadata", TASK_TYPES_PATH);
+		manifest.addProperty("filterMetadata", FILTERS_PATH);
+		store.files.put(MANIFEST_PATH, manifest.toString());
+
+		JsonArray globalFilters = new JsonArray();
+		JsonObject tagsFilter = spec.getTagCount() > 0 ? createTagsFilter(spec) : null;
+		if (tagsFilter != null)
+		{
+			globalFilters.add(tagsFilter);
+		}
+		store.files.put(FILTERS_PATH, globalFilters.toString());
+
+		JsonArray definitions = new JsonArray();
+		int taskTypeIndex = 0;
+		for (Map.Entry<String, Integer> taskCount : spec.getTaskCounts().entrySet())
+		{
+			String taskJsonName = taskCount.getKey();
+			JsonObject definition = createDefinition(spec, taskJsonName, taskTypeIndex, taskCount.getValue());
+			definitions.add(definition);
+
+			JsonObject resolvedDefinition = definition.deepCopy();
+			if (tagsFilter != null)
+			{
+				JsonArray filters = resolvedDefinition.getAsJsonArray("filters");
+				filters.set(filters.size() - 1, tagsFilter.deepCopy());
+			}
+			store.resolvedDefinitions.put(taskJsonName, resolvedDefinition);
+
+			store.files.put(getTasksPath(taskJsonName), store.generateTasks(spec, random, taskTypeIndex, taskCount.getValue()));
+			taskTypeIndex++;
+		}
+		store.files.put(TASK_TYPES_PATH, definitions.toString());
+		return store;
+	}
+
+	public static String getTasksPath(String taskJsonName)
+	{
+		return "tasks/" + taskJsonName + ".min.json";
+	}
+
+	public String getTaskJson(String taskJsonName)
+	{
+		return files.get(getTasksPath(taskJsonName));
+	}
+
+	/**
+	 * The task type definition with its global filters inlined, for building a task type without the filter service
+	 */
+	public String getResolvedDefinitionJson(String taskJsonName)
+	{
+		return resolvedDefinitions.get(taskJsonName).toString();
+	}
+
+	/**
+	 * Varp values of a task type, in the order of its task varps
+	 */
+	public int[] getVarpValues(List<Integer> taskVarps)
+	{
+		return taskVarps.stream().mapToInt(gameData::getVarp).toArray();
+	}
+
+	/**
+	 * Write the store files under a directory, in the layout of task-json-store
+	 */
+	public void writeTo(Path dir) throws IOException
+	{
+		for (Map.Entry<String, String> file : files.entrySet())
+		{
+			Path path = dir.resolve(file.getKey());
+			Files.createDirectories(path.getParent());
+			Files.write(path, file.getValue().getBytes(StandardCharsets.UTF_8));
+		}
+	}
+
+	/**
+	 * Writes a store to disk, to serve it to a client with a local web server
+	 *
+	 * @param args output directory, then task types as NAME=taskCount
+	 */
+	public static void main(String[] args) throws IOException
+	{
+		if (args.length < 2)
+		{
+			log.error("Usage: SyntheticDataStore <output dir> <NAME=taskCount>...");
+			return;
+		}
+		SyntheticDataStoreSpec spec = new SyntheticDataStoreSpec();
+		for (int i = 1; i < args.length; i++)
+		{
+			String[] taskType = args[i].split("=", 2);
+			spec.addTaskType(taskType[0], Integer.parseInt(taskType[1]));
+		}
+		Path dir = Paths.get(args[0]);
+		generate(spec).writeTo(dir);
+		log.info("Wrote synthetic data store with {} to {}", spec.getTaskCounts(), dir.toAbsolutePath());
+	}
+
+	private static JsonObject createDefinition(SyntheticDataStoreSpec spec, String taskJsonName, int taskTypeIndex, int taskCount)
+	{
+		JsonObject definition = new JsonObject();
+		definition.addProperty("name", "Synthetic " + taskJsonName);
+		definition.addProperty("description", "Generated tasks for scale testing");
+		definition.addProperty("isEnabled", true);
+		definition.addProperty("taskJsonName", taskJsonName);
+
+		JsonObject intParamMap = new JsonObject();
+		intParamMap.addProperty("id", ID_PARAM);
+		intParamMap.addProperty("tier", TIER_PARAM);
+		intParamMap.addProperty("category", CATEGORY_PARAM);
+		definition.add("intParamMap", intParamMap);
+		JsonObject stringParamMap = new JsonObject();
+		stringParamMap.addProperty("name", NAME_PARAM);
+		stringParamMap.addProperty("description", DESCRIPTION_PARAM);
+		definition.add("stringParamMap", stringParamMap);
+		JsonObject intEnumMap = new JsonObject();
+		intEnumMap.addProperty("tierPoints", TIER_POINTS_ENUM_BASE + taskTypeIndex);
+		definition.add("intEnumMap", intEnumMap);
+		definition.add("stringEnumMap", new JsonObject());
+
+		JsonArray taskVarps = new JsonArray();
+		int varpCount = (taskCount + 31) / 32;
+		for (int i = 0; i < varpCount; i++)
+		{
+			taskVarps.add(getVarpId(taskTypeIndex, i));
+		}
+		definition.add("taskVarps", taskVarps);
+
+		JsonArray filters = new JsonArray();
+		JsonArray tierItems = new JsonArray();
+		for (int tier = 1; tier <= spec.getTierCount(); tier++)
+		{
+			tierItems.add(createCustomItem(tier, "Tier " + tier));
+		}
+		filters.add(createFilter("tier", "Tier", "BUTTON_FILTER", "PARAM_INTEGER", "tier", tierItems));
+		filters.add(createFilter("category", "Category", "DROPDOWN_FILTER", "PARAM_INTEGER", "category", null));
+		filters.add(createFilter("region", "Region", "DROPDOWN_FILTER", "METADATA", "region", null));
+		if (spec.getTagCount() > 0)
+		{
+			JsonObject globalTags = new JsonObject();
+			globalTags.addProperty("configKey", "tags");
+			globalTags.addProperty("valueType", "GLOBAL");
+			filters.add(globalTags);
+		}
+		definition.add("filters", filters);
+		return definition;
+	}
+
+	private static JsonObject createTagsFilter(SyntheticDataStoreSpec spec)
+	{
+		JsonArray tagItems = new JsonArray();
+		for (int tag = 0; tag < spec.getTagCount(); tag++)
+		{
+			tagItems.add(createCustomItem(tag, getTag(tag)));
+		}
+		return createFilter("tags", "Tags", "BUTTON_FILTER", "METADATA", "tags", tagItems);
+	}
+
+	private static JsonObject createFilter(String configKey, String label, String filterType, String valueType, String valueName, JsonArray customItems)
+	{
+		JsonObject filter = new JsonObject();
+		filter.addProperty("configKey", configKey);
+		filter.addProperty("label", label);
+		filter.addProperty("filterType", filterType);
+		filter.addProperty("valueType", valueType);
+		filter.addProperty("valueName", valueName);
+		if (customItems != null)
+		{
+			filter.add("customItems", customItems);
+		}
+		return filter;
+	}
+
+	private static JsonObject createCustomItem(int value, String tooltip)
+	{
+		JsonObject customItem = new JsonObject();
+		customItem.addProperty("value", value);
+		customItem.addProperty("tooltip", tooltip);
+		return customItem;
+	}
+
+	/**
+	 * Generate the task file of a task type, along with its structs, tier points enum and varps
+	 */
+	private String generateTasks(SyntheticDataStoreSpec spec, Random random, int taskTypeIndex, int taskCount)
+	{
+		Map<Integer, Integer> tierPoints = new HashMap<>();
+		for (int tier = 1; tier <= spec.getTierCount(); tier++)
+		{
+			tierPoints.put(tier, tier * TIER_POINTS_PER_TIER);
+		}
+		gameData.setEnum(TIER_POINTS_ENUM_BASE + taskTypeIndex, tierPoints);
+
+		int[] varpValues = new int[(taskCount + 31) / 32];
+		JsonArray taskDefinitions = new JsonArray();
+		for (int i = 0; i < taskCount; i++)
+		{
+			int structId = STRUCT_ID_BASE + taskTypeIndex * STRUCT_IDS_PER_TASK_TYPE + i;
+			int tier = 1 + random.nextInt(spec.getTierCount());
+			int category = random.nextInt(spec.getCategoryCount());
+			gameData.setStructParam(structId, ID_PARAM, i);
+			gameData.setStructParam(structId, TIER_PARAM, tier);
+			gameData.setStructParam(structId, CATEGORY_PARAM, category);
+			gameData.setStructParam(structId, NAME_PARAM, "Task " + i);
+			gameData.setStructParam(structId, DESCRIPTION_PARAM, "Complete synthetic task " + i + " in category " + category);
+			if (random.nextDouble() < spec.getCompletedChance())
+			{
+				varpValues[i / 32] |= 1 << (i % 32);
+			}
+
+			JsonObject taskDefinition = new JsonObject();
+			taskDefinition.addProperty("structId", structId);
+			taskDefinition.addProperty("sortId", i);
+			if (random.nextDouble() < spec.getCompletionPercentChance())
+			{
+				taskDefinition.addProperty("completionPercent", random.nextFloat() * 100);
+			}
+			JsonArray skills = generateSkills(spec, random);
+			if (skills != null)
+			{
+				taskDefinition.add("skills", skills);
+			}
+			taskDefinition.add("metadata", generateMetadata(spec, random, tier));
+			taskDefinitions.add(taskDefinition);
+		}
+
+		for (int i = 0; i < varpValues.length; i++)
+		{
+			gameData.setVarp(getVarpId(taskTypeIndex, i), varpValues[i]);
+		}
+		return taskDefinitions.toString();
+	}
+
+	private static JsonArray generateSkills(SyntheticDataStoreSpec spec, Random random)
+	{
+		if (spec.getMaxSkillRequirements() <= 0 || random.nextDouble() >= spec.getSkillRequirementChance())
+		{
+			return null;
+		}
+		JsonArray skills = new JsonArray();
+		int skillCount = 1 + random.nextInt(spec.getMaxSkillRequirements());
+		for (int s = 0; s < skillCount; s++)
+		{
+			JsonObject skill = new JsonObject();
+			skill.addProperty("skill", SKILLS[random.nextInt(SKILLS.length)]);
+			skill.addProperty("level", 1 + (int) (98 * Math.pow(random.nextDouble(), spec.getSkillLevelExponent())));
+			skills.add(skill);
+		}
+		return skills;
+	}
+
+	private static JsonElement generateMetadata(SyntheticDataStoreSpec spec, Random random, int tier)
+	{
+		JsonObject metadata = new JsonObject();
+		metadata.addProperty("region", "Region " + random.nextInt(Math.max(1, spec.getRegionCount())));
+		metadata.addProperty("points", tier * TIER_POINTS_PER_TIER);
+		if (spec.getTagCount() > 0)
+		{
+			JsonArray tags = new JsonArray();
+			int tagCount = random.nextInt(spec.getMaxTagsPerTask() + 1);
+			for (int t = 0; t < tagCount; t++)
+			{
+				tags.add(getTag(random.nextInt(spec.getTagCount())));
+			}
+			metadata.add("tags", tags);
+		}
+		return metadata;
+	}
+
+	private static String getTag(int tag)
+	{
+		return "Tag " + tag;
+	}
+
+	private static int getVarpId(int taskTypeIndex, int varpIndex)
+	{
+		return VARP_ID_BASE + taskTypeIndex * VARPS_PER_TASK_TYPE + varpIndex;
+	}
+}
@@ -0,0 +1,106 @@
+package net.reldo.taskstracker.testing;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import lombok.Getter;
+
+/**
+ * What a {@link SyntheticDataStore} generates: its task types and their sizes, param cardinalities,
+ * skill requirement distribution, metadata and player progress.
+ * <p>
+ * Defaults other than the task types are close to the real combat achievements data.
+ */
+@Getter
+public class SyntheticDataStoreSpec
+{
+	private long seed = 1;
+	/**
+	 * Task counts by task json name, in manifest order
+	 */
+	private final Map<String, Integer> taskCounts = new LinkedHashMap<>();
+	private int tierCount = 6;
+	private int categoryCount = 12;
+	/**
+	 * Chance of a task having a completion percent
+	 */
+	private double completionPercentChance = 0.75;
+	/**
+	 * Chance of a task having any skill requirements
+	 */
+	private double skillRequirementChance = 0.4;
+	private int maxSkillRequirements = 2;
+	/**
+	 * Skill levels are {@code 1 + 98 * u^exponent} for uniform u, so 1 is uniform and larger skews towards low levels
+	 */
+	private double skillLevelExponent = 1;
+	/**
+	 * Number of distinct values of the "region" string metadata
+	 */
+	private int regionCount = 10;
+	/**
+	 * Number of distinct values of the "tags" string set metadata; 0 for no tags
+	 */
+	private int tagCount = 8;
+	private int maxTagsPerTask = 3;
+	/**
+	 * Chance of a task being completed in the generated varps
+	 */
+	private double completedChance = 1 / 3.0;
+
+	public SyntheticDataStoreSpec setSeed(long seed)
+	{
+		this.seed = seed;
+		return this;
+	}
+
+	public SyntheticDataStoreSpec addTaskType(String taskJsonName, int taskCount)
+	{
+		taskCounts.put(taskJsonName, taskCount);
+		return this;
+	}
+
+	public SyntheticDataStoreSpec setTierCount(int tierCount)
+	{
+		this.tierCount = tierCount;
+		return this;
+	}
+
+	public SyntheticDataStoreSpec setCategoryCount(int categoryCount)
+	{
+		this.categoryCount = categoryCount;
+		return this;
+	}
+
+	public SyntheticDataStoreSpec setCompletionPercentChance(double completionPercentChance)
+	{
+		this.completionPercentChance = completionPercentChance;
+		return this;
+	}
+
+	public SyntheticDataStoreSpec setSkillRequirements(double skillRequirementChance, int maxSkillRequirements, double skillLevelExponent)
+	{
+		this.skillRequirementChance = skillRequirementChance;
+		this.maxSkillRequirements = maxSkillRequirements;
+		this.skillLevelExponent = skillLevelExponent;
+		return this;
+	}
+
+	public SyntheticDataStoreSpec setRegionCount(int regionCount)
+	{
+		this.regionCount = regionCount;
+		return this;
+	}
+
+	public SyntheticDataStoreSpec setTags(int tagCount, int maxTagsPerTask)
+	{
+		this.tagCount = tagCount;
+		this.maxTagsPerTask = maxTagsPerTask;
+		return this;
+	}
+
+	public SyntheticDataStoreSpec setCompletedChance(double completedChance)
+	{
+		this.completedChance = completedChance;
+		return this;
+	}
+}
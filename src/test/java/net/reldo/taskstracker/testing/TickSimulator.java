@@ -0,0 +1,126 @@
+package net.reldo.taskstracker.testing;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Runs the game loop of a headless harness on its own thread: a client thread frame every
+ * {@code frameMillis}, and a game tick every {@link #TICK_MILLIS}.
+ * <p>
+ * Tick listeners run on the client thread at the start of each tick, before the frame's invocations,
+ * so they can change varps the way the server would.
+ */
+@Slf4j
+public class TickSimulator implements AutoCloseable
+{
+	public static final long TICK_MILLIS = 600;
+
+	private final FakeClientThread clientThread;
+	private final long frameNanos;
+	private final List<Runnable> tickListeners = new CopyOnWriteArrayList<>();
+	private final Thread thread;
+	private volatile boolean running = true;
+	@Getter
+	private volatile int tickCount;
+
+	/**
+	 * @param frameMillis time between frames, or 0 to run frames back to back
+	 */
+	public TickSimulator(FakeClientThread clientThread, long frameMillis)
+	{
+		this.clientThread = clientThread;
+		this.frameNanos = TimeUnit.MILLISECONDS.toNanos(frameMillis);
+		this.thread = new Thread(this::run, "fake-client-thread");
+		this.thread.setDaemon(true);
+		clientThread.setClientThread(thread);
+	}
+
+	public void start()
+	{
+		thread.start();
+	}
+
+	public void addTickListener(Runnable listener)
+	{
+		tickListeners.add(listener);
+	}
+
+	/**
+	 * Wait until the given number of ticks have passed
+	 */
+	public void awaitTicks(int ticks, long timeoutMillis) throws InterruptedException, TimeoutException
+	{
+		int targetTick = tickCount + ticks;
+		long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+		while (tickCount < targetTick)
+		{
+			if (System.nanoTime() > deadline)
+			{
+				throw new TimeoutException("Timed out waiting for tick " + targetTick);
+			}
+			Thread.sleep(1);
+		}
+	}
+
+	private void run()
+	{
+		long nextTick = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(TICK_MILLIS);
+		while (running)
+		{
+			long frameStart = System.nanoTime();
+			if (frameStart >= nextTick)
+			{
+				tickListeners.forEach(this::runListener);
+				clientThread.runFrame();
+				clientThread.runTickEnd();
+				tickCount++;
+				nextTick += TimeUnit.MILLISECONDS.toNanos(TICK_MILLIS);
+			}
+			else
+			{
+				clientThread.runFrame();
+			}
+
+			long sleepNanos = frameNanos - (System.nanoTime() - frameStart);
+			if (sleepNanos > 0)
+			{
+				try
+				{
+					TimeUnit.NANOSECONDS.sleep(sleepNanos);
+				}
+				catch (InterruptedException ex)
+				{
+					return;
+				}
+			}
+			else
+			{
+				Thread.yield();
+			}
+		}
+	}
+
+	private void runListener(Runnable listener)
+	{
+		try
+		{
+			listener.run();
+		}
+		catch (Exception ex)
+		{
+			log.warn("Exception in tick listener", ex);
+		}
+	}
+
+	@Override
+	public void close() throws InterruptedException
+	{
+		running = false;
+		thread.interrupt();
+		thread.join(TimeUnit.SECONDS.toMillis(5));
+	}
+}